@@ -11,12 +11,13 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
 public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> implements BeanPostProcessor {
     // 保存原始 bean 实例的映射表
-    Map<String, Object> originBeans = new HashMap<>();
+    Map<String, Object> originBeans = new ConcurrentHashMap<>();
     // 参数化类型 A 的 Class 对象
     Class<A> annotationClass;
     public AnnotationProxyBeanPostProcessor() {
@@ -38,7 +39,7 @@ public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> imp
                 throw new AopConfigException(String.format("@%s 必须返回 String 类型的 value() 方法.", this.annotationClass.getSimpleName()), e);
             }
             // 创建代理对象
-            Object proxy = createProxy(beanClass, bean, handlerName);
+            Object proxy = createProxy(beanClass, bean, handlerName, getPointcut(anno, beanClass));
             // 保存原始 bean 实例，并返回代理对象
             originBeans.put(beanName, bean);
             return proxy;
@@ -52,9 +53,10 @@ public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> imp
      * @param beanClass bean 的 Class 对象
      * @param bean 原始 bean 实例
      * @param handlerName 代理处理器名称
+     * @param pointcut 需要拦截的方法
      * @return 代理对象
      */
-    Object createProxy(Class<?> beanClass, Object bean, String handlerName) {
+    Object createProxy(Class<?> beanClass, Object bean, String handlerName, Pointcut pointcut) {
         // 获取 Spring 上下文环境
         ConfigurableApplicationContext ctx = (ConfigurableApplicationContext) ApplicationContextUtils.getRequiredApplicationContext();
         // 根据处理器名称查找 BeanDefinition 对象
@@ -67,16 +69,31 @@ public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> imp
         if (handlerBean == null) {
             handlerBean = ctx.createBeanAsEarlySingleton(def);
         }
+        // 优先使用不经过反射调用的 MethodInterceptor
+        if (handlerBean instanceof MethodInterceptor interceptor) {
+            return ProxyResolver.getInstance().createProxy(bean, List.of(interceptor), pointcut);
+        }
         // 判断处理器是否实现了 InvocationHandler 接口
         if (handlerBean instanceof InvocationHandler handler) {
             // 创建代理对象
-            return ProxyResolver.getInstance().createProxy(bean, handler);
+            return ProxyResolver.getInstance().createProxy(bean, handler, pointcut);
         } else {
-            throw new AopConfigException(String.format("@%s 代理处理器 '%s' 没有实现 %s 接口.", this.annotationClass.getSimpleName(), handlerName,
-                    InvocationHandler.class.getName()));
+            throw new AopConfigException(String.format("@%s 代理处理器 '%s' 没有实现 %s 或 %s 接口.", this.annotationClass.getSimpleName(), handlerName,
+                    MethodInterceptor.class.getName(), InvocationHandler.class.getName()));
         }
     }
 
+    /**
+     * 需要拦截的方法，在生成代理类时计算，默认拦截所有 public 方法。
+     * 只需拦截部分方法时覆写此方法，例如返回 {@link Pointcut#annotatedWith(Class)}，其他方法直接调用原始 bean，处理器不必在每次调用时判断。
+     * @param annotation bean 类上的注解
+     * @param beanClass bean 的 Class 对象
+     * @return 切点，生成的代理类按切点缓存，不应每次返回不相等的新对象
+     */
+    protected Pointcut getPointcut(A annotation, Class<?> beanClass) {
+        return Pointcut.ALL;
+    }
+
     /**
      * Bean 属性设置方法
      * @param bean bean 实例
@@ -0,0 +1,105 @@
+package org.demo.aop;
+
+import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.Origin;
+import net.bytebuddy.implementation.bind.annotation.Pipe;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 代理对象的方法调用入口，依次调用拦截器，最后通过生成的{@link Forwarder}直接调用原始Bean的方法。
+ * <p>
+ * 由生成的代理类调用，因此必须是public。
+ */
+public final class InterceptorChain {
+
+    /**
+     * 由ByteBuddy生成实现类，to(target)以相同参数直接调用target上被拦截的方法
+     */
+    public interface Forwarder {
+
+        Object to(Object target);
+    }
+
+    private final Object bean;
+    private final MethodInterceptor[] interceptors;
+
+    InterceptorChain(Object bean, List<MethodInterceptor> interceptors) {
+        this.bean = bean;
+        this.interceptors = interceptors.toArray(MethodInterceptor[]::new);
+    }
+
+    @RuntimeType
+    public Object intercept(@Origin Method method, @AllArguments Object[] args, @Pipe Forwarder forwarder) throws Throwable {
+        MethodInterceptor[] interceptors = this.interceptors;
+        return switch (interceptors.length) {
+            case 0 -> forwarder.to(this.bean);
+            // 只有一个拦截器时proceed()不会再调用拦截器，没有递归调用，JIT可以完全内联整个调用链:
+            case 1 -> interceptors[0].invoke(new Invocation(this.bean, method, args, forwarder));
+            default -> new ChainedInvocation(this.bean, method, args, forwarder, interceptors).proceed();
+        };
+    }
+
+    /**
+     * 调用原始Bean的方法
+     */
+    static class Invocation implements MethodInvocation {
+
+        final Object bean;
+        final Method method;
+        final Object[] args;
+        final Forwarder forwarder;
+
+        Invocation(Object bean, Method method, Object[] args, Forwarder forwarder) {
+            this.bean = bean;
+            this.method = method;
+            this.args = args;
+            this.forwarder = forwarder;
+        }
+
+        @Override
+        public Object getThis() {
+            return this.bean;
+        }
+
+        @Override
+        public Method getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return this.args;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            return this.forwarder.to(this.bean);
+        }
+    }
+
+    /**
+     * 依次调用多个拦截器，最后调用原始Bean的方法
+     */
+    static final class ChainedInvocation extends Invocation {
+
+        final MethodInterceptor[] interceptors;
+        // 下一个拦截器:
+        int index = 0;
+
+        ChainedInvocation(Object bean, Method method, Object[] args, Forwarder forwarder, MethodInterceptor[] interceptors) {
+            super(bean, method, args, forwarder);
+            this.interceptors = interceptors;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            if (this.index < this.interceptors.length) {
+                return this.interceptors[this.index++].invoke(this);
+            }
+            return super.proceed();
+        }
+    }
+}
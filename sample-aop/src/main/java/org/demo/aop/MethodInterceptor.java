@@ -0,0 +1,12 @@
+package org.demo.aop;
+
+/**
+ * 方法拦截器，可以在{@link MethodInvocation#proceed()}前后加入逻辑，或者修改返回值。
+ * <p>
+ * 与InvocationHandler不同，proceed()由生成的字节码直接调用原始Bean的方法，不经过Method.invoke()反射调用。
+ */
+@FunctionalInterface
+public interface MethodInterceptor {
+
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
@@ -0,0 +1,29 @@
+package org.demo.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 一次被拦截的方法调用
+ */
+public interface MethodInvocation {
+
+    /**
+     * 原始Bean
+     */
+    Object getThis();
+
+    /**
+     * 被调用的方法，可以用于读取方法上的注解
+     */
+    Method getMethod();
+
+    /**
+     * 调用参数，修改数组中的元素不会改变传给原始Bean的参数
+     */
+    Object[] getArguments();
+
+    /**
+     * 调用下一个拦截器，没有更多拦截器时调用原始Bean的方法，原始方法抛出的异常原样抛出
+     */
+    Object proceed() throws Throwable;
+}
@@ -0,0 +1,35 @@
+package org.demo.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * 选择需要拦截的public方法，在生成代理类时对每个方法计算一次，不匹配的方法由生成的字节码直接调用原始Bean，不经过拦截器。
+ * <p>
+ * Pointcut是代理类缓存的key之一，实现类应正确实现equals()和hashCode()，例如使用record或常量。
+ */
+@FunctionalInterface
+public interface Pointcut {
+
+    /**
+     * 拦截所有public方法
+     */
+    Pointcut ALL = method -> true;
+
+    boolean matches(Method method);
+
+    /**
+     * 拦截标注了指定注解的方法
+     */
+    static Pointcut annotatedWith(Class<? extends Annotation> annotationClass) {
+        return new AnnotationPointcut(annotationClass);
+    }
+
+    record AnnotationPointcut(Class<? extends Annotation> annotationClass) implements Pointcut {
+
+        @Override
+        public boolean matches(Method method) {
+            return method.isAnnotationPresent(this.annotationClass);
+        }
+    }
+}
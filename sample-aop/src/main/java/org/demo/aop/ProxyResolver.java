@@ -1,36 +1,112 @@
 package org.demo.aop;
 
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
 import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.Pipe;
 import net.bytebuddy.matcher.ElementMatchers;
+import org.demo.exception.AopConfigException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Create proxy by subclassing and override methods with interceptor.
+ * <p>
+ * 生成的代理类按目标Class、拦截方式和{@link Pointcut}缓存，同一类型的多个Bean共用一个代理类，每个代理实例的原始Bean和handler保存在代理类的字段中。
+ * Pointcut不匹配的public方法由生成的字节码直接调用原始Bean的方法，不经过handler。
+ * <p>
+ * 使用{@link MethodInterceptor}时，代理类通过生成的字节码直接调用原始Bean的方法，不使用反射。
  */
 public class ProxyResolver {
 
+    /**
+     * 代理类中保存原始Bean的字段
+     */
+    static final String TARGET_FIELD = "$$demoProxyTarget";
+
+    /**
+     * 代理类中保存{@link TargetInvocationHandler}的字段
+     */
+    static final String HANDLER_FIELD = "$$demoProxyHandler";
+
+    /**
+     * 代理类中保存{@link InterceptorChain}的字段
+     */
+    static final String CHAIN_FIELD = "$$demoProxyChain";
+
     final Logger logger = LoggerFactory.getLogger(getClass());
 
     // ByteBuddy实例 https://bytebuddy.net/
     final ByteBuddy byteBuddy = new ByteBuddy();
 
-    private static ProxyResolver INSTANCE = null;
+    // 按目标Class缓存的代理类，ClassValue不会阻止目标Class的ClassLoader被回收:
+    final ClassValue<Map<ProxyKey, ProxyClass>> proxyClasses = new ClassValue<>() {
+        @Override
+        protected Map<ProxyKey, ProxyClass> computeValue(Class<?> targetClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final ProxyResolver INSTANCE = new ProxyResolver();
 
     public static ProxyResolver getInstance() {
-        if (INSTANCE == null) {
-            INSTANCE = new ProxyResolver();
-        }
         return INSTANCE;
     }
 
     private ProxyResolver() {}
 
+    /**
+     * 代理类的拦截方式：interceptor为true时使用{@link InterceptorChain}，否则使用InvocationHandler
+     */
+    record ProxyKey(boolean interceptor, Pointcut pointcut) {
+    }
+
+    /**
+     * 已生成的代理类及其无参构造方法、原始Bean字段和handler字段
+     */
+    record ProxyClass(Class<?> type, Constructor<?> constructor, Field targetField, Field handlerField) {
+
+        Object newInstance(Object bean, Object handler) {
+            try {
+                Object proxy = this.constructor.newInstance();
+                this.targetField.set(proxy, bean);
+                this.handlerField.set(proxy, handler);
+                return proxy;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * 将代理对象上的方法调用转发给handler，并把原始Bean作为proxy参数传入
+     */
+    record TargetInvocationHandler(Object bean, InvocationHandler handler) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // 将方法调用代理至原始Bean:
+            return this.handler.invoke(this.bean, method, args);
+        }
+    }
+
     /**
      * 传入原始bean对象和InvocationHandler对象
      * @param bean
@@ -39,40 +115,85 @@ public class ProxyResolver {
      * @return
      * 创建代理对象的方法
      */
-    @SuppressWarnings("unchecked")
     public <T> T createProxy(T bean, InvocationHandler handler) {
+        return createProxy(bean, handler, Pointcut.ALL);
+    }
+
+    /**
+     * 创建代理对象，只有pointcut匹配的public方法经过handler
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(T bean, InvocationHandler handler, Pointcut pointcut) {
         // 目标Bean的Class类型:
         Class<?> targetClass = bean.getClass();
         // 日志输出创建代理对象的信息
         logger.atDebug().log("create proxy for bean {} @{}", targetClass.getName(), Integer.toHexString(bean.hashCode()));
+        // 获取缓存的代理类，第一次使用时生成:
+        ProxyClass proxyClass = getProxyClass(targetClass, new ProxyKey(false, pointcut));
+        // 使用代理对象的无参构造方法创建代理对象，然后设置原始Bean和handler，强制转换为原始bean对象的类型并返回
+        return (T) proxyClass.newInstance(bean, new TargetInvocationHandler(bean, handler));
+    }
+
+    /**
+     * 创建代理对象，public方法按顺序经过interceptors，最后直接调用原始Bean的方法
+     */
+    public <T> T createProxy(T bean, List<MethodInterceptor> interceptors) {
+        return createProxy(bean, interceptors, Pointcut.ALL);
+    }
+
+    /**
+     * 创建代理对象，只有pointcut匹配的public方法经过interceptors
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(T bean, List<MethodInterceptor> interceptors, Pointcut pointcut) {
+        Class<?> targetClass = bean.getClass();
+        logger.atDebug().log("create intercepted proxy for bean {} @{}", targetClass.getName(), Integer.toHexString(bean.hashCode()));
+        ProxyClass proxyClass = getProxyClass(targetClass, new ProxyKey(true, pointcut));
+        return (T) proxyClass.newInstance(bean, new InterceptorChain(bean, interceptors));
+    }
+
+    ProxyClass getProxyClass(Class<?> targetClass, ProxyKey key) {
+        return this.proxyClasses.get(targetClass).computeIfAbsent(key, k -> createProxyClass(targetClass, k));
+    }
+
+    ProxyClass createProxyClass(Class<?> targetClass, ProxyKey key) {
+        logger.atDebug().log("create proxy class for {} with {}", targetClass.getName(), key);
+        String handlerField = key.interceptor() ? CHAIN_FIELD : HANDLER_FIELD;
+        Class<?> handlerType = key.interceptor() ? InterceptorChain.class : InvocationHandler.class;
+        Implementation handlerImplementation = key.interceptor()
+                ? MethodDelegation.withDefaultConfiguration().withBinders(Pipe.Binder.install(InterceptorChain.Forwarder.class))
+                        .filter(ElementMatchers.named("intercept")).toField(CHAIN_FIELD)
+                : InvocationHandlerAdapter.toField(HANDLER_FIELD);
+        // 生成代理类时对每个方法计算一次pointcut:
+        Set<String> advised = new HashSet<>();
+        for (Method method : targetClass.getMethods()) {
+            if (key.pointcut().matches(method)) {
+                advised.add(signature(new MethodDescription.ForLoadedMethod(method)));
+            }
+        }
         // 使用ByteBuddy库创建代理对象的Class对象
         Class<?> proxyClass = this.byteBuddy
                 // 子类用默认无参数构造方法:
                 .subclass(targetClass, ConstructorStrategy.Default.DEFAULT_CONSTRUCTOR)
-                // 拦截 public 方法，使用指定的InvocationHandler处理
-                .method(ElementMatchers.isPublic()).intercept(InvocationHandlerAdapter.of(
-                        // 新的拦截器实例:
-                        new InvocationHandler() {
-                            @Override
-                            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                                // 将方法调用代理至原始Bean:
-                                return handler.invoke(bean, method, args);
-                            }
-                        }))
+                // 每个代理实例的原始Bean和handler:
+                .defineField(TARGET_FIELD, targetClass, Visibility.PUBLIC)
+                .defineField(handlerField, handlerType, Visibility.PUBLIC)
+                // 不匹配的 public 方法直接调用原始Bean:
+                .method(ElementMatchers.isPublic()).intercept(MethodCall.invokeSelf().onField(TARGET_FIELD).withAllArguments())
+                // 匹配的 public 方法，使用字段中的handler处理
+                .method(ElementMatchers.isPublic().and(method -> advised.contains(signature(method)))).intercept(handlerImplementation)
                 // 生成字节码:
                 .make()
                 // 加载字节码:
                 .load(targetClass.getClassLoader()).getLoaded();
-        // 使用代理对象的无参构造方法创建代理对象
-        Object proxy;
         try {
-            proxy = proxyClass.getConstructor().newInstance();
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            return new ProxyClass(proxyClass, proxyClass.getConstructor(), proxyClass.getField(TARGET_FIELD), proxyClass.getField(handlerField));
+        } catch (NoSuchMethodException | NoSuchFieldException e) {
+            throw new AopConfigException("Cannot create proxy class for " + targetClass.getName(), e);
         }
-        // 将代理对象强制转换为原始bean对象的类型并返回
-        return (T) proxy;
+    }
+
+    static String signature(MethodDescription method) {
+        return method.getInternalName() + method.getDescriptor();
     }
 }
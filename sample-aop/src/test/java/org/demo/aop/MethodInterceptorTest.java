@@ -0,0 +1,136 @@
+package org.demo.aop;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodInterceptorTest {
+
+    public static class Calculator {
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public void fail(String message) throws IOException {
+            throw new IOException(message);
+        }
+    }
+
+    @Test
+    public void testInterceptorChain() {
+        OriginBean origin = new OriginBean();
+        origin.name = "Bob";
+        List<String> calls = new ArrayList<>();
+        MethodInterceptor polite = invocation -> {
+            calls.add("polite:" + invocation.getMethod().getName());
+            String ret = (String) invocation.proceed();
+            return invocation.getMethod().getAnnotation(Polite.class) != null ? ret.replace(".", "!") : ret;
+        };
+        MethodInterceptor upper = invocation -> {
+            calls.add("upper:" + invocation.getMethod().getName());
+            assertSame(origin, invocation.getThis());
+            return ((String) invocation.proceed()).toUpperCase();
+        };
+        OriginBean proxy = ProxyResolver.getInstance().createProxy(origin, List.of(polite, upper));
+
+        assertNotSame(OriginBean.class, proxy.getClass());
+        assertNull(proxy.name);
+        assertEquals("HELLO, BOB!", proxy.hello());
+        assertEquals("MORNING, BOB.", proxy.morning());
+        // 按顺序调用拦截器:
+        assertEquals(List.of("polite:hello", "upper:hello", "polite:morning", "upper:morning"), calls);
+    }
+
+    @Test
+    public void testPrimitiveArgumentsAndExceptions() {
+        Calculator proxy = ProxyResolver.getInstance().createProxy(new Calculator(), List.of(invocation -> {
+            Object[] args = invocation.getArguments();
+            if (args.length == 2) {
+                assertEquals(List.of(1, 2), List.of(args));
+            }
+            return invocation.proceed();
+        }));
+        assertEquals(3, proxy.add(1, 2));
+        // 原始方法抛出的异常不会被包装:
+        IOException e = assertThrows(IOException.class, () -> proxy.fail("bad"));
+        assertEquals("bad", e.getMessage());
+    }
+
+    @Test
+    public void testProxyClassCached() {
+        Calculator first = ProxyResolver.getInstance().createProxy(new Calculator(), List.of(MethodInvocation::proceed));
+        Calculator second = ProxyResolver.getInstance().createProxy(new Calculator(), List.of());
+        assertSame(first.getClass(), second.getClass());
+        // InvocationHandler使用不同的代理类:
+        Calculator reflective = ProxyResolver.getInstance().createProxy(new Calculator(), (InvocationHandler) (bean, method, args) -> method.invoke(bean, args));
+        assertNotSame(first.getClass(), reflective.getClass());
+        assertEquals(5, second.add(2, 3));
+        assertEquals(5, reflective.add(2, 3));
+    }
+
+    @Test
+    public void testPointcut() {
+        OriginBean origin = new OriginBean();
+        origin.name = "Bob";
+        List<String> calls = new ArrayList<>();
+        OriginBean proxy = ProxyResolver.getInstance().createProxy(origin, List.of(invocation -> {
+            calls.add(invocation.getMethod().getName());
+            return invocation.proceed();
+        }), Pointcut.annotatedWith(Polite.class));
+        assertEquals("Hello, Bob.", proxy.hello());
+        // 不匹配的方法直接调用原始Bean:
+        assertEquals("Morning, Bob.", proxy.morning());
+        assertEquals(origin.hashCode(), proxy.hashCode());
+        assertEquals(List.of("hello"), calls);
+
+        // 相同的pointcut共用代理类:
+        OriginBean other = ProxyResolver.getInstance().createProxy(new OriginBean(), List.of(), Pointcut.annotatedWith(Polite.class));
+        assertSame(proxy.getClass(), other.getClass());
+        assertNotSame(proxy.getClass(), ProxyResolver.getInstance().createProxy(new OriginBean(), List.of()).getClass());
+
+        // InvocationHandler同样只拦截匹配的方法:
+        calls.clear();
+        OriginBean handled = ProxyResolver.getInstance().createProxy(origin, (InvocationHandler) (bean, method, args) -> {
+            calls.add(method.getName());
+            return method.invoke(bean, args);
+        }, Pointcut.annotatedWith(Polite.class));
+        assertEquals("Hello, Bob.", handled.hello());
+        assertEquals("Morning, Bob.", handled.morning());
+        assertEquals(List.of("hello"), calls);
+    }
+
+    /**
+     * 比较直接调用、MethodInterceptor代理、InvocationHandler代理和pointcut不匹配时的开销，运行：mvn test -Dbenchmark=true -Dtest=MethodInterceptorTest
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmark() {
+        Calculator direct = new Calculator();
+        Calculator intercepted = ProxyResolver.getInstance().createProxy(new Calculator(), List.of(MethodInvocation::proceed));
+        Calculator reflective = ProxyResolver.getInstance().createProxy(new Calculator(), (InvocationHandler) (bean, method, args) -> method.invoke(bean, args));
+        Calculator unadvised = ProxyResolver.getInstance().createProxy(new Calculator(), List.of(MethodInvocation::proceed), method -> false);
+        for (int round = 0; round < 5; round++) {
+            System.out.printf("round %d: direct %.1f ns/op, interceptor %.1f ns/op, invocation handler %.1f ns/op, unadvised %.1f ns/op%n", round,
+                    measure(direct), measure(intercepted), measure(reflective), measure(unadvised));
+        }
+    }
+
+    static double measure(Calculator calculator) {
+        final int n = 10_000_000;
+        int sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            sum = calculator.add(sum, i);
+        }
+        long time = System.nanoTime() - start;
+        assertNotEquals(-1, sum);
+        return (double) time / n;
+    }
+}
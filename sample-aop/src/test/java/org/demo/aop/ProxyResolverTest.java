@@ -30,4 +30,21 @@ class ProxyResolverTest {
         assertEquals("Morning, Bob.", proxy.morning());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testProxyClassCached() {
+        OriginBean bob = new OriginBean();
+        bob.name = "Bob";
+        OriginBean alice = new OriginBean();
+        alice.name = "Alice";
+
+        OriginBean bobProxy = ProxyResolver.getInstance().createProxy(bob, new PoliteInvocationHandler());
+        OriginBean aliceProxy = ProxyResolver.getInstance().createProxy(alice, new PoliteInvocationHandler());
+
+        // 同一目标类型共用一个代理类:
+        assertSame(bobProxy.getClass(), aliceProxy.getClass());
+        // 每个代理实例转发到各自的原始Bean:
+        assertEquals("Hello, Bob!", bobProxy.hello());
+        assertEquals("Hello, Alice!", aliceProxy.hello());
+        assertEquals("Morning, Alice.", aliceProxy.morning());
+    }
+}
@@ -19,12 +19,8 @@ public class MetricInvocationHandler implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        Metric metric = method.getAnnotation(Metric.class);
-        if (metric == null) {
-            // do not do performance test:
-            return method.invoke(proxy, args);
-        }
-        String name = metric.value();
+        // 只有标注了@Metric的方法才会被拦截:
+        String name = method.getAnnotation(Metric.class).value();
         long start = System.currentTimeMillis();
         try {
             return method.invoke(proxy, args);
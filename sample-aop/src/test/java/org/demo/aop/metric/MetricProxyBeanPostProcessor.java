@@ -3,8 +3,16 @@ package org.demo.aop.metric;
 
 import org.demo.annotation.Component;
 import org.demo.aop.AnnotationProxyBeanPostProcessor;
+import org.demo.aop.Pointcut;
 
 @Component
 public class MetricProxyBeanPostProcessor extends AnnotationProxyBeanPostProcessor<Metric> {
 
+    // 只拦截标注了@Metric的方法:
+    static final Pointcut METRIC_METHODS = Pointcut.annotatedWith(Metric.class);
+
+    @Override
+    protected Pointcut getPointcut(Metric annotation, Class<?> beanClass) {
+        return METRIC_METHODS;
+    }
 }
@@ -0,0 +1,25 @@
+package org.demo.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在@Component类或@Bean方法上，指定的Class都存在时才定义Bean。
+ * <p>
+ * 依赖的Class可能不在classpath中时，使用name指定类名，避免读取注解时加载失败。
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnClass {
+
+    Class<?>[] value() default {};
+
+    /**
+     * 完整类名
+     */
+    String[] name() default {};
+}
@@ -0,0 +1,20 @@
+package org.demo.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在@Component类或@Bean方法上，不存在指定类型的其他Bean时才定义Bean，用于提供可被覆盖的默认Bean。
+ * <p>
+ * 未指定类型时使用Bean自身的类型。多个Bean都标注时按@Order和名称顺序，先定义的Bean生效。
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnMissingBean {
+
+    Class<?>[] value() default {};
+}
@@ -0,0 +1,31 @@
+package org.demo.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在@Component类或@Bean方法上，属性满足条件时才定义Bean。标注在@Configuration类上时，其中的@Bean方法一并跳过。
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnProperty {
+
+    /**
+     * 属性名，例如"demo.datasource.url"
+     */
+    String name();
+
+    /**
+     * 期望的属性值(忽略大小写)，为空时只要属性存在且不为"false"即满足
+     */
+    String havingValue() default "";
+
+    /**
+     * 属性不存在时是否满足
+     */
+    boolean matchIfMissing() default false;
+}
@@ -0,0 +1,25 @@
+package org.demo.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 将前缀下的所有属性绑定到一个record或POJO，替代逐个声明的@Value。
+ * <p>
+ * 标注在类上时指定默认前缀，该类型的构造方法或工厂方法参数不需要再标注@Value或@Autowired；
+ * 标注在参数、字段或set方法上时，注入按指定前缀(为空时使用类上的前缀)绑定的新实例。
+ * 属性名使用kebab-case，例如maximumPoolSize对应"prefix.maximum-pool-size"，List使用"a,b,c"或"prefix.list[0]"，Map使用"prefix.map.key"。
+ */
+@Target({ ElementType.TYPE, ElementType.PARAMETER, ElementType.FIELD, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConfigurationProperties {
+
+    /**
+     * 属性前缀，例如"demo.datasource"
+     */
+    String prefix() default "";
+}
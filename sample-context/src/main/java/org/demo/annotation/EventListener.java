@@ -0,0 +1,24 @@
+package org.demo.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在Bean的方法上，方法只能有一个参数，参数类型为监听的事件类型，发布该类型或其子类型的事件时调用。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventListener {
+
+    /**
+     * 是否在事件线程池中异步调用，默认在发布事件的线程中同步调用。
+     * <p>
+     * Java 17没有虚拟线程，异步监听器由每个ApplicationContext共用的一个有界线程池调用，线程数和队列长度通过"demo.context.event.threads"和
+     * "demo.context.event.queue-capacity"设置，队列满时在发布事件的线程中调用。
+     */
+    boolean async() default false;
+}
@@ -0,0 +1,22 @@
+package org.demo.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在@Component类或@Bean方法上时，Bean在第一次被获取时才创建；
+ * 标注在注入点(字段、set方法、构造方法参数)上时，注入一个在第一次调用时才获取Bean的代理，只支持接口类型。
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Lazy {
+
+    /**
+     * Is lazy.
+     */
+    boolean value() default true;
+}
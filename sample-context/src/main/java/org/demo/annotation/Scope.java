@@ -0,0 +1,25 @@
+package org.demo.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在@Component类或@Bean方法上，指定Bean的作用域。
+ * <p>
+ * "pooled"作用域用于非线程安全且创建代价高的Bean：ApplicationContext返回一个接口代理，每次方法调用从对象池借出一个实例，调用结束后归还。
+ * 对象池通过Bean的构造方法或工厂方法创建实例，因此Bean必须实现至少一个接口，并按接口类型注入或获取。
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scope {
+
+    String SINGLETON = "singleton";
+
+    String POOLED = "pooled";
+
+    String value() default SINGLETON;
+}
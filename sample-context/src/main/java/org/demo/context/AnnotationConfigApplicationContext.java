@@ -4,8 +4,14 @@ import jakarta.annotation.Nullable;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.demo.annotation.*;
+import org.demo.context.index.ComponentIndex;
 import org.demo.exception.*;
+import org.demo.io.ClassMetadata;
+import org.demo.io.ClassMetadataReader;
+import org.demo.io.JarEntryCache;
+import org.demo.io.PropertyBinder;
 import org.demo.io.PropertyResolver;
+import org.demo.io.Resource;
 import org.demo.io.ResourceResolver;
 import org.demo.utils.ClassUtils;
 import org.slf4j.Logger;
@@ -13,78 +19,317 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class AnnotationConfigApplicationContext implements ConfigurableApplicationContext{
 
+    /**
+     * 是否并行启动
+     */
+    static final String PARALLEL_STARTUP_PROPERTY = "${demo.context.parallel-startup:false}";
+
+    /**
+     * 并行启动的线程数，默认为CPU核数
+     */
+    static final String STARTUP_THREADS_PROPERTY = "${demo.context.startup-threads:0}";
+
+    /**
+     * 关闭时销毁所有Bean的总超时时间，超时后不再等待未完成的destroy方法
+     */
+    static final String SHUTDOWN_TIMEOUT_PROPERTY = "${demo.context.shutdown-timeout:PT30S}";
+
+    /**
+     * 单个Bean的destroy方法超时时间，超时后依赖它的Bean不再等待，继续销毁
+     */
+    static final String DESTROY_TIMEOUT_PROPERTY = "${demo.context.destroy-timeout:PT10S}";
+
+    /**
+     * 是否使用编译期生成的组件索引，没有索引的classpath根目录仍然扫描
+     */
+    static final String COMPONENT_INDEX_PROPERTY = "${demo.context.component-index:true}";
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     /**
      *  属性解析器
      */
     protected final PropertyResolver propertyResolver;
+
     /**
-     * 记录扫描到的Bean
+     * 绑定@ConfigurationProperties
      */
-    protected final Map<String, BeanDefinition> beans;
+    protected final PropertyBinder propertyBinder;
+
+    /**
+     * 记录扫描到的Bean，创建后不再修改，请求线程可以无锁并发读取，关闭时整体替换为空Map
+     */
+    protected volatile Map<String, BeanDefinition> beans;
+
+    /**
+     * 按类型索引的BeanDefinition，key为Bean类型及其所有父类和接口，value为排序后的不可变列表
+     */
+    private volatile Map<Class<?>, List<BeanDefinition>> typeIndex = Map.of();
+
+    /**
+     * 按类型解析出的唯一BeanDefinition(唯一的一个或@Primary标注的一个)
+     */
+    private final Map<Class<?>, BeanDefinition> uniqueTypeCache = new ConcurrentHashMap<>();
 
     /**
      * 记录正在创建的Bean
      */
-    private Set<String> creatingBeanNames;
+    private final Set<String> creatingBeanNames = ConcurrentHashMap.newKeySet();
 
     /**
-     * BeanPostProcessor
+     * BeanPostProcessor，全部创建后一次性发布为不可变列表
      */
-    private List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
+    private volatile List<BeanPostProcessor> beanPostProcessors = List.of();
 
-    public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver) {
-        ApplicationContextUtils.setApplicationContext(this);
+    /**
+     * 是否已关闭
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * 关闭时每个Bean的destroy方法耗时
+     */
+    private final Map<String, Duration> destroyDurations = new ConcurrentHashMap<>();
+
+    /**
+     * 非@Lazy的Bean是否已全部创建，此后获取@Lazy的Bean会立即完成注入和初始化
+     */
+    private volatile boolean eagerBeansCreated = false;
 
+    /**
+     * "pooled"作用域的Bean的对象池
+     */
+    private final Map<String, BeanPool> beanPools = new ConcurrentHashMap<>();
+
+    /**
+     * 计算@ConditionalOnXxx条件
+     */
+    private final ConditionEvaluator conditionEvaluator;
+
+    /**
+     * 启动时间线，通过"demo.context.startup-recording=true"启用
+     */
+    protected final StartupRecorder startupRecorder;
+
+    /**
+     * 分发事件到@EventListener方法
+     */
+    private final ApplicationEventMulticaster eventMulticaster;
+
+    public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver) {
         this.propertyResolver = propertyResolver;
+        this.propertyBinder = new PropertyBinder(propertyResolver);
+        this.conditionEvaluator = new ConditionEvaluator(propertyResolver);
+        this.startupRecorder = new StartupRecorder(propertyResolver.getProperty(StartupRecorder.STARTUP_RECORDING_PROPERTY, boolean.class));
 
-        // 扫描获取所有Bean的Class类型:
-        final Set<String> beanClassNames = scanForClassNames(configClass);
+        // 启动时即注册并绑定当前线程，初始化Bean时启动的线程和BeanPostProcessor也能获取到:
+        ApplicationContextUtils.addApplicationContext(this);
+        ApplicationContext previous = ApplicationContextUtils.setCurrentApplicationContext(this);
+        try {
+            // 扫描获取所有Bean的Class类型并创建Bean的定义，启用扫描缓存时从缓存恢复:
+            try (var step = this.startupRecorder.start("scan")) {
+                this.beans = Collections.unmodifiableMap(loadBeanDefinitions(configClass));
+            }
 
-        // 创建Bean的定义:
-        this.beans = createBeanDefinitions(beanClassNames);
+            // 创建类型索引:
+            try (var step = this.startupRecorder.start("typeIndex")) {
+                refreshTypeIndex();
+            }
 
-        // 创建BeanName检测循环依赖:
-        this.creatingBeanNames = new HashSet<>();
+            // 注册@EventListener方法，初始化Bean时即可发布事件:
+            this.eventMulticaster = new ApplicationEventMulticaster(this, propertyResolver.getProperty(ApplicationEventMulticaster.EVENT_THREADS_PROPERTY, int.class),
+                    propertyResolver.getProperty(ApplicationEventMulticaster.EVENT_QUEUE_CAPACITY_PROPERTY, int.class));
+            try (var step = this.startupRecorder.start("eventListeners")) {
+                this.beans.values().stream().sorted().forEach(this.eventMulticaster::addListeners);
+            }
 
-        // 创建@Configuration类型的Bean:
-        this.beans.values().stream()
-                // 过滤出@Configuration:
-                .filter(this::isConfigurationDefinition).sorted().map(def -> {
-                    createBeanAsEarlySingleton(def);
-                    return def.getName();
-                }).collect(Collectors.toList());
+            // 创建@Configuration类型的Bean:
+            try (var step = this.startupRecorder.start("configuration")) {
+                this.beans.values().stream()
+                        // 过滤出@Configuration:
+                        .filter(this::isConfigurationDefinition).sorted().map(def -> {
+                            createBeanAsEarlySingleton(def);
+                            return def.getName();
+                        }).collect(Collectors.toList());
+            }
 
-        // 创建BeanPostProcessor类型的Bean:
-        List<BeanPostProcessor> processors = this.beans.values().stream()
-                // 过滤出BeanPostProcessor:
-                .filter(this::isBeanPostProcessorDefinition)
-                // 排序:
-                .sorted()
-                // instantiate and collect:
-                .map(def -> (BeanPostProcessor) createBeanAsEarlySingleton(def)).toList();
-        this.beanPostProcessors.addAll(processors);
+            // 创建BeanPostProcessor类型的Bean:
+            try (var step = this.startupRecorder.start("postProcessors")) {
+                List<BeanPostProcessor> processors = this.beans.values().stream()
+                        // 过滤出BeanPostProcessor:
+                        .filter(this::isBeanPostProcessorDefinition)
+                        // 排序:
+                        .sorted()
+                        // instantiate and collect:
+                        .map(def -> (BeanPostProcessor) createBeanAsEarlySingleton(def)).toList();
+                this.beanPostProcessors = List.copyOf(processors);
+            }
 
-        // 创建其他普通Bean:
-        createNormalBeans();
+            if (this.propertyResolver.getProperty(PARALLEL_STARTUP_PROPERTY, boolean.class)) {
+                // 按依赖关系并行创建、注入和初始化普通Bean:
+                startInParallel();
+            } else {
+                // 创建其他普通Bean:
+                try (var step = this.startupRecorder.start("create")) {
+                    createNormalBeans();
+                }
+                this.eagerBeansCreated = true;
+
+                // 通过字段和set方法注入依赖，@Lazy的Bean在第一次获取时注入:
+                try (var step = this.startupRecorder.start("inject")) {
+                    this.beans.values().forEach(def -> {
+                        if (!def.isLazy()) {
+                            injectBean(def);
+                        }
+                    });
+                }
 
-        // 通过字段和set方法注入依赖:
-        this.beans.values().forEach(this::injectBean);
+                // 调用init方法:
+                try (var step = this.startupRecorder.start("init")) {
+                    this.beans.values().forEach(def -> {
+                        if (!def.isLazy()) {
+                            initBean(def);
+                        }
+                    });
+                }
+            }
 
-        // 调用init方法:
-        this.beans.values().forEach(this::initBean);
+            if (this.startupRecorder.isEnabled()) {
+                // 记录Bean之间的依赖关系，用于计算关键路径:
+                this.startupRecorder.setDependencies(collectDependencies());
+            }
 
-        if (logger.isDebugEnabled()) {
-            this.beans.values().stream().sorted().forEach(def -> {
-                logger.debug("bean initialized: {}", def);
-            });
+            if (logger.isDebugEnabled()) {
+                this.beans.values().stream().sorted().forEach(def -> {
+                    logger.debug("bean initialized: {}", def);
+                });
+            }
+        } catch (RuntimeException | Error e) {
+            ApplicationContextUtils.removeApplicationContext(this);
+            throw e;
+        } finally {
+            ApplicationContextUtils.restoreCurrentApplicationContext(previous);
+        }
+    }
+
+    /**
+     * 扫描并创建BeanDefinition。存在构建时生成的ContextInitializer时直接使用，设置了"demo.context.scan-cache"时，classpath指纹不变则直接从缓存文件恢复，否则扫描后写入缓存文件。
+     * 扫描和缓存恢复的BeanDefinition最后按@ConditionalOnXxx过滤。
+     */
+    Map<String, BeanDefinition> loadBeanDefinitions(Class<?> configClass) {
+        if (this.propertyResolver.getProperty(ContextInitializer.AOT_PROPERTY, boolean.class)) {
+            // 优先使用构建时生成的BeanDefinition:
+            ContextInitializer initializer = ContextInitializer.find(configClass);
+            if (initializer != null) {
+                Map<String, BeanDefinition> beanDefsMap = new HashMap<>();
+                for (GeneratedBeanDefinition def : initializer.getBeanDefinitions()) {
+                    addBeanDefinitions(beanDefsMap, def);
+                }
+                logger.atInfo().log("{} bean definitions loaded from {}.", beanDefsMap.size(), initializer.getClass().getName());
+                return beanDefsMap;
+            }
+        }
+        String cacheFile = this.propertyResolver.getProperty(ScanCache.SCAN_CACHE_PROPERTY);
+        ScanCache scanCache = null;
+        if (cacheFile != null && !cacheFile.isEmpty()) {
+            ClassLoader cl = Thread.currentThread().getContextClassLoader();
+            scanCache = new ScanCache(Paths.get(cacheFile),
+                    ScanCache.fingerprint(configClass, getScanPackages(configClass), getComponentIndex(), cl == null ? getClass().getClassLoader() : cl));
+            ScanCache.Content content = scanCache.load();
+            if (content != null) {
+                Map<String, BeanDefinition> beanDefsMap = restoreBeanDefinitions(content);
+                if (beanDefsMap != null) {
+                    logger.atInfo().log("{} bean definitions restored from scan cache: {}", beanDefsMap.size(), cacheFile);
+                    return this.conditionEvaluator.filter(beanDefsMap);
+                }
+            }
+        }
+        // 扫描获取所有Bean的Class类型:
+        final Set<String> beanClassNames = scanForClassNames(configClass);
+        // 创建Bean的定义:
+        Map<String, BeanDefinition> beanDefsMap = createBeanDefinitions(beanClassNames);
+        // 缓存计算条件前的BeanDefinition:
+        if (scanCache != null) {
+            scanCache.save(beanClassNames, beanDefsMap.values());
+        }
+        // 按@Conditional过滤BeanDefinition:
+        return this.conditionEvaluator.filter(beanDefsMap);
+    }
+
+    /**
+     * 根据缓存的元数据创建BeanDefinition，缓存与实际的类不一致时返回null
+     */
+    @Nullable
+    Map<String, BeanDefinition> restoreBeanDefinitions(ScanCache.Content content) {
+        Map<String, BeanDefinition> beanDefsMap = new HashMap<>();
+        try {
+            // 先创建@Component的定义，再创建@Bean工厂方法的定义:
+            for (ScanCache.CachedBean bean : content.beans()) {
+                if (bean.factoryName() == null) {
+                    Class<?> clazz = Class.forName(bean.beanClass());
+                    var def = new BeanDefinition(bean.name(), clazz, getSuitableConstructor(clazz), bean.order(), bean.primary(),
+                            bean.initMethodName(), bean.destroyMethodName(), findCachedMethod(bean.initMethod()), findCachedMethod(bean.destroyMethod()));
+                    def.setLazy(bean.lazy());
+                    def.setScope(getScope(clazz));
+                    addBeanDefinitions(beanDefsMap, def);
+                }
+            }
+            for (ScanCache.CachedBean bean : content.beans()) {
+                if (bean.factoryName() != null) {
+                    BeanDefinition factoryDef = beanDefsMap.get(bean.factoryName());
+                    Method factoryMethod = findCachedFactoryMethod(factoryDef == null ? null : factoryDef.getBeanClass(), bean);
+                    var def = new BeanDefinition(bean.name(), Class.forName(bean.beanClass()), bean.factoryName(), factoryMethod,
+                            bean.order(), bean.primary(), bean.initMethodName(), bean.destroyMethodName(), null, null);
+                    def.setLazy(bean.lazy());
+                    def.setScope(getScope(factoryMethod));
+                    addBeanDefinitions(beanDefsMap, def);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("invalid scan cache, fallback to component scan.", e);
+            return null;
+        }
+        return beanDefsMap;
+    }
+
+    @Nullable
+    Method findCachedMethod(@Nullable String method) throws ReflectiveOperationException {
+        if (method == null) {
+            return null;
+        }
+        int n = method.indexOf('#');
+        return Class.forName(method.substring(0, n)).getDeclaredMethod(method.substring(n + 1));
+    }
+
+    Method findCachedFactoryMethod(Class<?> factoryClass, ScanCache.CachedBean bean) throws NoSuchMethodException {
+        if (factoryClass != null) {
+            for (Method method : factoryClass.getDeclaredMethods()) {
+                if (method.getName().equals(bean.factoryMethod()) && method.isAnnotationPresent(Bean.class)
+                        && Arrays.equals(Arrays.stream(method.getParameterTypes()).map(Class::getName).toArray(), bean.factoryParameterTypes())) {
+                    return method;
+                }
+            }
         }
+        throw new NoSuchMethodException("Factory method not found: " + bean.factoryName() + "." + bean.factoryMethod());
     }
 
     /**
@@ -109,6 +354,11 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
             // 检查类是否标注了@Component注解:
             Component component = ClassUtils.findAnnotation(clazz, Component.class);
             if (component != null) {
+                // @ConditionalOnClass不满足时跳过，不再查找@Bean方法:
+                if (!this.conditionEvaluator.matchesClass(clazz)) {
+                    logger.atDebug().log("skip component {}: @ConditionalOnClass not matched.", clazz.getName());
+                    continue;
+                }
                 // 记录找到的组件:
                 logger.atDebug().log("found component: {}", clazz.getName());
                 // 检查类是否是抽象类:
@@ -134,6 +384,9 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                         ClassUtils.findAnnotationMethod(clazz, PostConstruct.class), // 获取@PostConstruct注解标注的方法
                         ClassUtils.findAnnotationMethod(clazz, PreDestroy.class) // 获取@PreDestroy注解标注的方法
                 );
+                // 判断是否@Lazy注解，@Configuration和BeanPostProcessor总是立即创建:
+                def.setLazy(isLazy(clazz.getAnnotation(Lazy.class)) && !isConfigurationDefinition(def) && !isBeanPostProcessorDefinition(def));
+                def.setScope(getScope(clazz));
                 // 将BeanDefinition添加到HashMap中:
                 addBeanDefinitions(beanDefsMap, def);
                 // 记录定义的Bean：
@@ -210,6 +463,8 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                         bean.destroyMethod().isEmpty() ? null : bean.destroyMethod(),
                         // @PostConstruct / @PreDestroy method:
                         null, null);
+                def.setLazy(isLazy(method.getAnnotation(Lazy.class)) && !isBeanPostProcessorDefinition(def));
+                def.setScope(getScope(method));
                 addBeanDefinitions(beanDefsMap, def);
                 logger.atDebug().log("define bean: {}", def);
             }
@@ -225,6 +480,15 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
     }
 
+    boolean isLazy(@Nullable Lazy lazy) {
+        return lazy != null && lazy.value();
+    }
+
+    String getScope(AnnotatedElement element) {
+        Scope scope = element.getAnnotation(Scope.class);
+        return scope == null ? Scope.SINGLETON : scope.value();
+    }
+
     /**
      * Get order by:
      *
@@ -260,32 +524,46 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     protected Set<String> scanForClassNames(Class<?> configClass) {
         // 获取要扫描的package名称:
-        // 获取@ComponentScan注解，如果没有指定value，则默认为configClass所在的包
-        ComponentScan scan = ClassUtils.findAnnotation(configClass, ComponentScan.class);
-        final String[] scanPackages = scan == null || scan.value().length == 0 ? new String[] { configClass.getPackage().getName() } : scan.value();
+        final String[] scanPackages = getScanPackages(configClass);
         logger.atInfo().log("component scan in packages: {}", Arrays.toString(scanPackages));
-        Set<String> classNameSet = new HashSet<>();
+        // 编译期生成的组件索引，带有索引的classpath根目录不再扫描:
+        final ComponentIndex index = getComponentIndex();
+        final Set<String> classNameSet = new HashSet<>();
+        if (index != null) {
+            logger.atInfo().log("component index found in {}.", index.getIndexedRoots());
+            for (String pkg : scanPackages) {
+                // 查询索引:
+                logger.atDebug().log("lookup component index for package: {}", pkg);
+                classNameSet.addAll(index.getCandidateTypes(pkg));
+            }
+        }
+        // 通过字节码过滤候选组件，不加载非组件类:
+        final ClassMetadataReader metadataReader = new ClassMetadataReader();
+        // 合并所有package的扫描结果，在ForkJoinPool中并行扫描:
+        Stream<String> classStream = Stream.empty();
         for (String pkg : scanPackages) {
             // 扫描package:
             logger.atDebug().log("scan package: {}", pkg);
-            // 构建ResourceResolver并扫描指定包下的类
-            var rr = new ResourceResolver(pkg);
-            List<String> classList = rr.scan(res -> {
+            // 构建ResourceResolver并扫描指定包下没有索引的根目录
+            var rr = index == null ? new ResourceResolver(pkg) : new ResourceResolver(pkg, index::isIndexed);
+            classStream = Stream.concat(classStream, rr.stream(res -> {
                 String name = res.name();
-                // 如果这是一个类文件，则返回类名
+                // 如果这是一个类文件，并且是候选组件，则返回类名
                 if (name.endsWith(".class")) {
-                    return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
+                    String className = name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
+                    return isCandidateComponent(metadataReader, res, className) ? className : null;
                 }
                 return null;
+            }));
+        }
+        try (Stream<String> stream = classStream.parallel()) {
+            classNameSet.addAll(stream.collect(Collectors.toList()));
+        }
+        // 打印日志
+        if (logger.isDebugEnabled()) {
+            classNameSet.forEach((className) -> {
+                logger.debug("class found by component scan: {}", className);
             });
-            // 打印日志
-            if (logger.isDebugEnabled()) {
-                classList.forEach((className) -> {
-                    logger.debug("class found by component scan: {}", className);
-                });
-            }
-            // 将扫描到的类名添加到集合中
-            classNameSet.addAll(classList);
         }
         // 查找@Import(Xyz.class):
         // 获取@Import注解，如果有，则将指定的类添加到集合中
@@ -304,6 +582,41 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         return classNameSet;
     }
 
+    /**
+     * 设置"demo.context.component-index=false"时不使用组件索引
+     */
+    @Nullable
+    ComponentIndex getComponentIndex() {
+        return this.propertyResolver.getProperty(COMPONENT_INDEX_PROPERTY, boolean.class) ? ComponentIndex.load() : null;
+    }
+
+    /**
+     * 获取@ComponentScan注解，如果没有指定value，则默认为configClass所在的包
+     */
+    String[] getScanPackages(Class<?> configClass) {
+        ComponentScan scan = ClassUtils.findAnnotation(configClass, ComponentScan.class);
+        return scan == null || scan.value().length == 0 ? new String[] { configClass.getPackage().getName() } : scan.value();
+    }
+
+    /**
+     * 读取字节码判断是否是候选组件，与createBeanDefinitions()的过滤条件一致。抽象类和私有类仍作为候选，由createBeanDefinitions()报错。
+     */
+    boolean isCandidateComponent(ClassMetadataReader metadataReader, Resource resource, String className) {
+        ClassMetadata metadata;
+        try {
+            // 直接读取扫描到的字节码，不再通过ClassLoader查找:
+            metadata = metadataReader.getMetadata(resource);
+        } catch (RuntimeException e) {
+            // 无法解析的字节码交给Class.forName()处理:
+            logger.atDebug().log("cannot read class metadata of {}: {}", className, e.getMessage());
+            return true;
+        }
+        if (metadata.isAnnotation() || metadata.isEnum() || metadata.isInterface() || metadata.isRecord()) {
+            return false;
+        }
+        return metadataReader.isAnnotated(metadata, Component.class.getName());
+    }
+
     boolean isConfigurationDefinition(BeanDefinition def) {
         return ClassUtils.findAnnotation(def.getBeanClass(), Configuration.class) != null;
     }
@@ -333,14 +646,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     /**
-     * 根据Type查找若干个BeanDefinition，返回0个或多个。
+     * 根据Type查找若干个BeanDefinition，返回0个或多个。结果来自类型索引，已排序且不可修改。
      */
     public List<BeanDefinition> findBeanDefinitions(Class<?> type) {
-        return this.beans.values().stream()
-                // filter by type and sub-type:
-                .filter(def -> type.isAssignableFrom(def.getBeanClass()))
-                // 排序:
-                .sorted().collect(Collectors.toList());
+        return this.typeIndex.getOrDefault(type, List.of());
     }
 
     /**
@@ -348,6 +657,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     @Nullable
     public BeanDefinition findBeanDefinition(Class<?> type) {
+        BeanDefinition cached = this.uniqueTypeCache.get(type);
+        if (cached != null) {
+            return cached;
+        }
         List<BeanDefinition> defs = findBeanDefinitions(type);
         if (defs.isEmpty()) {
             return null;
@@ -358,7 +671,9 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         // more than 1 beans, require @Primary:
         List<BeanDefinition> primaryDefs = defs.stream().filter(def -> def.isPrimary()).collect(Collectors.toList());
         if (primaryDefs.size() == 1) {
-            return primaryDefs.get(0);
+            BeanDefinition primaryDef = primaryDefs.get(0);
+            this.uniqueTypeCache.put(type, primaryDef);
+            return primaryDef;
         }
         if (primaryDefs.isEmpty()) {
             throw new NoUniqueBeanDefinitionException(String.format("Multiple bean with type '%s' found, but no @Primary specified.", type.getName()));
@@ -367,120 +682,469 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
     }
 
+    /**
+     * 根据当前的BeanDefinition重建类型索引
+     */
+    void refreshTypeIndex() {
+        Map<Class<?>, List<BeanDefinition>> index = new HashMap<>();
+        for (BeanDefinition def : this.beans.values()) {
+            for (Class<?> type : getAssignableTypes(def.getBeanClass())) {
+                // "pooled"作用域的Bean实例是接口代理，只能按接口类型查找:
+                if (def.isPooled() && !type.isInterface() && type != Object.class) {
+                    continue;
+                }
+                index.computeIfAbsent(type, key -> new ArrayList<>()).add(def);
+            }
+        }
+        // 排序:
+        index.replaceAll((type, defs) -> {
+            Collections.sort(defs);
+            return List.copyOf(defs);
+        });
+        this.typeIndex = index;
+        this.uniqueTypeCache.clear();
+    }
 
+    /**
+     * 获取可以赋值为给定类型的所有类型：自身、所有父类、所有接口，以及Object
+     */
+    Set<Class<?>> getAssignableTypes(Class<?> clazz) {
+        Set<Class<?>> types = new HashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(clazz);
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (types.add(type)) {
+                if (type.getSuperclass() != null) {
+                    queue.add(type.getSuperclass());
+                }
+                queue.addAll(Arrays.asList(type.getInterfaces()));
+            }
+        }
+        // 接口类型的Bean也可以赋值给Object:
+        types.add(Object.class);
+        return types;
+    }
 
     /**
      * 创建一个Bean，但不进行字段和方法级别的注入。如果创建的Bean不是Configuration，则在构造方法中注入的依赖Bean会自动创建。
      */
     public Object createBeanAsEarlySingleton(BeanDefinition def) {
+        // 并行启动时同一个Bean可能被多个线程请求创建(例如代理的InvocationHandler)，由第一个线程创建，其他线程等待并返回已创建的实例:
+        synchronized (def) {
+            if (def.getInstance() != null) {
+                return def.getInstance();
+            }
+            if (def.isPooled()) {
+                // 对象池在第一次借出时创建实例:
+                return createBeanPool(def);
+            }
+            // BeanPostProcessor通过ApplicationContextUtils获取当前线程正在处理的ApplicationContext:
+            ApplicationContext previous = ApplicationContextUtils.setCurrentApplicationContext(this);
+            try (var step = this.startupRecorder.start("create", def.getName(), null)) {
+                return doCreateBeanAsEarlySingleton(def);
+            } finally {
+                ApplicationContextUtils.restoreCurrentApplicationContext(previous);
+            }
+        }
+    }
+
+    Object doCreateBeanAsEarlySingleton(BeanDefinition def) {
         logger.atDebug().log("Try create bean '{}' as early singleton: {}", def.getName(), def.getBeanClass().getName());
         // 检测循环依赖
         if (!this.creatingBeanNames.add(def.getName())) {
             throw new UnsatisfiedDependencyException(String.format("Circular dependency detected when create bean '%s'", def.getName()));
         }
-        // 创建方式：构造方法或工厂方法:
-        Executable createFn = def.getFactoryName() == null ?
-                def.getConstructor() : def.getFactoryMethod();
-
         // 创建参数:
+        final boolean isConfiguration = isConfigurationDefinition(def);
+        final List<BeanDependency> arguments = getCreateArguments(def);
+        Object[] args = new Object[arguments.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = resolveCreateArgument(def, arguments.get(i), isConfiguration);
+        }
+
+        // 已拿到所有方法参数,创建Bean实例:
+        Object instance = instantiate(def, args);
+        def.setInstance(instance);
+
+        // 调用BeanPostProcessor处理Bean:
+        for (BeanPostProcessor processor : beanPostProcessors) {
+            Object processed;
+            try (var step = this.startupRecorder.start("postProcessBeforeInitialization", def.getName(), processor.getClass().getName())) {
+                processed = processor.postProcessBeforeInitialization(def.getInstance(), def.getName());
+            }
+            if (processed == null) {
+                throw new BeanCreationException(String.format("PostBeanProcessor returns null when process bean '%s' by %s", def.getName(), processor));
+            }
+            // 如果一个BeanPostProcessor替换了原始Bean，则更新Bean的引用:
+            if (def.getInstance() != processed) {
+                logger.atDebug().log("Bean '{}' was replaced by post processor {}.", def.getName(), processor.getClass().getName());
+                def.setInstance(processed);
+            }
+        }
+
+        return def.getInstance();
+    }
+
+    /**
+     * 调用构造方法、工厂方法或构建时生成的代码创建实例
+     */
+    Object instantiate(BeanDefinition def, Object[] args) {
+        Object instance;
+        if (def instanceof GeneratedBeanDefinition generated) {
+            // 调用构建时生成的代码创建:
+            Object factoryBean = def.getFactoryName() == null ? null : getBean(def.getFactoryName());
+            try {
+                instance = generated.getInstantiator().instantiate(factoryBean, args);
+            } catch (Throwable e) {
+                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+            }
+        } else if (def.getFactoryName() == null) {
+            // 用构造方法创建:
+            try {
+                instance = InjectionPlan.newInstance(def.getConstructor(), args);
+            } catch (Throwable e) {
+                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+            }
+        } else {
+            // 用@Bean方法创建:
+            Object configInstance = getBean(def.getFactoryName());
+            try {
+                instance = InjectionPlan.invokeFactory(def.getFactoryMethod(), configInstance, args);
+            } catch (Throwable e) {
+                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 创建"pooled"作用域的Bean的对象池，返回实现Bean所有接口的代理
+     */
+    Object createBeanPool(BeanDefinition def) {
+        if (isConfigurationDefinition(def) || isBeanPostProcessorDefinition(def)) {
+            throw new BeanDefinitionException(String.format("@Configuration or BeanPostProcessor bean '%s' cannot be pooled.", def.getName()));
+        }
+        Class<?>[] interfaces = getAssignableTypes(def.getBeanClass()).stream().filter(Class::isInterface)
+                .sorted(Comparator.comparing(Class::getName)).toArray(Class<?>[]::new);
+        if (interfaces.length == 0) {
+            throw new BeanDefinitionException(String.format("Pooled bean '%s' must implement at least one interface: %s", def.getName(),
+                    def.getBeanClass().getName()));
+        }
+        // 按Bean名称单独设置，未设置时使用全局设置:
+        String prefix = "${demo.context.pool." + def.getName() + ".";
+        int maxSize = this.propertyResolver.getProperty(prefix + "max-size:${" + BeanPool.MAX_SIZE_PROPERTY + ":0}}", int.class);
+        Duration maxIdle = this.propertyResolver.getProperty(prefix + "max-idle:${" + BeanPool.MAX_IDLE_PROPERTY + ":PT5M}}", Duration.class);
+        Duration borrowTimeout = this.propertyResolver.getProperty(prefix + "borrow-timeout:${" + BeanPool.BORROW_TIMEOUT_PROPERTY + ":PT30S}}",
+                Duration.class);
+        if (maxSize <= 0) {
+            maxSize = Runtime.getRuntime().availableProcessors();
+        }
+        logger.atDebug().log("create pool for bean '{}' with max size {}.", def.getName(), maxSize);
+        BeanPool pool = new BeanPool(def.getName(), maxSize, maxIdle, borrowTimeout, () -> createPooledInstance(def),
+                instance -> destroyInstance(def, instance));
+        this.beanPools.put(def.getName(), pool);
+        Object proxy = pool.createProxy(def.getBeanClass().getClassLoader(), interfaces);
+        def.setInstance(proxy);
+        return proxy;
+    }
+
+    /**
+     * 为对象池创建一个完成注入和初始化的实例，不影响BeanDefinition
+     */
+    BeanPool.Pooled createPooledInstance(BeanDefinition def) {
+        ApplicationContext previous = ApplicationContextUtils.setCurrentApplicationContext(this);
+        try {
+            final List<BeanDependency> arguments = getCreateArguments(def);
+            Object[] args = new Object[arguments.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = resolveCreateArgument(def, arguments.get(i), false);
+            }
+            final Object target = instantiate(def, args);
+            Object instance = target;
+            for (BeanPostProcessor processor : this.beanPostProcessors) {
+                instance = Objects.requireNonNull(processor.postProcessBeforeInitialization(instance, def.getName()),
+                        "PostBeanProcessor returns null when process pooled bean: " + def.getName());
+            }
+            for (InjectionPoint point : getInjectionPoints(def)) {
+                injectProperty(def, target, point);
+            }
+            initInstance(def, target);
+            for (BeanPostProcessor processor : this.beanPostProcessors) {
+                instance = Objects.requireNonNull(processor.postProcessAfterInitialization(instance, def.getName()),
+                        "PostBeanProcessor returns null when process pooled bean: " + def.getName());
+            }
+            return new BeanPool.Pooled(target, instance);
+        } finally {
+            ApplicationContextUtils.restoreCurrentApplicationContext(previous);
+        }
+    }
+
+    /**
+     * 每个"pooled"作用域的Bean的对象池统计
+     */
+    public Map<String, BeanPoolMetrics> getBeanPoolMetrics() {
+        Map<String, BeanPoolMetrics> metrics = new TreeMap<>();
+        this.beanPools.forEach((name, pool) -> metrics.put(name, pool.getMetrics()));
+        return metrics;
+    }
+
+    /**
+     * 构造方法或工厂方法的参数：构建时生成的BeanDefinition直接返回，否则根据参数的@Value和@Autowired解析
+     */
+    List<BeanDependency> getCreateArguments(BeanDefinition def) {
+        if (def instanceof GeneratedBeanDefinition generated) {
+            return generated.getArguments();
+        }
+        // 创建方式：构造方法或工厂方法:
+        Executable createFn = def.getFactoryName() == null ? def.getConstructor() : def.getFactoryMethod();
         final Parameter[] parameters = createFn.getParameters();
         final Annotation[][] parametersAnnos = createFn.getParameterAnnotations();
-        Object[] args = new Object[parameters.length];
+        final boolean isConfiguration = isConfigurationDefinition(def);
+        final boolean isBeanPostProcessor = isBeanPostProcessorDefinition(def);
+        List<BeanDependency> arguments = new ArrayList<>(parameters.length);
         for (int i = 0; i < parameters.length; i++) {
             // 从参数中获取 @Value @Autowired
             final Parameter param = parameters[i];
             final Annotation[] paramAnnos = parametersAnnos[i];
             final Value value = ClassUtils.getAnnotation(paramAnnos, Value.class);
             final Autowired autowired = ClassUtils.getAnnotation(paramAnnos, Autowired.class);
+            // 参数类型标注了@ConfigurationProperties时，参数本身不需要再标注:
+            ConfigurationProperties properties = ClassUtils.getAnnotation(paramAnnos, ConfigurationProperties.class);
+            if (properties == null && value == null && autowired == null) {
+                properties = param.getType().getAnnotation(ConfigurationProperties.class);
+            }
 
             // @Configuration类型的Bean是工厂，不允许使用@Autowired创建:
-            final boolean isConfiguration = isConfigurationDefinition(def);
             if (isConfiguration && autowired != null) {
                 throw new BeanCreationException(
                         String.format("Cannot specify @Autowired when create @Configuration bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
             }
 
             // BeanPostProcessor不能依赖其他Bean，不允许使用@Autowired创建:
-            final boolean isBeanPostProcessor = isBeanPostProcessorDefinition(def);
             if (isBeanPostProcessor && autowired != null) {
                 throw new BeanCreationException(
                         String.format("Cannot specify @Autowired when create BeanPostProcessor '%s': %s.", def.getName(), def.getBeanClass().getName()));
             }
 
-            // 参数需要@Value或@Autowired两者之一:
+            // 参数需要@Value、@ConfigurationProperties或@Autowired三者之一:
             if (value != null && autowired != null) {
                 throw new BeanCreationException(
                         String.format("Cannot specify both @Autowired and @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
             }
-            if (value == null && autowired == null) {
+            if (properties != null && (value != null || autowired != null)) {
+                throw new BeanCreationException(String.format("Cannot specify @ConfigurationProperties with @Autowired or @Value when create bean '%s': %s.",
+                        def.getName(), def.getBeanClass().getName()));
+            }
+            if (value == null && properties == null && autowired == null) {
                 throw new BeanCreationException(
                         String.format("Must specify @Autowired or @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
             }
-            // 参数类型:
-            final Class<?> type = param.getType();
-            if (value != null) {
-                // 参数设置为查询的@Value:
-                args[i] = this.propertyResolver.getRequiredProperty(value.value(), type);
-            } else {
-                // 参数是@Autowired,查找依赖的BeanDefinition:
-                String name = autowired.name();
-                boolean required = autowired.value();
-                // 依赖的BeanDefinition:
-                BeanDefinition dependsOnDef = name.isEmpty() ? findBeanDefinition(type) : findBeanDefinition(name, type);
-                // 检测required==true?
-                if (required && dependsOnDef == null) {
-                    throw new BeanCreationException(String.format("Missing autowired bean with type '%s' when create bean '%s': %s.", type.getName(),
-                            def.getName(), def.getBeanClass().getName()));
+            arguments.add(BeanDependency.of(param.getType(), param.getParameterizedType(), value, properties, autowired,
+                    ClassUtils.getAnnotation(paramAnnos, Lazy.class)));
+        }
+        return arguments;
+    }
+
+    /**
+     * 解析构造方法或工厂方法的一个参数，依赖的Bean尚未创建时递归创建
+     */
+    Object resolveCreateArgument(BeanDefinition def, BeanDependency dependency, boolean isConfiguration) {
+        final Class<?> type = dependency.type();
+        if (dependency.isValue()) {
+            // 参数设置为查询的@Value:
+            return this.propertyResolver.getRequiredProperty(dependency.value(), type);
+        }
+        if (dependency.isProperties()) {
+            // 参数设置为绑定的@ConfigurationProperties:
+            return this.propertyBinder.bind(dependency.prefix(), type);
+        }
+        if (dependency.lazy()) {
+            // 参数设置为延迟获取的Bean:
+            return createLazyDependency(dependency, def.getName());
+        }
+        // 参数是@Autowired,查找依赖的BeanDefinition:
+        String name = dependency.name();
+        // 依赖的BeanDefinition:
+        BeanDefinition dependsOnDef = name.isEmpty() ? findBeanDefinition(type) : findBeanDefinition(name, type);
+        if (dependsOnDef == null && name.isEmpty() && getContextObject(type) != null) {
+            return getContextObject(type);
+        }
+        // 检测required==true?
+        if (dependency.required() && dependsOnDef == null) {
+            throw new BeanCreationException(String.format("Missing autowired bean with type '%s' when create bean '%s': %s.", type.getName(),
+                    def.getName(), def.getBeanClass().getName()));
+        }
+        if (dependsOnDef == null) {
+            return null;
+        }
+        // 获取依赖Bean的实例
+        Object autowiredBeanInstance = dependsOnDef.getInstance();
+        if (dependsOnDef.isLazy() && this.eagerBeansCreated) {
+            // 启动后创建@Lazy的Bean时，依赖的@Lazy的Bean立即完成创建、注入和初始化:
+            autowiredBeanInstance = getBeanInstance(dependsOnDef);
+        } else if (autowiredBeanInstance == null && !isConfiguration) {
+            if (dependsOnDef.isLazy()) {
+                // 被非@Lazy的Bean在构造方法中依赖，作为普通Bean提前创建:
+                logger.atDebug().log("Lazy bean '{}' is required by bean '{}' and created eagerly.", dependsOnDef.getName(), def.getName());
+                dependsOnDef.setLazy(false);
+            }
+            // 当前依赖Bean尚未初始化，递归调用初始化该依赖Bean:
+            autowiredBeanInstance = createBeanAsEarlySingleton(dependsOnDef);
+        }
+        return autowiredBeanInstance;
+    }
+
+    /**
+     * 没有对应的Bean时，ApplicationContext和ApplicationEventPublisher注入当前ApplicationContext，PropertyResolver注入当前的属性解析器
+     */
+    @Nullable
+    Object getContextObject(Class<?> type) {
+        if (type == ApplicationContext.class || type == ApplicationEventPublisher.class) {
+            return this;
+        }
+        if (type == PropertyResolver.class) {
+            return this.propertyResolver;
+        }
+        return null;
+    }
+
+    /**
+     * 当前类和父类中需要注入的字段和set方法
+     */
+    List<InjectionPoint> getInjectionPoints(BeanDefinition def) {
+        if (def instanceof GeneratedBeanDefinition generated) {
+            return generated.getInjectionPoints();
+        }
+        return InjectionPlan.of(def.getBeanClass()).points();
+    }
+
+    /**
+     * 并行启动：根据构造方法、工厂方法和@Autowired依赖构建依赖图，在线程池中并行创建和初始化没有依赖关系的Bean。
+     * <p>
+     * 创建阶段只依赖构造方法和工厂方法参数，存在循环依赖时在创建前抛出UnsatisfiedDependencyException；
+     * 所有Bean创建后并行注入属性；初始化阶段在依赖的Bean初始化之后调用init方法，字段注入形成的循环依赖不影响启动。
+     */
+    void startInParallel() {
+        int threads = this.propertyResolver.getProperty(STARTUP_THREADS_PROPERTY, int.class);
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        logger.atInfo().log("start beans in parallel with {} threads.", threads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "context-startup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            DependencyGraph createGraph = new DependencyGraph();
+            for (BeanDefinition def : this.beans.values()) {
+                if (!def.isLazy()) {
+                    createGraph.addBean(def);
+                    for (BeanDefinition dependsOn : findCreateDependencies(def)) {
+                        createGraph.addDependency(def, dependsOn);
+                    }
                 }
-                if (dependsOnDef != null) {
-                    // 获取依赖Bean的实例
-                    Object autowiredBeanInstance = dependsOnDef.getInstance();
-                    if (autowiredBeanInstance == null && !isConfiguration) {
-                        // 当前依赖Bean尚未初始化，递归调用初始化该依赖Bean:
-                        autowiredBeanInstance = createBeanAsEarlySingleton(dependsOnDef);
+            }
+            // 创建其他普通Bean，被依赖的@Lazy的Bean由createBeanAsEarlySingleton()提前创建:
+            try (var step = this.startupRecorder.start("create")) {
+                createGraph.execute(executor, true, def -> {
+                    if (def.getInstance() == null && !def.isLazy()) {
+                        createBeanAsEarlySingleton(def);
+                    }
+                });
+            }
+            this.eagerBeansCreated = true;
+            // 通过字段和set方法注入依赖:
+            try (var step = this.startupRecorder.start("inject")) {
+                CompletableFuture.allOf(this.beans.values().stream().filter(def -> !def.isLazy()).sorted()
+                        .map(def -> CompletableFuture.runAsync(() -> injectBean(def), executor)).toArray(CompletableFuture[]::new)).join();
+            }
+            // 调用init方法:
+            DependencyGraph initGraph = new DependencyGraph();
+            for (BeanDefinition def : this.beans.values()) {
+                if (!def.isLazy()) {
+                    initGraph.addBean(def);
+                    for (BeanDefinition dependsOn : findCreateDependencies(def)) {
+                        initGraph.addDependency(def, dependsOn);
+                    }
+                    for (BeanDefinition dependsOn : findPropertyDependencies(def)) {
+                        initGraph.addDependency(def, dependsOn);
                     }
-                    // 参数设置为依赖的Bean实例:
-                    args[i] = autowiredBeanInstance;
-                } else {
-                    args[i] = null;
                 }
             }
+            try (var step = this.startupRecorder.start("init")) {
+                initGraph.execute(executor, false, def -> {
+                    if (!def.isLazy()) {
+                        initBean(def);
+                    }
+                });
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new BeanCreationException(e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        // 已拿到所有方法参数,创建Bean实例:
-        Object instance = null;
-        if (def.getFactoryName() == null) {
-            // 用构造方法创建:
-            try {
-                instance = def.getConstructor().newInstance(args);
-            } catch (Exception e) {
-                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
-            }
-        } else {
-            // 用@Bean方法创建:
-            Object configInstance = getBean(def.getFactoryName());
-            try {
-                instance = def.getFactoryMethod().invoke(configInstance, args);
-            } catch (Exception e) {
-                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+    /**
+     * 查找构造方法或工厂方法参数中@Autowired依赖的Bean，以及工厂Bean
+     */
+    List<BeanDefinition> findCreateDependencies(BeanDefinition def) {
+        List<BeanDefinition> deps = new ArrayList<>();
+        if (def.getFactoryName() != null) {
+            BeanDefinition factoryDef = findBeanDefinition(def.getFactoryName());
+            if (factoryDef != null) {
+                deps.add(factoryDef);
             }
         }
-        def.setInstance(instance);
+        for (BeanDependency dependency : getCreateArguments(def)) {
+            addDependency(deps, dependency);
+        }
+        return deps;
+    }
 
-        // 调用BeanPostProcessor处理Bean:
-        for (BeanPostProcessor processor : beanPostProcessors) {
-            Object processed = processor.postProcessBeforeInitialization(def.getInstance(), def.getName());
-            if (processed == null) {
-                throw new BeanCreationException(String.format("PostBeanProcessor returns null when process bean '%s' by %s", def.getName(), processor));
-            }
-            // 如果一个BeanPostProcessor替换了原始Bean，则更新Bean的引用:
-            if (def.getInstance() != processed) {
-                logger.atDebug().log("Bean '{}' was replaced by post processor {}.", def.getName(), processor.getClass().getName());
-                def.setInstance(processed);
+    /**
+     * 查找字段和set方法中@Autowired依赖的Bean，包括父类
+     */
+    List<BeanDefinition> findPropertyDependencies(BeanDefinition def) {
+        List<BeanDefinition> deps = new ArrayList<>();
+        for (InjectionPoint point : getInjectionPoints(def)) {
+            addDependency(deps, point.dependency());
+        }
+        return deps;
+    }
+
+    void addDependency(List<BeanDefinition> deps, BeanDependency dependency) {
+        // @Value、@ConfigurationProperties和延迟获取的依赖不影响创建顺序:
+        if (dependency.isValue() || dependency.isProperties() || dependency.lazy()) {
+            return;
+        }
+        try {
+            BeanDefinition dependsOn = dependency.name().isEmpty() ? findBeanDefinition(dependency.type())
+                    : findBeanDefinition(dependency.name(), dependency.type());
+            if (dependsOn != null) {
+                deps.add(dependsOn);
             }
+        } catch (BeansException e) {
+            // 无法解析的依赖在创建或注入时报错:
         }
+    }
 
-        return def.getInstance();
+    /**
+     * 收集每个Bean通过构造方法、工厂方法和@Autowired属性依赖的Bean名称
+     */
+    Map<String, Collection<String>> collectDependencies() {
+        Map<String, Collection<String>> dependencies = new HashMap<>();
+        for (BeanDefinition def : this.beans.values()) {
+            Set<String> names = new TreeSet<>();
+            findCreateDependencies(def).forEach(dependsOn -> names.add(dependsOn.getName()));
+            findPropertyDependencies(def).forEach(dependsOn -> names.add(dependsOn.getName()));
+            names.remove(def.getName());
+            dependencies.put(def.getName(), names);
+        }
+        return dependencies;
     }
 
     /**
@@ -489,8 +1153,8 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     void createNormalBeans() {
         // 获取BeanDefinition列表:
         List<BeanDefinition> defs = this.beans.values().stream()
-                // filter bean definitions by not instantiation:
-                .filter(def -> def.getInstance() == null).sorted().toList();
+                // filter bean definitions by not instantiation and not lazy:
+                .filter(def -> def.getInstance() == null && !def.isLazy()).sorted().toList();
 
         defs.forEach(def -> {
             // 如果Bean未被创建(可能在其他Bean的构造方法注入前被创建):
@@ -515,7 +1179,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with name '%s'.", name));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     /**
@@ -538,7 +1202,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with type '%s'.", requiredType));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     @Override
@@ -550,21 +1214,205 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
         List<T> list = new ArrayList<>(defs.size());
         for (var def : defs) {
-            list.add((T) def.getRequiredInstance());
+            list.add((T) getBeanInstance(def));
         }
         return list;
     }
 
+    /**
+     * 获取Bean的实例，@Lazy的Bean在第一次获取时创建、注入并初始化
+     */
+    Object getBeanInstance(BeanDefinition def) {
+        if (def.isLazy() && !def.isInit()) {
+            synchronized (def) {
+                // 实例已存在但未初始化时，说明当前线程正在初始化该Bean(依赖了自身)，直接返回实例:
+                if (def.getInstance() == null) {
+                    logger.atDebug().log("Create lazy bean '{}' on first access.", def.getName());
+                    createBeanAsEarlySingleton(def);
+                    injectBean(def);
+                    initBean(def);
+                }
+            }
+        }
+        return def.getRequiredInstance();
+    }
+
+    /**
+     * 创建延迟获取的依赖：BeanProvider，或接口类型的代理
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    Object createLazyDependency(BeanDependency dependency, String beanName) {
+        final Class<?> type = dependency.type();
+        final String name = dependency.name();
+        final boolean required = dependency.required();
+        if (type == BeanProvider.class) {
+            if (dependency.beanType() == null) {
+                throw new BeanDefinitionException(String.format("BeanProvider must specify bean type when inject bean '%s'.", beanName));
+            }
+        } else if (!type.isInterface()) {
+            throw new BeanDefinitionException(String.format("Cannot inject @Lazy class type '%s' for bean '%s', use interface or BeanProvider instead.",
+                    type.getName(), beanName));
+        }
+        final Class<?> lazyType = dependency.beanType();
+        LazyBeanProvider provider = new LazyBeanProvider<>(() -> {
+            Object bean = name.isEmpty() ? findBean(lazyType) : findBean(name, lazyType);
+            if (required && bean == null) {
+                throw new UnsatisfiedDependencyException(String.format("Dependency bean not found when resolve lazy %s for bean '%s'.", lazyType.getName(), beanName));
+            }
+            return bean;
+        });
+        return type == BeanProvider.class ? provider : provider.createProxy(type);
+    }
+
+    @Override
+    public StartupRecorder getStartupRecorder() {
+        return this.startupRecorder;
+    }
+
+    @Override
+    public void publishEvent(Object event) {
+        if (isClosed()) {
+            logger.warn("Application context is closed, event ignored: {}", event);
+            return;
+        }
+        this.eventMulticaster.publishEvent(event);
+    }
+
+    /**
+     * 每个@EventListener方法的调用次数和耗时，key为"beanName#methodName"
+     */
+    public Map<String, EventListenerMetrics> getEventListenerMetrics() {
+        return this.eventMulticaster.getMetrics();
+    }
+
+    public boolean isClosed() {
+        return this.closed.get();
+    }
+
     @Override
     public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
         logger.info("Closing {}...", this.getClass().getName());
-        this.beans.values().forEach(def -> {
-            final Object beanInstance = getProxiedInstance(def);
-            callMethod(beanInstance, def.getDestroyMethod(), def.getDestroyMethodName());
-        });
-        this.beans.clear();
+        // 先处理完已发布的异步事件，监听器仍可使用其他Bean:
+        this.eventMulticaster.close(this.propertyResolver.getProperty(DESTROY_TIMEOUT_PROPERTY, Duration.class));
+        destroyBeans();
+        this.beans = Map.of();
+        this.typeIndex = Map.of();
+        this.uniqueTypeCache.clear();
         logger.info("{} closed.", this.getClass().getName());
-        ApplicationContextUtils.setApplicationContext(null);
+        ApplicationContextUtils.removeApplicationContext(this);
+        // 其他ApplicationContext仍在使用时只移除过期的jar条目，否则全部释放:
+        if (ApplicationContextUtils.getApplicationContexts().isEmpty()) {
+            JarEntryCache.clear();
+        } else {
+            JarEntryCache.evictStale();
+        }
+    }
+
+    /**
+     * 按依赖关系的逆序销毁Bean：依赖其他Bean的Bean先销毁，没有依赖关系的Bean并行销毁。
+     * <p>
+     * 单个destroy方法超过DESTROY_TIMEOUT_PROPERTY或全部超过SHUTDOWN_TIMEOUT_PROPERTY时不再等待，destroy方法抛出的异常只记录日志。
+     */
+    void destroyBeans() {
+        Duration shutdownTimeout = this.propertyResolver.getProperty(SHUTDOWN_TIMEOUT_PROPERTY, Duration.class);
+        Duration destroyTimeout = this.propertyResolver.getProperty(DESTROY_TIMEOUT_PROPERTY, Duration.class);
+        DependencyGraph destroyGraph = new DependencyGraph();
+        for (BeanDefinition def : this.beans.values()) {
+            // 未被获取的@Lazy的Bean没有实例:
+            if (def.getInstance() != null) {
+                destroyGraph.addBean(def);
+                List<BeanDefinition> deps = findCreateDependencies(def);
+                deps.addAll(findPropertyDependencies(def));
+                for (BeanDefinition dependsOn : deps) {
+                    // 被依赖的Bean等待依赖它的Bean销毁:
+                    if (dependsOn.getInstance() != null) {
+                        destroyGraph.addDependency(dependsOn, def);
+                    }
+                }
+            }
+        }
+        long start = System.nanoTime();
+        // destroy方法通常在等待I/O，每个Bean使用单独的线程，避免超时的destroy方法占用线程:
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "context-shutdown-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<BeanDefinition, CompletableFuture<Void>> futures = destroyGraph.submit(false, def -> destroyBeanAsync(def, executor, destroyTimeout));
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            List<String> pending = futures.entrySet().stream().filter(entry -> !entry.getValue().isDone()).map(entry -> entry.getKey().getName())
+                    .sorted().toList();
+            logger.warn("Shutdown timed out after {}, beans not destroyed: {}", shutdownTimeout, pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // destroyBeanAsync()不会异常结束:
+            throw new BeanCreationException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Destroyed {} beans in {} ms: {}", this.destroyDurations.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                this.destroyDurations.entrySet().stream().sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                        .map(entry -> entry.getKey() + "=" + entry.getValue().toMillis() + "ms").collect(Collectors.joining(", ")));
+    }
+
+    CompletableFuture<Void> destroyBeanAsync(BeanDefinition def, Executor executor, Duration timeout) {
+        boolean hasDestroy = def.isPooled() || def.getDestroyMethod() != null || def.getDestroyMethodName() != null
+                || (def instanceof GeneratedBeanDefinition generated && generated.getDestroyCallback() != null);
+        if (!hasDestroy) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            ApplicationContext previous = ApplicationContextUtils.setCurrentApplicationContext(this);
+            try {
+                destroyBean(def);
+            } catch (RuntimeException e) {
+                logger.warn("Destroy bean '{}' failed.", def.getName(), e);
+            } finally {
+                ApplicationContextUtils.restoreCurrentApplicationContext(previous);
+            }
+            return Duration.ofNanos(System.nanoTime() - start);
+        }, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).handle((duration, e) -> {
+            // 超时后Future已经结束，destroy方法之后的返回值被忽略:
+            if (e == null) {
+                this.destroyDurations.put(def.getName(), duration);
+                logger.atDebug().log("destroy bean '{}' in {} ms.", def.getName(), duration.toMillis());
+            } else {
+                logger.warn("Destroy bean '{}' timed out after {}.", def.getName(), timeout);
+            }
+            return null;
+        });
+    }
+
+    void destroyBean(BeanDefinition def) {
+        if (def.isPooled()) {
+            // 销毁对象池中的所有实例:
+            this.beanPools.get(def.getName()).close();
+            return;
+        }
+        destroyInstance(def, getProxiedInstance(def));
+    }
+
+    void destroyInstance(BeanDefinition def, Object beanInstance) {
+        if (def instanceof GeneratedBeanDefinition generated && generated.getDestroyCallback() != null) {
+            callCallback(beanInstance, generated.getDestroyCallback());
+        } else {
+            callMethod(beanInstance, def.getDestroyMethod(), def.getDestroyMethodName());
+        }
+    }
+
+    /**
+     * 关闭后返回每个Bean的destroy方法耗时，超时未完成的Bean不包含在内
+     */
+    public Map<String, Duration> getDestroyDurations() {
+        return Map.copyOf(this.destroyDurations);
     }
 
     // findXxx与getXxx类似，但不存在时返回null
@@ -575,7 +1423,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
 
@@ -586,13 +1434,13 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     @Nullable
     @SuppressWarnings("unchecked")
     protected <T> List<T> findBeans(Class<T> requiredType) {
-        return findBeanDefinitions(requiredType).stream().map(def -> (T) def.getRequiredInstance()).collect(Collectors.toList());
+        return findBeanDefinitions(requiredType).stream().map(def -> (T) getBeanInstance(def)).collect(Collectors.toList());
     }
 
 
@@ -600,142 +1448,121 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      * 注入依赖但不调用init方法
      */
     void injectBean(BeanDefinition def) {
-        // 获取Bean实例，或被代理的原始实例 (BeanPostProcessor)
-        final Object beanInstance = getProxiedInstance(def);
+        ApplicationContext previous = ApplicationContextUtils.setCurrentApplicationContext(this);
         try {
-            injectProperties(def, def.getBeanClass(), beanInstance);
-        } catch (ReflectiveOperationException e) {
-            throw new BeanCreationException(e);
+            doInjectBean(def);
+        } finally {
+            ApplicationContextUtils.restoreCurrentApplicationContext(previous);
         }
     }
 
-    /**
-     * 注入属性
-     */
-    void injectProperties(BeanDefinition def, Class<?> clazz, Object bean) throws ReflectiveOperationException {
-        // 在当前类查找Field和Method并注入:
-        for (Field f : clazz.getDeclaredFields()) {
-            tryInjectProperties(def, clazz, bean, f);
-        }
-        for (Method m : clazz.getDeclaredMethods()) {
-            tryInjectProperties(def, clazz, bean, m);
+    void doInjectBean(BeanDefinition def) {
+        // 对象池中的实例在创建时注入:
+        if (def.isPooled()) {
+            return;
         }
-        // 递归在父类查找Field和Method并注入:
-        Class<?> superClazz = clazz.getSuperclass();
-        if (superClazz != null) {
-            injectProperties(def, superClazz, bean);
+        // 获取Bean实例，或被代理的原始实例 (BeanPostProcessor)
+        final Object beanInstance = getProxiedInstance(def);
+        // 按缓存的注入计划注入当前类和父类的Field和Method:
+        try (var step = this.startupRecorder.start("inject", def.getName(), null)) {
+            for (InjectionPoint point : getInjectionPoints(def)) {
+                injectProperty(def, beanInstance, point);
+            }
         }
     }
 
     /**
      * 注入单个属性
      */
-    void tryInjectProperties(BeanDefinition def, Class<?> clazz, Object bean, AccessibleObject acc) throws ReflectiveOperationException {
-        Value value = acc.getAnnotation(Value.class);
-        Autowired autowired = acc.getAnnotation(Autowired.class);
-        if (value == null && autowired == null) {
-            return;
-        }
-
-        Field field = null;
-        Method method = null;
-        if (acc instanceof Field f) {
-            checkFieldOrMethod(f);
-            f.setAccessible(true);
-            field = f;
-        }
-        if (acc instanceof Method m) {
-            checkFieldOrMethod(m);
-            if (m.getParameters().length != 1) {
-                throw new BeanDefinitionException(
-                        String.format("Cannot inject a non-setter method %s for bean '%s': %s", m.getName(), def.getName(), def.getBeanClass().getName()));
+    void injectProperty(BeanDefinition def, Object bean, InjectionPoint point) {
+        final String kind = point.field() ? "Field" : "Method";
+        final BeanDependency dependency = point.dependency();
+        Object injected;
+        if (dependency.isValue()) {
+            // @Value注入:
+            injected = this.propertyResolver.getRequiredProperty(dependency.value(), dependency.type());
+        } else if (dependency.isProperties()) {
+            // @ConfigurationProperties注入:
+            injected = this.propertyBinder.bind(dependency.prefix(), dependency.type());
+        } else if (dependency.lazy()) {
+            // 延迟获取的@Autowired注入:
+            injected = createLazyDependency(dependency, def.getName());
+        } else {
+            // @Autowired注入:
+            String name = dependency.name();
+            injected = name.isEmpty() ? findBean(dependency.type()) : findBean(name, dependency.type());
+            if (injected == null && name.isEmpty()) {
+                injected = getContextObject(dependency.type());
             }
-            m.setAccessible(true);
-            method = m;
-        }
-
-        String accessibleName = field != null ? field.getName() : method.getName();
-        Class<?> accessibleType = field != null ? field.getType() : method.getParameterTypes()[0];
-
-        if (value != null && autowired != null) {
-            throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value when inject %s.%s for bean '%s': %s",
-                    clazz.getSimpleName(), accessibleName, def.getName(), def.getBeanClass().getName()));
-        }
-
-        // @Value注入:
-        if (value != null) {
-            Object propValue = this.propertyResolver.getRequiredProperty(value.value(), accessibleType);
-            if (field != null) {
-                logger.atDebug().log("Field injection: {}.{} = {}", def.getBeanClass().getName(), accessibleName, propValue);
-                field.set(bean, propValue);
+            if (dependency.required() && injected == null) {
+                throw new UnsatisfiedDependencyException(String.format("Dependency bean not found when inject %s.%s for bean '%s': %s",
+                        point.declaringClass().getSimpleName(), point.name(), def.getName(), def.getBeanClass().getName()));
             }
-            if (method != null) {
-                logger.atDebug().log("Method injection: {}.{} ({})", def.getBeanClass().getName(), accessibleName, propValue);
-                method.invoke(bean, propValue);
+            if (injected == null) {
+                return;
             }
         }
-
-        // @Autowired注入:
-        if (autowired != null) {
-            String name = autowired.name();
-            boolean required = autowired.value();
-            Object depends = name.isEmpty() ? findBean(accessibleType) : findBean(name, accessibleType);
-            if (required && depends == null) {
-                throw new UnsatisfiedDependencyException(String.format("Dependency bean not found when inject %s.%s for bean '%s': %s", clazz.getSimpleName(),
-                        accessibleName, def.getName(), def.getBeanClass().getName()));
-            }
-            if (depends != null) {
-                if (field != null) {
-                    logger.atDebug().log("Field injection: {}.{} = {}", def.getBeanClass().getName(), accessibleName, depends);
-                    field.set(bean, depends);
-                }
-                if (method != null) {
-                    logger.atDebug().log("Mield injection: {}.{} ({})", def.getBeanClass().getName(), accessibleName, depends);
-                    method.invoke(bean, depends);
-                }
-            }
+        // 延迟获取的依赖只打印类型，避免toString()触发获取:
+        logger.atDebug().log("{} injection: {}.{} = {}", kind, def.getBeanClass().getName(), point.name(),
+                injected instanceof BeanProvider || Proxy.isProxyClass(injected.getClass()) ? "lazy " + dependency.type().getName() : injected);
+        try {
+            point.inject(bean, injected);
+        } catch (Throwable e) {
+            throw new BeanCreationException(String.format("Exception when inject %s.%s for bean '%s': %s", point.declaringClass().getSimpleName(),
+                    point.name(), def.getName(), def.getBeanClass().getName()), e);
         }
     }
 
     /**
-     * @param m 成员对象
-     * @throws BeanDefinitionException 如果成员是静态属性或 final 属性/方法，则抛出异常
+     * 调用init方法
      */
-    void checkFieldOrMethod(Member m) {
-        int mod = m.getModifiers();
-        if (Modifier.isStatic(mod)) {
-            throw new BeanDefinitionException("Cannot inject static field: " + m);
-        }
-        if (Modifier.isFinal(mod)) {
-            if (m instanceof Field field) {
-                throw new BeanDefinitionException("Cannot inject final field: " + field);
-            }
-            if (m instanceof Method method) {
-                logger.warn(
-                        "Inject final method should be careful because it is not called on target bean when bean is proxied and may cause NullPointerException.");
-            }
+    void initBean(BeanDefinition def) {
+        ApplicationContext previous = ApplicationContextUtils.setCurrentApplicationContext(this);
+        try {
+            doInitBean(def);
+        } finally {
+            ApplicationContextUtils.restoreCurrentApplicationContext(previous);
         }
     }
 
-    /**
-     * 调用init方法
-     */
-    void initBean(BeanDefinition def) {
+    void doInitBean(BeanDefinition def) {
+        if (def.isPooled()) {
+            // 创建第一个实例，Bean无法创建时启动失败:
+            try (var step = this.startupRecorder.start("init", def.getName(), null)) {
+                this.beanPools.get(def.getName()).warmUp();
+            }
+            def.setInit();
+            return;
+        }
         // 获取Bean实例，或被代理的原始实例:
         final Object beanInstance = getProxiedInstance(def);
 
         // 调用init方法:
-        callMethod(beanInstance, def.getInitMethod(), def.getInitMethodName());
+        try (var step = this.startupRecorder.start("init", def.getName(), null)) {
+            initInstance(def, beanInstance);
+        }
 
         // 调用BeanPostProcessor.postProcessAfterInitialization():
         beanPostProcessors.forEach(beanPostProcessor -> {
-            Object processedInstance = beanPostProcessor.postProcessAfterInitialization(def.getInstance(), def.getName());
+            Object processedInstance;
+            try (var step = this.startupRecorder.start("postProcessAfterInitialization", def.getName(), beanPostProcessor.getClass().getName())) {
+                processedInstance = beanPostProcessor.postProcessAfterInitialization(def.getInstance(), def.getName());
+            }
             if (processedInstance != def.getInstance()) {
                 logger.atDebug().log("BeanPostProcessor {} return different bean from {} to {}.", beanPostProcessor.getClass().getSimpleName(),
                         def.getInstance().getClass().getName(), processedInstance.getClass().getName());
                 def.setInstance(processedInstance);
             }
         });
+        def.setInit();
+    }
+
+    void initInstance(BeanDefinition def, Object beanInstance) {
+        if (def instanceof GeneratedBeanDefinition generated && generated.getInitCallback() != null) {
+            callCallback(beanInstance, generated.getInitCallback());
+        } else {
+            callMethod(beanInstance, def.getInitMethod(), def.getInitMethodName());
+        }
     }
 
     private void callMethod(Object beanInstance, Method method, String namedMethod) {
@@ -758,6 +1585,15 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
     }
 
+    private void callCallback(Object beanInstance, GeneratedBeanDefinition.Callback callback) {
+        // 调用构建时生成的init/destroy方法:
+        try {
+            callback.invoke(beanInstance);
+        } catch (Throwable e) {
+            throw new BeanCreationException(e);
+        }
+    }
+
     boolean isBeanPostProcessorDefinition(BeanDefinition def) {
         return BeanPostProcessor.class.isAssignableFrom(def.getBeanClass());
     }
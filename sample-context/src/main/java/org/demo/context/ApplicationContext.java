@@ -2,7 +2,7 @@ package org.demo.context;
 
 import java.util.List;
 
-public interface ApplicationContext extends AutoCloseable {
+public interface ApplicationContext extends ApplicationEventPublisher, AutoCloseable {
 
     /**
      * 是否存在指定name的Bean？
@@ -3,11 +3,28 @@ package org.demo.context;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * 获取当前的ApplicationContext。
+ * <p>
+ * 同一个JVM中可以同时存在多个ApplicationContext(例如并行运行的测试类共享的ContextCache)：
+ * 创建、注入、初始化、销毁Bean的线程以及异步事件线程绑定所属的ApplicationContext。未绑定的线程只有在唯一一个ApplicationContext存活时才能获取到它，
+ * 存活多个时抛出IllegalStateException，不猜测应该使用哪一个。
+ * <p>
+ * 这里只保存弱引用，没有关闭又不再使用的ApplicationContext可以被回收。
+ */
 public class ApplicationContextUtils {
 
-    private static ApplicationContext applicationContext = null;
+    // 未关闭的ApplicationContext，按创建顺序:
+    private static final List<WeakReference<ApplicationContext>> applicationContexts = new CopyOnWriteArrayList<>();
+
+    // 当前线程正在处理的ApplicationContext:
+    private static final ThreadLocal<ApplicationContext> currentApplicationContext = new ThreadLocal<>();
 
     /**
      * @return 通过getRequiredApplicationContext()方法随时获取到ApplicationContext实例
@@ -17,12 +34,68 @@ public class ApplicationContextUtils {
         return Objects.requireNonNull(getApplicationContext(), "ApplicationContext is not set.");
     }
 
+    /**
+     * 当前线程绑定的ApplicationContext，未绑定时返回唯一存活的ApplicationContext
+     *
+     * @throws IllegalStateException 当前线程未绑定且存活多个ApplicationContext
+     */
     @Nullable
     public static ApplicationContext getApplicationContext() {
-        return applicationContext;
+        ApplicationContext current = currentApplicationContext.get();
+        if (current != null) {
+            return current;
+        }
+        List<ApplicationContext> contexts = getApplicationContexts();
+        if (contexts.size() > 1) {
+            throw new IllegalStateException(String.format("%d ApplicationContexts are alive and the current thread '%s' is not bound to any of them.",
+                    contexts.size(), Thread.currentThread().getName()));
+        }
+        return contexts.isEmpty() ? null : contexts.get(0);
+    }
+
+    /**
+     * 所有未关闭且未被回收的ApplicationContext
+     */
+    public static List<ApplicationContext> getApplicationContexts() {
+        List<ApplicationContext> contexts = new ArrayList<>();
+        for (WeakReference<ApplicationContext> ref : applicationContexts) {
+            ApplicationContext ctx = ref.get();
+            if (ctx == null) {
+                applicationContexts.remove(ref);
+            } else {
+                contexts.add(ctx);
+            }
+        }
+        return List.copyOf(contexts);
+    }
+
+    static void addApplicationContext(ApplicationContext ctx) {
+        applicationContexts.removeIf(ref -> ref.get() == null);
+        applicationContexts.add(new WeakReference<>(ctx));
+    }
+
+    /**
+     * 关闭时只移除自身，不影响其他ApplicationContext
+     */
+    static void removeApplicationContext(ApplicationContext ctx) {
+        applicationContexts.removeIf(ref -> ref.get() == null || ref.get() == ctx);
+    }
+
+    /**
+     * 将当前线程绑定到ctx，返回之前绑定的ApplicationContext，处理完成后通过restoreCurrentApplicationContext()恢复
+     */
+    @Nullable
+    static ApplicationContext setCurrentApplicationContext(ApplicationContext ctx) {
+        ApplicationContext previous = currentApplicationContext.get();
+        currentApplicationContext.set(ctx);
+        return previous;
     }
 
-    static void setApplicationContext(ApplicationContext ctx) {
-        applicationContext = ctx;
+    static void restoreCurrentApplicationContext(@Nullable ApplicationContext previous) {
+        if (previous == null) {
+            currentApplicationContext.remove();
+        } else {
+            currentApplicationContext.set(previous);
+        }
     }
-}
\ No newline at end of file
+}
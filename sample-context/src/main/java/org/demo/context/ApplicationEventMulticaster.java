@@ -0,0 +1,227 @@
+package org.demo.context;
+
+import org.demo.annotation.EventListener;
+import org.demo.exception.BeanDefinitionException;
+import org.demo.exception.NestedRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 将事件分发给@EventListener方法。
+ * <p>
+ * 启动时扫描BeanDefinition注册监听方法并缓存为MethodHandle，每种事件类型第一次发布时计算匹配的监听器列表并缓存，发布时不再反射查找。
+ * 异步监听器在有界线程池中调用，队列满时由发布事件的线程直接调用，避免无限堆积。
+ */
+class ApplicationEventMulticaster {
+
+    /**
+     * 异步监听器的线程数，默认为CPU核数
+     */
+    static final String EVENT_THREADS_PROPERTY = "${demo.context.event.threads:0}";
+
+    /**
+     * 异步监听器的队列长度，队列满时在发布事件的线程中调用
+     */
+    static final String EVENT_QUEUE_CAPACITY_PROPERTY = "${demo.context.event.queue-capacity:1024}";
+
+    private static final MethodType LISTENER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ApplicationContext context;
+    private final int threads;
+    private final int queueCapacity;
+
+    // 按Bean顺序注册的监听器:
+    private final List<ListenerMethod> listeners = new ArrayList<>();
+
+    // 事件类型 -> 匹配的监听器:
+    private final Map<Class<?>, List<ListenerMethod>> dispatchCache = new ConcurrentHashMap<>();
+
+    private volatile ThreadPoolExecutor executor;
+
+    ApplicationEventMulticaster(ApplicationContext context, int threads, int queueCapacity) {
+        this.context = context;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * 注册Bean类型及其父类中的@EventListener方法，必须在发布事件前完成。池化的Bean不支持@EventListener。
+     * <p>
+     * 子类覆写并标注的方法只注册子类的方法，否则虚方法调用会让覆写的方法对同一个事件执行两次。
+     */
+    void addListeners(BeanDefinition def) {
+        // 已注册的方法签名:
+        Set<String> registered = new HashSet<>();
+        for (Class<?> clazz = def.getBeanClass(); clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                EventListener anno = method.getAnnotation(EventListener.class);
+                if (anno == null || method.isBridge()) {
+                    continue;
+                }
+                if (!Modifier.isPrivate(method.getModifiers()) && !registered.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+                    logger.atDebug().log("skip overridden event listener {}.{}.", clazz.getName(), method.getName());
+                    continue;
+                }
+                if (method.getParameterCount() != 1 || Modifier.isStatic(method.getModifiers())) {
+                    throw new BeanDefinitionException(String.format("@EventListener method must be a non-static method with exactly one parameter: %s.%s",
+                            clazz.getName(), method.getName()));
+                }
+                if (def.isPooled()) {
+                    // 池化Bean暴露的是接口代理，MethodHandle无法绑定到代理实例:
+                    throw new BeanDefinitionException(String.format("@EventListener method is not supported on pooled bean '%s': %s.%s",
+                            def.getName(), clazz.getName(), method.getName()));
+                }
+                ListenerMethod listener = new ListenerMethod(def.getName(), method, anno.async());
+                logger.atDebug().log("register event listener {} for event {}.", listener.id, listener.eventType.getName());
+                this.listeners.add(listener);
+            }
+        }
+    }
+
+    void publishEvent(Object event) {
+        Objects.requireNonNull(event, "Event must not be null.");
+        List<ListenerMethod> matched = this.dispatchCache.computeIfAbsent(event.getClass(),
+                type -> this.listeners.stream().filter(listener -> listener.eventType.isAssignableFrom(type)).toList());
+        for (ListenerMethod listener : matched) {
+            if (listener.async) {
+                getExecutor().execute(() -> {
+                    try {
+                        listener.invoke(event);
+                    } catch (RuntimeException e) {
+                        logger.warn("Async event listener {} failed.", listener.id, e);
+                    }
+                });
+            } else {
+                listener.invoke(event);
+            }
+        }
+    }
+
+    ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor e = this.executor;
+        if (e == null) {
+            synchronized (this) {
+                e = this.executor;
+                if (e == null) {
+                    AtomicInteger threadNumber = new AtomicInteger();
+                    e = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(this.queueCapacity), runnable -> {
+                        // 事件线程绑定所属的ApplicationContext:
+                        Thread thread = new Thread(() -> {
+                            ApplicationContextUtils.setCurrentApplicationContext(context);
+                            runnable.run();
+                        }, "context-event-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, (runnable, pool) -> {
+                        if (pool.isShutdown()) {
+                            logger.warn("Event executor is shut down, async event dropped.");
+                        } else {
+                            // 队列已满，由发布事件的线程调用:
+                            runnable.run();
+                        }
+                    });
+                    e.allowCoreThreadTimeOut(true);
+                    this.executor = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /**
+     * 每个监听器的调用统计，key为"beanName#methodName"
+     */
+    Map<String, EventListenerMetrics> getMetrics() {
+        Map<String, EventListenerMetrics> metrics = new LinkedHashMap<>();
+        for (ListenerMethod listener : this.listeners) {
+            metrics.put(listener.id, listener.toMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * 停止接收异步事件，等待队列中的事件处理完成
+     */
+    void close(Duration timeout) {
+        ThreadPoolExecutor e = this.executor;
+        if (e == null) {
+            return;
+        }
+        e.shutdown();
+        try {
+            if (!e.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Async event listeners not finished after {}.", timeout);
+                e.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            e.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    class ListenerMethod {
+
+        final String beanName;
+        final String id;
+        final Class<?> eventType;
+        final boolean async;
+        final MethodHandle handle;
+
+        final LongAdder invocations = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        ListenerMethod(String beanName, Method method, boolean async) {
+            this.beanName = beanName;
+            this.id = beanName + "#" + method.getName();
+            this.eventType = method.getParameterTypes()[0];
+            this.async = async;
+            try {
+                method.setAccessible(true);
+                this.handle = MethodHandles.lookup().unreflect(method).asType(LISTENER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new BeanDefinitionException(e);
+            }
+        }
+
+        void invoke(Object event) {
+            // 每次从ApplicationContext获取，@Lazy的Bean在第一次收到事件时创建:
+            Object bean = context.getBean(this.beanName);
+            long start = System.nanoTime();
+            try {
+                this.handle.invokeExact(bean, event);
+            } catch (RuntimeException | Error e) {
+                this.failures.increment();
+                throw e;
+            } catch (Throwable e) {
+                this.failures.increment();
+                throw new NestedRuntimeException(e);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                this.invocations.increment();
+                this.totalNanos.add(nanos);
+                this.maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+
+        EventListenerMetrics toMetrics() {
+            return new EventListenerMetrics(this.id, this.invocations.sum(), this.failures.sum(), Duration.ofNanos(this.totalNanos.sum()),
+                    Duration.ofNanos(this.maxNanos.get()));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.demo.context;
+
+/**
+ * 发布事件，通过@Autowired注入或直接使用ApplicationContext。
+ */
+public interface ApplicationEventPublisher {
+
+    /**
+     * 发布事件，调用所有监听该事件类型或其父类型的@EventListener方法。同步监听器抛出的异常直接抛给调用方。
+     */
+    void publishEvent(Object event);
+}
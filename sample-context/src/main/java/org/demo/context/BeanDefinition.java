@@ -1,7 +1,9 @@
 package org.demo.context;
 
 import jakarta.annotation.Nullable;
+import org.demo.annotation.Scope;
 import org.demo.exception.BeanCreationException;
+import org.demo.exception.BeanDefinitionException;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
@@ -14,8 +16,8 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     private final String name;
     // Bean的声明类型:
     private final Class<?> beanClass;
-    // Bean的实例:
-    private Object instance = null;
+    // Bean的实例，创建后可能被其他线程无锁读取:
+    private volatile Object instance = null;
     // 构造方法/null:
     private final Constructor<?> constructor;
     // 工厂方法名称/null:
@@ -27,8 +29,14 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     // 是否标识 @Primary:
     private final boolean primary;
 
-    // autowired and called init method:
-    private boolean init = false;
+    // 是否标识 @Lazy，第一次获取时才创建:
+    private volatile boolean lazy = false;
+
+    // 作用域，"singleton"或"pooled":
+    private volatile String scope = Scope.SINGLETON;
+
+    // autowired and called init method，为true时instance已完成注入和初始化，可以无锁读取:
+    private volatile boolean init = false;
 
     private String initMethodName;
     private String destroyMethodName;
@@ -39,27 +47,34 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
 
     public BeanDefinition(String name, Class<?> beanClass, Constructor<?> constructor, int order, boolean primary, String initMethodName,
                           String destroyMethodName, Method initMethod, Method destroyMethod) {
-        this.name = name;
-        this.beanClass = beanClass;
-        this.constructor = constructor;
-        this.factoryName = null;
-        this.factoryMethod = null;
-        this.order = order;
-        this.primary = primary;
-        constructor.setAccessible(true);
-        setInitAndDestroyMethod(initMethodName, destroyMethodName, initMethod, destroyMethod);
+        this(name, beanClass, Objects.requireNonNull(constructor), null, null, order, primary, initMethodName, destroyMethodName, initMethod, destroyMethod);
     }
 
     public BeanDefinition(String name, Class<?> beanClass, String factoryName, Method factoryMethod, int order, boolean primary, String initMethodName,
                           String destroyMethodName, Method initMethod, Method destroyMethod) {
+        this(name, beanClass, null, factoryName, Objects.requireNonNull(factoryMethod), order, primary, initMethodName, destroyMethodName, initMethod,
+                destroyMethod);
+    }
+
+    /**
+     * 编译期生成的BeanDefinition不需要构造方法和工厂方法
+     */
+    protected BeanDefinition(String name, Class<?> beanClass, @Nullable Constructor<?> constructor, @Nullable String factoryName,
+                             @Nullable Method factoryMethod, int order, boolean primary, String initMethodName, String destroyMethodName, Method initMethod,
+                             Method destroyMethod) {
         this.name = name;
         this.beanClass = beanClass;
-        this.constructor = null;
+        this.constructor = constructor;
         this.factoryName = factoryName;
         this.factoryMethod = factoryMethod;
         this.order = order;
         this.primary = primary;
-        factoryMethod.setAccessible(true);
+        if (constructor != null) {
+            constructor.setAccessible(true);
+        }
+        if (factoryMethod != null) {
+            factoryMethod.setAccessible(true);
+        }
         setInitAndDestroyMethod(initMethodName, destroyMethodName, initMethod, destroyMethod);
     }
 
@@ -125,16 +140,18 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     }
 
     public Object getRequiredInstance() {
-        if (this.instance == null) {
+        Object instance = this.instance;
+        if (instance == null) {
             throw new BeanCreationException(String.format("Instance of bean with name '%s' and type '%s' is not instantiated during current stage.",
                     this.getName(), this.getBeanClass().getName()));
         }
-        return this.instance;
+        return instance;
     }
 
     public void setInstance(Object instance) {
         Objects.requireNonNull(instance, "Bean instance is null.");
-        if (!this.beanClass.isAssignableFrom(instance.getClass())) {
+        // "pooled"作用域的Bean实例是对象池的接口代理:
+        if (!this.beanClass.isAssignableFrom(instance.getClass()) && !isPooled()) {
             throw new BeanCreationException(String.format("Instance '%s' of Bean '%s' is not the expected type: %s", instance, instance.getClass().getName(),
                     this.beanClass.getName()));
         }
@@ -149,6 +166,33 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
         this.init = true;
     }
 
+    public int getOrder() {
+        return this.order;
+    }
+
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    public String getScope() {
+        return this.scope;
+    }
+
+    public void setScope(String scope) {
+        if (!Scope.SINGLETON.equals(scope) && !Scope.POOLED.equals(scope)) {
+            throw new BeanDefinitionException(String.format("Unsupported scope '%s' of bean '%s'.", scope, this.name));
+        }
+        this.scope = scope;
+    }
+
+    public boolean isPooled() {
+        return Scope.POOLED.equals(this.scope);
+    }
+
     public boolean isPrimary() {
         return this.primary;
     }
@@ -157,7 +201,7 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     public String toString() {
         return "BeanDefinition [name=" + name + ", beanClass=" + beanClass.getName() + ", factory=" + getCreateDetail() + ", init-method="
                 + (initMethod == null ? "null" : initMethod.getName()) + ", destroy-method=" + (destroyMethod == null ? "null" : destroyMethod.getName())
-                + ", primary=" + primary + ", instance=" + instance + "]";
+                + ", primary=" + primary + ", lazy=" + lazy + ", instance=" + instance + "]";
     }
 
     String getCreateDetail() {
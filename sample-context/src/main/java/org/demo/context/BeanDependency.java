@@ -0,0 +1,96 @@
+package org.demo.context;
+
+import jakarta.annotation.Nullable;
+import org.demo.annotation.Autowired;
+import org.demo.annotation.ConfigurationProperties;
+import org.demo.annotation.Lazy;
+import org.demo.annotation.Value;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * 构造方法、工厂方法参数，或字段、set方法需要注入的值：@Value的表达式，@ConfigurationProperties绑定的对象，或@Autowired的Bean。
+ * <p>
+ * 反射方式从注解解析，编译期生成的{@link ContextInitializer}直接构造，此时name为构建时已解析出的Bean名称。
+ *
+ * @param type     声明的类型
+ * @param value    @Value的表达式，@Autowired时为null
+ * @param prefix   @ConfigurationProperties的前缀，其他情况为null
+ * @param name     依赖的Bean名称，按类型查找时为空字符串
+ * @param required 依赖的Bean是否必须存在
+ * @param lazy     是否延迟获取(BeanProvider或@Lazy)
+ * @param beanType 延迟获取的Bean类型：BeanProvider的泛型参数，或声明的接口类型，无法确定时为null
+ */
+public record BeanDependency(Class<?> type, @Nullable String value, @Nullable String prefix, String name, boolean required, boolean lazy, @Nullable Class<?> beanType) {
+
+    /**
+     * 注入@Value
+     */
+    public static BeanDependency ofValue(Class<?> type, String value) {
+        return new BeanDependency(type, value, null, "", true, false, null);
+    }
+
+    /**
+     * 注入@ConfigurationProperties绑定的对象
+     */
+    public static BeanDependency ofProperties(Class<?> type, String prefix) {
+        return new BeanDependency(type, null, prefix, "", true, false, null);
+    }
+
+    /**
+     * 注入@Autowired
+     */
+    public static BeanDependency ofBean(Class<?> type, String name, boolean required) {
+        return new BeanDependency(type, null, null, name, required, false, null);
+    }
+
+    /**
+     * 注入延迟获取的@Autowired
+     */
+    public static BeanDependency ofLazyBean(Class<?> type, @Nullable Class<?> beanType, String name, boolean required) {
+        return new BeanDependency(type, null, null, name, required, true, beanType);
+    }
+
+    /**
+     * 根据注解创建，@Value、@ConfigurationProperties和@Autowired都不存在时返回null
+     */
+    @Nullable
+    static BeanDependency of(Class<?> type, Type genericType, @Nullable Value value, @Nullable ConfigurationProperties properties, @Nullable Autowired autowired,
+                             @Nullable Lazy lazy) {
+        if (value != null) {
+            return ofValue(type, value.value());
+        }
+        if (properties != null) {
+            // 未指定前缀时使用类上的前缀:
+            ConfigurationProperties typeProperties = type.getAnnotation(ConfigurationProperties.class);
+            String prefix = properties.prefix().isEmpty() && typeProperties != null ? typeProperties.prefix() : properties.prefix();
+            return ofProperties(type, prefix);
+        }
+        if (autowired == null) {
+            return null;
+        }
+        if (type == BeanProvider.class || (lazy != null && lazy.value())) {
+            Class<?> beanType = type;
+            if (type == BeanProvider.class) {
+                beanType = genericType instanceof ParameterizedType pt && pt.getActualTypeArguments()[0] instanceof Class<?> c ? c : null;
+            }
+            return ofLazyBean(type, beanType, autowired.name(), autowired.value());
+        }
+        return ofBean(type, autowired.name(), autowired.value());
+    }
+
+    /**
+     * 是否注入@Value
+     */
+    public boolean isValue() {
+        return this.value != null;
+    }
+
+    /**
+     * 是否注入@ConfigurationProperties绑定的对象
+     */
+    public boolean isProperties() {
+        return this.prefix != null;
+    }
+}
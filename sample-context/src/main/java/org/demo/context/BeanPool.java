@@ -0,0 +1,235 @@
+package org.demo.context;
+
+import org.demo.exception.BeanCreationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * "pooled"作用域的Bean的对象池，同时也是注入给其他Bean的接口代理的InvocationHandler。
+ * <p>
+ * 空闲实例按线程分散在多个分段中，线程优先从自己的分段借出和归还，分段为空时再查找其他分段，减少竞争。
+ * 信号量限制同时借出的实例数，池满时借出方等待；空闲超过maxIdle的实例在归还时从分段尾部淘汰，不需要后台线程。
+ */
+class BeanPool implements InvocationHandler {
+
+    /**
+     * 每个对象池的最大实例数，默认为CPU核数，可以通过"demo.context.pool.{beanName}.max-size"单独设置
+     */
+    static final String MAX_SIZE_PROPERTY = "demo.context.pool.max-size";
+
+    /**
+     * 空闲实例的最长保留时间
+     */
+    static final String MAX_IDLE_PROPERTY = "demo.context.pool.max-idle";
+
+    /**
+     * 池满时借出的最长等待时间
+     */
+    static final String BORROW_TIMEOUT_PROPERTY = "demo.context.pool.borrow-timeout";
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * 池中的实例：target是完成注入和初始化的原始实例，用于销毁；exposed是BeanPostProcessor处理后的实例，用于调用方法
+     */
+    record Pooled(Object target, Object exposed) {
+    }
+
+    record Idle(Pooled instance, long returnedAt) {
+    }
+
+    private final String beanName;
+    private final int maxSize;
+    private final long maxIdleNanos;
+    private final long borrowTimeoutNanos;
+    private final Supplier<Pooled> factory;
+    private final Consumer<Object> destroyer;
+
+    private final Semaphore permits;
+    private final Deque<Idle>[] stripes;
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    BeanPool(String beanName, int maxSize, Duration maxIdle, Duration borrowTimeout, Supplier<Pooled> factory, Consumer<Object> destroyer) {
+        this.beanName = beanName;
+        this.maxSize = maxSize;
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.borrowTimeoutNanos = borrowTimeout.toNanos();
+        this.factory = factory;
+        this.destroyer = destroyer;
+        this.permits = new Semaphore(maxSize);
+        this.stripes = new Deque[Math.min(maxSize, Runtime.getRuntime().availableProcessors())];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    /**
+     * 创建实现给定接口的代理，每次方法调用借出一个实例
+     */
+    Object createProxy(ClassLoader classLoader, Class<?>[] interfaces) {
+        return Proxy.newProxyInstance(classLoader, interfaces, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            // equals()/hashCode()/toString()作用于代理本身:
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "PooledBean[" + this.beanName + "]";
+                default -> method.invoke(this, args);
+            };
+        }
+        Pooled target = borrow();
+        try {
+            return method.invoke(target.exposed(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            release(target);
+        }
+    }
+
+    Pooled borrow() {
+        if (this.closed) {
+            throw new BeanCreationException(String.format("Pool of bean '%s' is closed.", this.beanName));
+        }
+        long start = System.nanoTime();
+        try {
+            if (!this.permits.tryAcquire(this.borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new BeanCreationException(String.format("Timeout when borrow bean '%s' from pool with max size %d.", this.beanName, this.maxSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeanCreationException(String.format("Interrupted when borrow bean '%s' from pool.", this.beanName), e);
+        }
+        long wait = System.nanoTime() - start;
+        this.totalWaitNanos.add(wait);
+        this.maxWaitNanos.accumulateAndGet(wait, Math::max);
+        this.borrowCount.increment();
+        try {
+            int home = stripeIndex();
+            for (;;) {
+                for (int i = 0; i < this.stripes.length; i++) {
+                    Idle idle = this.stripes[(home + i) % this.stripes.length].pollFirst();
+                    if (idle != null) {
+                        return idle.instance();
+                    }
+                }
+                // 持有信号量时，实例数未达到上限即可创建；已达到上限时必有实例正在归还:
+                int n = this.size.get();
+                if (n < this.maxSize) {
+                    if (this.size.compareAndSet(n, n + 1)) {
+                        try {
+                            Pooled instance = this.factory.get();
+                            this.createdCount.increment();
+                            logger.atDebug().log("create pooled instance {} of bean '{}'.", n + 1, this.beanName);
+                            return instance;
+                        } catch (RuntimeException | Error e) {
+                            this.size.decrementAndGet();
+                            throw e;
+                        }
+                    }
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    void release(Pooled instance) {
+        Deque<Idle> stripe = this.stripes[stripeIndex()];
+        long now = System.nanoTime();
+        // 先放回空闲实例再释放信号量，保证持有信号量的线程一定能借到实例:
+        stripe.offerFirst(new Idle(instance, now));
+        this.permits.release();
+        if (this.closed) {
+            // 关闭时正在使用的实例在归还后销毁:
+            drain(stripe);
+            return;
+        }
+        // 分段尾部是最久未使用的实例:
+        Idle eldest;
+        while ((eldest = stripe.peekLast()) != null && now - eldest.returnedAt() > this.maxIdleNanos) {
+            if (stripe.removeLastOccurrence(eldest)) {
+                this.evictedCount.increment();
+                destroy(eldest.instance());
+            }
+        }
+    }
+
+    /**
+     * 创建一个实例并放回池中，启动时检查Bean能否创建
+     */
+    void warmUp() {
+        release(borrow());
+    }
+
+    /**
+     * 销毁所有空闲实例，借出的实例在归还时销毁
+     */
+    void close() {
+        this.closed = true;
+        for (Deque<Idle> stripe : this.stripes) {
+            drain(stripe);
+        }
+    }
+
+    void drain(Deque<Idle> stripe) {
+        Idle idle;
+        while ((idle = stripe.pollFirst()) != null) {
+            destroy(idle.instance());
+        }
+    }
+
+    void destroy(Pooled instance) {
+        this.size.decrementAndGet();
+        try {
+            // 销毁原始实例，BeanPostProcessor返回的代理不一定是Bean的类型:
+            this.destroyer.accept(instance.target());
+        } catch (RuntimeException e) {
+            logger.warn("Destroy pooled instance of bean '{}' failed.", this.beanName, e);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    int stripeIndex() {
+        return (int) (Thread.currentThread().getId() % this.stripes.length);
+    }
+
+    BeanPoolMetrics getMetrics() {
+        int idle = 0;
+        for (Deque<Idle> stripe : this.stripes) {
+            idle += stripe.size();
+        }
+        return new BeanPoolMetrics(this.beanName, this.maxSize, this.size.get(), idle, this.borrowCount.sum(), this.createdCount.sum(),
+                this.evictedCount.sum(), Duration.ofNanos(this.totalWaitNanos.sum()), Duration.ofNanos(this.maxWaitNanos.get()));
+    }
+}
@@ -0,0 +1,20 @@
+package org.demo.context;
+
+import java.time.Duration;
+
+/**
+ * "pooled"作用域的Bean的对象池统计
+ *
+ * @param beanName     Bean名称
+ * @param maxSize      最多同时存在的实例数
+ * @param size         当前实例数(借出的和空闲的)
+ * @param idle         空闲的实例数
+ * @param borrowCount  借出次数
+ * @param createdCount 创建的实例数
+ * @param evictedCount 空闲超时被销毁的实例数
+ * @param totalWait    借出时等待的总时间
+ * @param maxWait      借出时等待的最长时间
+ */
+public record BeanPoolMetrics(String beanName, int maxSize, int size, int idle, long borrowCount, long createdCount, long evictedCount,
+                              Duration totalWait, Duration maxWait) {
+}
@@ -0,0 +1,18 @@
+package org.demo.context;
+
+/**
+ * 延迟获取的Bean，注入BeanProvider&lt;T&gt;时不会立即创建T，第一次调用get()时才获取。
+ *
+ * <code>
+ * &#64;Autowired
+ * BeanProvider&lt;ReportService&gt; reportService;
+ * </code>
+ */
+@FunctionalInterface
+public interface BeanProvider<T> {
+
+    /**
+     * 获取Bean，@Autowired(false)且Bean不存在时返回null
+     */
+    T get();
+}
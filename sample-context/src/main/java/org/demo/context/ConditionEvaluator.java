@@ -0,0 +1,134 @@
+package org.demo.context;
+
+import jakarta.annotation.Nullable;
+import org.demo.annotation.ConditionalOnClass;
+import org.demo.annotation.ConditionalOnMissingBean;
+import org.demo.annotation.ConditionalOnProperty;
+import org.demo.io.PropertyResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.*;
+
+/**
+ * 计算@ConditionalOnClass、@ConditionalOnProperty和@ConditionalOnMissingBean，过滤不满足条件的BeanDefinition。
+ * <p>
+ * 标注在类上的@ConditionalOnClass在扫描时计算，避免查找@Bean方法时加载不存在的Class；其他条件在所有BeanDefinition创建后计算，
+ * 因此扫描缓存中保存的是计算条件前的BeanDefinition，属性变化时不需要重新扫描。
+ */
+class ConditionEvaluator {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    final PropertyResolver propertyResolver;
+
+    ConditionEvaluator(PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+    }
+
+    /**
+     * 计算@ConditionalOnClass，Class不存在时返回false
+     */
+    boolean matchesClass(AnnotatedElement element) {
+        ConditionalOnClass onClass = element.getAnnotation(ConditionalOnClass.class);
+        if (onClass == null) {
+            return true;
+        }
+        try {
+            // value中的Class不存在时读取注解属性抛出TypeNotPresentException:
+            onClass.value();
+        } catch (TypeNotPresentException e) {
+            return false;
+        }
+        ClassLoader cl = element instanceof Class<?> clazz ? clazz.getClassLoader() : getClass().getClassLoader();
+        for (String name : onClass.name()) {
+            try {
+                Class.forName(name, false, cl);
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 计算@ConditionalOnProperty
+     */
+    boolean matchesProperty(AnnotatedElement element) {
+        ConditionalOnProperty onProperty = element.getAnnotation(ConditionalOnProperty.class);
+        if (onProperty == null) {
+            return true;
+        }
+        String value = this.propertyResolver.getProperty(onProperty.name());
+        if (value == null) {
+            return onProperty.matchIfMissing();
+        }
+        if (onProperty.havingValue().isEmpty()) {
+            return !"false".equalsIgnoreCase(value);
+        }
+        return onProperty.havingValue().equalsIgnoreCase(value);
+    }
+
+    /**
+     * 返回满足条件的BeanDefinition。构建时生成的BeanDefinition已经在生成时计算过条件，不再计算。
+     */
+    Map<String, BeanDefinition> filter(Map<String, BeanDefinition> beanDefsMap) {
+        Map<String, BeanDefinition> matched = new HashMap<>();
+        for (BeanDefinition def : beanDefsMap.values()) {
+            AnnotatedElement element = getAnnotatedElement(def);
+            if (element == null || (matchesClass(element) && matchesProperty(element))) {
+                matched.put(def.getName(), def);
+            } else {
+                logger.atDebug().log("skip bean '{}': condition not matched.", def.getName());
+            }
+        }
+        removeSkippedFactoryBeans(matched);
+        // 先确定没有@ConditionalOnMissingBean的Bean，再按顺序逐个计算:
+        List<BeanDefinition> onMissingBeans = matched.values().stream().filter(def -> getOnMissingBean(def) != null).sorted().toList();
+        onMissingBeans.forEach(def -> matched.remove(def.getName()));
+        for (BeanDefinition def : onMissingBeans) {
+            ConditionalOnMissingBean onMissingBean = getOnMissingBean(def);
+            Class<?>[] types = onMissingBean.value().length == 0 ? new Class<?>[] { def.getBeanClass() } : onMissingBean.value();
+            Optional<BeanDefinition> existing = matched.values().stream()
+                    .filter(other -> Arrays.stream(types).anyMatch(type -> type.isAssignableFrom(other.getBeanClass()))).findFirst();
+            if (existing.isPresent()) {
+                logger.atDebug().log("skip bean '{}': bean '{}' already defined.", def.getName(), existing.get().getName());
+            } else {
+                matched.put(def.getName(), def);
+            }
+        }
+        removeSkippedFactoryBeans(matched);
+        return matched;
+    }
+
+    /**
+     * @Configuration被跳过时，其中的@Bean方法一并跳过
+     */
+    void removeSkippedFactoryBeans(Map<String, BeanDefinition> matched) {
+        matched.values().removeIf(def -> {
+            if (def.getFactoryName() != null && !matched.containsKey(def.getFactoryName())) {
+                logger.atDebug().log("skip bean '{}': factory bean '{}' skipped.", def.getName(), def.getFactoryName());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Nullable
+    ConditionalOnMissingBean getOnMissingBean(BeanDefinition def) {
+        AnnotatedElement element = getAnnotatedElement(def);
+        return element == null ? null : element.getAnnotation(ConditionalOnMissingBean.class);
+    }
+
+    /**
+     * @Bean方法定义的Bean读取方法上的注解，@Component读取类上的注解
+     */
+    @Nullable
+    AnnotatedElement getAnnotatedElement(BeanDefinition def) {
+        if (def instanceof GeneratedBeanDefinition) {
+            return null;
+        }
+        return def.getFactoryName() == null ? def.getBeanClass() : def.getFactoryMethod();
+    }
+}
@@ -21,4 +21,9 @@ public interface ConfigurableApplicationContext extends ApplicationContext {
     BeanDefinition findBeanDefinition(String name, Class<?> requiredType);
 
     Object createBeanAsEarlySingleton(BeanDefinition def);
+
+    /**
+     * 启动时间线，未启用时不记录任何步骤
+     */
+    StartupRecorder getStartupRecorder();
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package org.demo.context;
+
+import org.demo.io.PropertyResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按配置类和属性指纹缓存ApplicationContext，供测试复用已经创建好的ApplicationContext。
+ * <p>
+ * 缓存按LRU淘汰，被淘汰的ApplicationContext会被关闭；已关闭的ApplicationContext在下次获取时重新创建。
+ * 修改Bean状态的测试不应使用缓存的ApplicationContext。
+ */
+public class ContextCache {
+
+    public static final String MAX_SIZE_PROPERTY = "demo.context.cache.max-size";
+
+    static final int DEFAULT_MAX_SIZE = 16;
+
+    private static volatile ContextCache defaultCache;
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    record Key(Class<?> configClass, String fingerprint) {
+    }
+
+    /**
+     * 每个Key对应一个Entry，在Entry上加锁创建ApplicationContext，不同Key可以并发创建
+     */
+    static class Entry {
+        AnnotationConfigApplicationContext context;
+        // 在map的锁内从map中移除时设置，已移除的Entry不能再创建ApplicationContext，否则不会被关闭:
+        volatile boolean removed;
+    }
+
+    private final int maxSize;
+    private final Map<Key, Entry> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public ContextCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * JVM内共享的缓存，大小由系统属性"demo.context.cache.max-size"设置，JVM退出时关闭所有ApplicationContext
+     */
+    public static ContextCache getDefault() {
+        ContextCache cache = defaultCache;
+        if (cache == null) {
+            synchronized (ContextCache.class) {
+                cache = defaultCache;
+                if (cache == null) {
+                    cache = new ContextCache(Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+                    Runtime.getRuntime().addShutdownHook(new Thread(cache::clear, "context-cache-shutdown"));
+                    defaultCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    public ConfigurableApplicationContext getContext(Class<?> configClass, PropertyResolver propertyResolver) {
+        Key key = new Key(configClass, propertyResolver.getFingerprint());
+        while (true) {
+            Entry entry;
+            List<Entry> evicted = new ArrayList<>();
+            synchronized (this.entries) {
+                entry = this.entries.computeIfAbsent(key, k -> new Entry());
+                var it = this.entries.values().iterator();
+                while (this.entries.size() > this.maxSize && it.hasNext()) {
+                    Entry eldest = it.next();
+                    if (eldest != entry) {
+                        it.remove();
+                        eldest.removed = true;
+                        evicted.add(eldest);
+                    }
+                }
+            }
+            // 在map的锁外关闭被淘汰的ApplicationContext:
+            evicted.forEach(this::closeEntry);
+            synchronized (entry) {
+                // 获取Entry后被其他线程淘汰或清除，重新查找:
+                if (!entry.removed) {
+                    return getOrCreateContext(entry, key, propertyResolver);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在Entry的锁内返回已有的或新创建的ApplicationContext
+     */
+    ConfigurableApplicationContext getOrCreateContext(Entry entry, Key key, PropertyResolver propertyResolver) {
+        if (entry.context != null && !entry.context.isClosed()) {
+            hitCount.incrementAndGet();
+            return entry.context;
+        }
+        missCount.incrementAndGet();
+        logger.atDebug().log("create cached application context for {} with fingerprint {}", key.configClass().getName(), key.fingerprint());
+        try {
+            entry.context = new AnnotationConfigApplicationContext(key.configClass(), propertyResolver);
+        } catch (RuntimeException e) {
+            entry.context = null;
+            synchronized (this.entries) {
+                if (this.entries.remove(key, entry)) {
+                    entry.removed = true;
+                }
+            }
+            throw e;
+        }
+        return entry.context;
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 移除并关闭所有ApplicationContext
+     */
+    public void clear() {
+        List<Entry> removed;
+        synchronized (this.entries) {
+            removed = new ArrayList<>(this.entries.values());
+            removed.forEach(entry -> entry.removed = true);
+            this.entries.clear();
+        }
+        removed.forEach(this::closeEntry);
+    }
+
+    void closeEntry(Entry entry) {
+        synchronized (entry) {
+            if (entry.context != null) {
+                logger.atDebug().log("close cached application context: {}", entry.context);
+                entry.context.close();
+                entry.context = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.demo.context;
+
+import jakarta.annotation.Nullable;
+import org.demo.exception.BeanDefinitionException;
+
+import java.util.List;
+
+/**
+ * 构建时为一个配置类生成的初始化器，类名为配置类名加"__ContextInitializer"，与配置类位于同一个package。
+ * <p>
+ * AnnotationConfigApplicationContext启动时如果找到配置类对应的初始化器，直接使用其生成的BeanDefinition，
+ * 不再扫描classpath、解析注解、查找构造方法和工厂方法。需要设置"demo.context.aot=true"启用：
+ * 生成时已经按构建时的属性计算了@ConditionalOnXxx，运行时的属性不再影响生成的BeanDefinition。
+ *
+ * @see ContextInitializerGenerator
+ */
+public interface ContextInitializer {
+
+    String CLASS_NAME_SUFFIX = "__ContextInitializer";
+
+    String AOT_PROPERTY = "${demo.context.aot:false}";
+
+    /**
+     * 生成的所有BeanDefinition
+     */
+    List<GeneratedBeanDefinition> getBeanDefinitions();
+
+    /**
+     * 查找配置类对应的初始化器，不存在时返回null
+     */
+    @Nullable
+    static ContextInitializer find(Class<?> configClass) {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(configClass.getName() + CLASS_NAME_SUFFIX, true, configClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return (ContextInitializer) clazz.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new BeanDefinitionException("Cannot create context initializer: " + clazz.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package org.demo.context;
+
+import org.demo.annotation.Lazy;
+import org.demo.exception.BeanDefinitionException;
+import org.demo.io.PropertyResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * 构建时运行ApplicationContext，为配置类生成{@link ContextInitializer}的Java源码。
+ * <p>
+ * 生成的初始化器直接调用构造方法、@Bean工厂方法、字段赋值、set方法和init/destroy方法，@Autowired的依赖按构建时解析出的Bean名称查找。
+ * 生成代码无法访问的成员(private成员，或其他package的非public成员)在加载时通过反射查找一次。
+ * <p>
+ * 在编译后、打包前运行，例如通过exec-maven-plugin：
+ * <code>
+ * java org.demo.context.ContextInitializerGenerator com.example.AppConfig target/generated-sources/aot [application.properties]
+ * </code>
+ * 生成的源码需要与配置类一起编译，以便访问package-private的成员。
+ */
+public class ContextInitializerGenerator {
+
+    static final Logger logger = LoggerFactory.getLogger(ContextInitializerGenerator.class);
+
+    final Class<?> configClass;
+    final AnnotationConfigApplicationContext context;
+    final String packageName;
+    final String simpleName;
+
+    /**
+     * @param configClass 配置类
+     * @param context     使用反射方式(demo.context.aot=false)启动的ApplicationContext
+     */
+    public ContextInitializerGenerator(Class<?> configClass, AnnotationConfigApplicationContext context) {
+        this.configClass = configClass;
+        this.context = context;
+        this.packageName = configClass.getPackageName();
+        String name = configClass.getName();
+        this.simpleName = (this.packageName.isEmpty() ? name : name.substring(this.packageName.length() + 1)) + ContextInitializer.CLASS_NAME_SUFFIX;
+    }
+
+    public String getClassName() {
+        return this.packageName.isEmpty() ? this.simpleName : this.packageName + "." + this.simpleName;
+    }
+
+    /**
+     * 生成源码并写入sourceDir下对应package的目录，返回生成的文件
+     */
+    public Path writeTo(Path sourceDir) throws IOException {
+        Path dir = this.packageName.isEmpty() ? sourceDir : sourceDir.resolve(this.packageName.replace('.', '/'));
+        Files.createDirectories(dir);
+        Path file = dir.resolve(this.simpleName + ".java");
+        Files.writeString(file, generate(), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    /**
+     * 生成Java源码
+     */
+    public String generate() {
+        List<BeanDefinition> defs = this.context.findBeanDefinitions(Object.class);
+        StringBuilder sb = new StringBuilder(4096);
+        if (!this.packageName.isEmpty()) {
+            sb.append("package ").append(this.packageName).append(";\n\n");
+        }
+        sb.append("import java.util.ArrayList;\n");
+        sb.append("import java.util.List;\n");
+        sb.append("import org.demo.context.BeanDependency;\n");
+        sb.append("import org.demo.context.ContextInitializer;\n");
+        sb.append("import org.demo.context.GeneratedBeanDefinition;\n");
+        sb.append("import org.demo.context.InjectionPoint;\n\n");
+        sb.append("/**\n * Generated by ").append(getClass().getName()).append(" from ").append(this.configClass.getName()).append(". Do not edit.\n */\n");
+        sb.append("public final class ").append(this.simpleName).append(" implements ContextInitializer {\n\n");
+        sb.append("    @Override\n");
+        sb.append("    @SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        sb.append("    public List<GeneratedBeanDefinition> getBeanDefinitions() {\n");
+        sb.append("        List<GeneratedBeanDefinition> defs = new ArrayList<>(").append(defs.size()).append(");\n");
+        for (BeanDefinition def : defs) {
+            if (def instanceof GeneratedBeanDefinition) {
+                throw new BeanDefinitionException("Cannot generate context initializer from generated bean definition: " + def.getName());
+            }
+            appendBeanDefinition(sb, def);
+        }
+        sb.append("        return defs;\n");
+        sb.append("    }\n\n");
+        sb.append("    private static Class<?> load(String name) {\n");
+        sb.append("        try {\n");
+        sb.append("            return Class.forName(name);\n");
+        sb.append("        } catch (ClassNotFoundException e) {\n");
+        sb.append("            throw new IllegalStateException(e);\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    void appendBeanDefinition(StringBuilder sb, BeanDefinition def) {
+        final Class<?> beanClass = def.getBeanClass();
+        final Method factoryMethod = def.getFactoryMethod();
+        final boolean lazy;
+        if (factoryMethod == null) {
+            lazy = this.context.isLazy(beanClass.getAnnotation(Lazy.class)) && !this.context.isConfigurationDefinition(def)
+                    && !this.context.isBeanPostProcessorDefinition(def);
+        } else {
+            lazy = this.context.isLazy(factoryMethod.getAnnotation(Lazy.class)) && !this.context.isBeanPostProcessorDefinition(def);
+        }
+        sb.append("        // ").append(def.getName()).append(":\n");
+        sb.append("        defs.add(new GeneratedBeanDefinition(").append(literal(def.getName())).append(", ").append(classLiteral(beanClass)).append(", ")
+                .append(literal(def.getFactoryName())).append(", ").append(literal(factoryMethod == null ? null : factoryMethod.getName())).append(", ")
+                .append(def.getOrder()).append(", ").append(def.isPrimary()).append(", ").append(lazy).append(", ")
+                .append(literal(def.getInitMethodName())).append(", ").append(literal(def.getDestroyMethodName())).append(",\n");
+        // 构造方法或工厂方法的参数:
+        List<BeanDependency> arguments = this.context.getCreateArguments(def);
+        sb.append("                List.of(").append(arguments.stream().map(this::dependency).collect(Collectors.joining(", "))).append("),\n");
+        // 创建实例:
+        sb.append("                ").append(factoryMethod == null ? constructorInstantiator(def.getConstructor()) : factoryInstantiator(factoryMethod))
+                .append(",\n");
+        // 注入点:
+        List<String> points = new ArrayList<>();
+        for (InjectionPoint point : this.context.getInjectionPoints(def)) {
+            points.add("\n                        new InjectionPoint(" + classLiteral(point.declaringClass()) + ", " + literal(point.name()) + ", " + point.field()
+                    + ", " + dependency(point.dependency()) + ", " + injector(point) + ")");
+        }
+        sb.append("                List.of(").append(String.join(",", points)).append("),\n");
+        // init/destroy方法:
+        sb.append("                ").append(callback(def.getInitMethod())).append(", ").append(callback(def.getDestroyMethod())).append("));\n");
+        if (def.isPooled()) {
+            sb.append("        defs.get(defs.size() - 1).setScope(").append(literal(def.getScope())).append(");\n");
+        }
+    }
+
+    /**
+     * 依赖的Bean按类型查找时，使用构建时解析出的Bean名称
+     */
+    String dependency(BeanDependency dep) {
+        if (dep.isValue()) {
+            return "BeanDependency.ofValue(" + classLiteral(dep.type()) + ", " + literal(dep.value()) + ")";
+        }
+        if (dep.isProperties()) {
+            return "BeanDependency.ofProperties(" + classLiteral(dep.type()) + ", " + literal(dep.prefix()) + ")";
+        }
+        if (dep.lazy()) {
+            return "BeanDependency.ofLazyBean(" + classLiteral(dep.type()) + ", " + (dep.beanType() == null ? "null" : classLiteral(dep.beanType())) + ", "
+                    + literal(dep.name()) + ", " + dep.required() + ")";
+        }
+        String name = dep.name();
+        if (name.isEmpty()) {
+            BeanDefinition resolved = this.context.findBeanDefinition(dep.type());
+            if (resolved != null) {
+                name = resolved.getName();
+            }
+        }
+        return "BeanDependency.ofBean(" + classLiteral(dep.type()) + ", " + literal(name) + ", " + dep.required() + ")";
+    }
+
+    String constructorInstantiator(Constructor<?> constructor) {
+        Class<?>[] types = constructor.getParameterTypes();
+        if (isAccessible(constructor) && isAccessible(types)) {
+            return "(factoryBean, args) -> new " + typeName(constructor.getDeclaringClass()) + "(" + castArguments(types) + ")";
+        }
+        return "GeneratedBeanDefinition.reflectConstructor(" + classLiteral(constructor.getDeclaringClass()) + classLiterals(types) + ")";
+    }
+
+    String factoryInstantiator(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        if (isAccessible(method) && isAccessible(types)) {
+            String target = Modifier.isStatic(method.getModifiers()) ? typeName(method.getDeclaringClass())
+                    : "((" + typeName(method.getDeclaringClass()) + ") factoryBean)";
+            return "(factoryBean, args) -> " + target + "." + method.getName() + "(" + castArguments(types) + ")";
+        }
+        return "GeneratedBeanDefinition.reflectFactoryMethod(" + classLiteral(method.getDeclaringClass()) + ", " + literal(method.getName())
+                + classLiterals(types) + ")";
+    }
+
+    String injector(InjectionPoint point) {
+        Class<?> clazz = point.declaringClass();
+        Class<?> type = point.dependency().type();
+        try {
+            if (point.field()) {
+                Field f = clazz.getDeclaredField(point.name());
+                if (isAccessible(f) && isAccessible(type)) {
+                    return "(bean, value) -> ((" + typeName(clazz) + ") bean)." + f.getName() + " = (" + typeName(type) + ") value";
+                }
+                return "GeneratedBeanDefinition.reflectField(" + classLiteral(clazz) + ", " + literal(f.getName()) + ")";
+            }
+            Method m = clazz.getDeclaredMethod(point.name(), type);
+            if (isAccessible(m) && isAccessible(type)) {
+                return "(bean, value) -> ((" + typeName(clazz) + ") bean)." + m.getName() + "((" + typeName(type) + ") value)";
+            }
+            return "GeneratedBeanDefinition.reflectSetter(" + classLiteral(clazz) + ", " + literal(m.getName()) + ", " + classLiteral(type) + ")";
+        } catch (NoSuchFieldException | NoSuchMethodException e) {
+            throw new BeanDefinitionException("Injection point not found: " + clazz.getName() + "." + point.name(), e);
+        }
+    }
+
+    String callback(Method method) {
+        if (method == null) {
+            return "null";
+        }
+        if (isAccessible(method)) {
+            return "bean -> ((" + typeName(method.getDeclaringClass()) + ") bean)." + method.getName() + "()";
+        }
+        return "GeneratedBeanDefinition.reflectMethod(" + classLiteral(method.getDeclaringClass()) + ", " + literal(method.getName()) + ")";
+    }
+
+    String castArguments(Class<?>[] types) {
+        List<String> args = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            args.add("(" + typeName(types[i]) + ") args[" + i + "]");
+        }
+        return String.join(", ", args);
+    }
+
+    String classLiterals(Class<?>[] types) {
+        StringBuilder sb = new StringBuilder();
+        for (Class<?> type : types) {
+            sb.append(", ").append(classLiteral(type));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 生成代码可以访问的类使用类字面量，否则按名称加载
+     */
+    String classLiteral(Class<?> clazz) {
+        return isAccessible(clazz) ? typeName(clazz) + ".class" : "load(" + literal(clazz.getName()) + ")";
+    }
+
+    String typeName(Class<?> clazz) {
+        return clazz.getCanonicalName();
+    }
+
+    boolean isAccessible(Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (!isAccessible(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 生成的类与配置类在同一个package，可以访问public类，以及同一个package的非private类
+     */
+    boolean isAccessible(Class<?> clazz) {
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        if (clazz.isArray()) {
+            return isAccessible(clazz.getComponentType());
+        }
+        if (clazz.isAnonymousClass() || clazz.isLocalClass() || clazz.isHidden() || clazz.getCanonicalName() == null) {
+            return false;
+        }
+        int mod = clazz.getModifiers();
+        if (Modifier.isPrivate(mod) || (!Modifier.isPublic(mod) && !clazz.getPackageName().equals(this.packageName))) {
+            return false;
+        }
+        return clazz.getEnclosingClass() == null || isAccessible(clazz.getEnclosingClass());
+    }
+
+    boolean isAccessible(Member member) {
+        int mod = member.getModifiers();
+        if (Modifier.isPrivate(mod) || !isAccessible(member.getDeclaringClass())) {
+            return false;
+        }
+        if (member instanceof Field && Modifier.isFinal(mod)) {
+            return false;
+        }
+        return Modifier.isPublic(mod) || member.getDeclaringClass().getPackageName().equals(this.packageName);
+    }
+
+    static String literal(String s) {
+        if (s == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * 构建时运行：ContextInitializerGenerator &lt;配置类&gt; &lt;源码输出目录&gt; [properties文件]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: java " + ContextInitializerGenerator.class.getName() + " <config-class> <output-dir> [properties-file]");
+            System.exit(1);
+        }
+        Class<?> configClass = Class.forName(args[0]);
+        Properties props = new Properties();
+        if (args.length > 2) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(args[2]), StandardCharsets.UTF_8)) {
+                props.load(reader);
+            }
+        }
+        props.putAll(System.getProperties());
+        // 必须使用反射方式启动:
+        props.put("demo.context.aot", "false");
+        try (var ctx = new AnnotationConfigApplicationContext(configClass, new PropertyResolver(props))) {
+            var generator = new ContextInitializerGenerator(configClass, ctx);
+            Path file = generator.writeTo(Paths.get(args[1]));
+            logger.atInfo().log("generated {}: {}", generator.getClassName(), file);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.demo.context;
+
+import org.demo.exception.BeanCreationException;
+import org.demo.exception.UnsatisfiedDependencyException;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bean之间的依赖图，用于在线程池中并行创建、初始化和销毁Bean。
+ * <p>
+ * 每个Bean在它依赖的所有Bean处理完成后才会被处理，没有依赖关系的Bean并行处理，按@Order顺序提交。
+ */
+class DependencyGraph {
+
+    // 每个Bean依赖的Bean，按BeanDefinition排序:
+    final Map<BeanDefinition, Set<BeanDefinition>> dependencies = new TreeMap<>();
+
+    void addBean(BeanDefinition def) {
+        this.dependencies.computeIfAbsent(def, key -> new TreeSet<>());
+    }
+
+    void addDependency(BeanDefinition def, BeanDefinition dependsOn) {
+        if (def != dependsOn) {
+            addBean(dependsOn);
+            this.dependencies.computeIfAbsent(def, key -> new TreeSet<>()).add(dependsOn);
+        }
+    }
+
+    /**
+     * 拓扑排序，被依赖的Bean排在前面，没有依赖关系的Bean保持@Order顺序。
+     *
+     * @param failOnCycle 为true时检测到循环依赖抛出UnsatisfiedDependencyException，否则忽略形成循环的依赖
+     */
+    List<BeanDefinition> sort(boolean failOnCycle) {
+        List<BeanDefinition> sorted = new ArrayList<>(this.dependencies.size());
+        Set<BeanDefinition> visiting = new HashSet<>();
+        Set<BeanDefinition> visited = new HashSet<>();
+        for (BeanDefinition def : this.dependencies.keySet()) {
+            visit(def, visiting, visited, sorted, failOnCycle);
+        }
+        return sorted;
+    }
+
+    void visit(BeanDefinition def, Set<BeanDefinition> visiting, Set<BeanDefinition> visited, List<BeanDefinition> sorted, boolean failOnCycle) {
+        if (visited.contains(def)) {
+            return;
+        }
+        if (!visiting.add(def)) {
+            if (failOnCycle) {
+                throw new UnsatisfiedDependencyException(String.format("Circular dependency detected when create bean '%s'", def.getName()));
+            }
+            return;
+        }
+        for (BeanDefinition dependsOn : this.dependencies.get(def)) {
+            visit(dependsOn, visiting, visited, sorted, failOnCycle);
+        }
+        visiting.remove(def);
+        visited.add(def);
+        sorted.add(def);
+    }
+
+    /**
+     * 按依赖关系在executor中并行执行action，全部完成后返回，任意一个失败时抛出其异常
+     */
+    void execute(Executor executor, boolean failOnCycle, Consumer<BeanDefinition> action) {
+        Map<BeanDefinition, CompletableFuture<Void>> futures = submit(failOnCycle,
+                def -> CompletableFuture.runAsync(() -> action.accept(def), executor));
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            // 依赖失败的Bean会以相同的异常结束，直接抛出根源异常:
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new BeanCreationException(e.getCause());
+        }
+    }
+
+    /**
+     * 按依赖关系提交异步任务，每个Bean在它依赖的所有Bean的任务完成后调用action启动自己的任务，立即返回每个Bean对应的Future
+     */
+    Map<BeanDefinition, CompletableFuture<Void>> submit(boolean failOnCycle, Function<BeanDefinition, CompletableFuture<Void>> action) {
+        Map<BeanDefinition, CompletableFuture<Void>> futures = new HashMap<>();
+        for (BeanDefinition def : sort(failOnCycle)) {
+            // 形成循环而被忽略的依赖此时还没有对应的Future:
+            CompletableFuture<?>[] dependsOn = this.dependencies.get(def).stream().map(futures::get).filter(Objects::nonNull)
+                    .toArray(CompletableFuture[]::new);
+            futures.put(def, CompletableFuture.allOf(dependsOn).thenCompose(v -> action.apply(def)));
+        }
+        return futures;
+    }
+}
@@ -0,0 +1,22 @@
+package org.demo.context;
+
+import java.time.Duration;
+
+/**
+ * 单个@EventListener方法的调用统计
+ *
+ * @param listener    监听器，格式为"beanName#methodName"
+ * @param invocations 调用次数
+ * @param failures    抛出异常的次数
+ * @param totalTime   总耗时
+ * @param maxTime     最大耗时
+ */
+public record EventListenerMetrics(String listener, long invocations, long failures, Duration totalTime, Duration maxTime) {
+
+    /**
+     * 平均耗时
+     */
+    public Duration averageTime() {
+        return invocations == 0 ? Duration.ZERO : totalTime.dividedBy(invocations);
+    }
+}
@@ -0,0 +1,151 @@
+package org.demo.context;
+
+import jakarta.annotation.Nullable;
+import org.demo.exception.BeanDefinitionException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 由{@link ContextInitializerGenerator}在构建时生成的BeanDefinition。
+ * <p>
+ * 构造方法或工厂方法的参数、字段和set方法的注入点、init/destroy方法在构建时已确定，创建和注入直接调用生成的代码，不再解析注解。
+ * 生成的代码无法访问的成员(例如其他package的非public成员)通过reflectXxx()方法在加载时查找一次。
+ */
+public class GeneratedBeanDefinition extends BeanDefinition {
+
+    private final String factoryMethodName;
+    private final List<BeanDependency> arguments;
+    private final Instantiator instantiator;
+    private final List<InjectionPoint> injectionPoints;
+    private final Callback initCallback;
+    private final Callback destroyCallback;
+
+    public GeneratedBeanDefinition(String name, Class<?> beanClass, @Nullable String factoryName, @Nullable String factoryMethodName, int order,
+                                   boolean primary, boolean lazy, @Nullable String initMethodName, @Nullable String destroyMethodName,
+                                   List<BeanDependency> arguments, Instantiator instantiator, List<InjectionPoint> injectionPoints,
+                                   @Nullable Callback initCallback, @Nullable Callback destroyCallback) {
+        super(name, beanClass, null, factoryName, null, order, primary, initMethodName, destroyMethodName, null, null);
+        this.factoryMethodName = factoryMethodName;
+        this.arguments = List.copyOf(arguments);
+        this.instantiator = instantiator;
+        this.injectionPoints = List.copyOf(injectionPoints);
+        this.initCallback = initCallback;
+        this.destroyCallback = destroyCallback;
+        setLazy(lazy);
+    }
+
+    /**
+     * 构造方法或工厂方法的参数
+     */
+    public List<BeanDependency> getArguments() {
+        return this.arguments;
+    }
+
+    public Instantiator getInstantiator() {
+        return this.instantiator;
+    }
+
+    /**
+     * 当前类和父类的注入点
+     */
+    public List<InjectionPoint> getInjectionPoints() {
+        return this.injectionPoints;
+    }
+
+    @Nullable
+    public Callback getInitCallback() {
+        return this.initCallback;
+    }
+
+    @Nullable
+    public Callback getDestroyCallback() {
+        return this.destroyCallback;
+    }
+
+    @Override
+    String getCreateDetail() {
+        return getFactoryName() == null ? null : getFactoryName() + "." + this.factoryMethodName + "()";
+    }
+
+    /**
+     * 查找无法直接调用的构造方法
+     */
+    public static Instantiator reflectConstructor(Class<?> clazz, Class<?>... parameterTypes) {
+        try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor(parameterTypes);
+            return (factoryBean, args) -> InjectionPlan.newInstance(constructor, args);
+        } catch (NoSuchMethodException e) {
+            throw new BeanDefinitionException("Generated constructor not found: " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * 查找无法直接调用的@Bean工厂方法
+     */
+    public static Instantiator reflectFactoryMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = clazz.getDeclaredMethod(name, parameterTypes);
+            return (factoryBean, args) -> InjectionPlan.invokeFactory(method, factoryBean, args);
+        } catch (NoSuchMethodException e) {
+            throw new BeanDefinitionException("Generated factory method not found: " + clazz.getName() + "." + name, e);
+        }
+    }
+
+    /**
+     * 查找无法直接调用的init/destroy方法
+     */
+    public static Callback reflectMethod(Class<?> clazz, String name) {
+        try {
+            Method method = clazz.getDeclaredMethod(name);
+            method.setAccessible(true);
+            return method::invoke;
+        } catch (NoSuchMethodException e) {
+            throw new BeanDefinitionException("Generated callback method not found: " + clazz.getName() + "." + name, e);
+        }
+    }
+
+    /**
+     * 查找无法直接赋值的字段
+     */
+    public static InjectionPoint.Injector reflectField(Class<?> clazz, String name) {
+        try {
+            Field field = clazz.getDeclaredField(name);
+            return InjectionPlan.fieldInjector(field);
+        } catch (ReflectiveOperationException e) {
+            throw new BeanDefinitionException("Generated injection field not found: " + clazz.getName() + "." + name, e);
+        }
+    }
+
+    /**
+     * 查找无法直接调用的set方法
+     */
+    public static InjectionPoint.Injector reflectSetter(Class<?> clazz, String name, Class<?> parameterType) {
+        try {
+            Method method = clazz.getDeclaredMethod(name, parameterType);
+            return InjectionPlan.methodInjector(method);
+        } catch (ReflectiveOperationException e) {
+            throw new BeanDefinitionException("Generated injection method not found: " + clazz.getName() + "." + name, e);
+        }
+    }
+
+    /**
+     * 创建Bean实例，工厂方法创建时factoryBean为@Configuration的实例
+     */
+    @FunctionalInterface
+    public interface Instantiator {
+
+        Object instantiate(@Nullable Object factoryBean, Object[] args) throws Throwable;
+    }
+
+    /**
+     * 调用init/destroy方法
+     */
+    @FunctionalInterface
+    public interface Callback {
+
+        void invoke(Object bean) throws Throwable;
+    }
+}
@@ -0,0 +1,189 @@
+package org.demo.context;
+
+import org.demo.annotation.Autowired;
+import org.demo.annotation.ConfigurationProperties;
+import org.demo.annotation.Lazy;
+import org.demo.annotation.Value;
+import org.demo.exception.BeanCreationException;
+import org.demo.exception.BeanDefinitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一个类的注入计划：类及其父类中@Value和@Autowired标注的字段和set方法。
+ * <p>
+ * 每个类只解析一次并缓存在ClassValue中，注入时通过MethodHandle调用，不再重复getDeclaredFields()、查找注解和setAccessible()。
+ * 构造方法和@Bean工厂方法同样缓存为MethodHandle。
+ */
+final class InjectionPlan {
+
+    static final Logger logger = LoggerFactory.getLogger(InjectionPlan.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return new InjectionPlan(type);
+        }
+    };
+
+    // 按声明类缓存构造方法和工厂方法:
+    private static final ClassValue<Map<Executable, MethodHandle>> CREATORS = new ClassValue<>() {
+        @Override
+        protected Map<Executable, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final List<InjectionPoint> points;
+
+    private InjectionPlan(Class<?> clazz) {
+        List<InjectionPoint> list = new ArrayList<>();
+        // 先注入当前类的Field和Method，再注入父类:
+        for (Field f : clazz.getDeclaredFields()) {
+            InjectionPoint point = createInjectionPoint(clazz, f);
+            if (point != null) {
+                list.add(point);
+            }
+        }
+        for (Method m : clazz.getDeclaredMethods()) {
+            InjectionPoint point = createInjectionPoint(clazz, m);
+            if (point != null) {
+                list.add(point);
+            }
+        }
+        Class<?> superClazz = clazz.getSuperclass();
+        if (superClazz != null) {
+            list.addAll(of(superClazz).points);
+        }
+        this.points = List.copyOf(list);
+    }
+
+    /**
+     * 获取类的注入计划
+     */
+    static InjectionPlan of(Class<?> clazz) {
+        return PLANS.get(clazz);
+    }
+
+    List<InjectionPoint> points() {
+        return this.points;
+    }
+
+    /**
+     * 通过缓存的MethodHandle调用构造方法
+     */
+    static Object newInstance(Constructor<?> constructor, Object[] args) throws Throwable {
+        MethodHandle mh = CREATORS.get(constructor.getDeclaringClass()).computeIfAbsent(constructor, key -> {
+            try {
+                constructor.setAccessible(true);
+                return MethodHandles.lookup().unreflectConstructor(constructor).asFixedArity().asSpreader(Object[].class, args.length).asType(CONSTRUCTOR_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new BeanCreationException(e);
+            }
+        });
+        return (Object) mh.invokeExact(args);
+    }
+
+    /**
+     * 通过缓存的MethodHandle调用@Bean工厂方法
+     */
+    static Object invokeFactory(Method factoryMethod, Object configInstance, Object[] args) throws Throwable {
+        MethodHandle mh = CREATORS.get(factoryMethod.getDeclaringClass()).computeIfAbsent(factoryMethod, key -> {
+            try {
+                factoryMethod.setAccessible(true);
+                MethodHandle handle = MethodHandles.lookup().unreflect(factoryMethod).asFixedArity();
+                if (Modifier.isStatic(factoryMethod.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asSpreader(Object[].class, args.length).asType(FACTORY_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new BeanCreationException(e);
+            }
+        });
+        return (Object) mh.invokeExact(configInstance, args);
+    }
+
+    static InjectionPoint createInjectionPoint(Class<?> clazz, AccessibleObject acc) {
+        Value value = acc.getAnnotation(Value.class);
+        ConfigurationProperties properties = acc.getAnnotation(ConfigurationProperties.class);
+        Autowired autowired = acc.getAnnotation(Autowired.class);
+        if (value == null && properties == null && autowired == null) {
+            return null;
+        }
+        Member member = (Member) acc;
+        checkFieldOrMethod(member);
+        if ((value != null ? 1 : 0) + (properties != null ? 1 : 0) + (autowired != null ? 1 : 0) > 1) {
+            throw new BeanCreationException(String.format("Cannot specify more than one of @Autowired, @Value and @ConfigurationProperties when inject %s.%s",
+                    clazz.getSimpleName(), member.getName()));
+        }
+        try {
+            if (acc instanceof Field f) {
+                return new InjectionPoint(clazz, f.getName(), true,
+                        BeanDependency.of(f.getType(), f.getGenericType(), value, properties, autowired, f.getAnnotation(Lazy.class)), fieldInjector(f));
+            }
+            Method m = (Method) acc;
+            if (m.getParameters().length != 1) {
+                throw new BeanDefinitionException(String.format("Cannot inject a non-setter method %s of class %s", m.getName(), clazz.getName()));
+            }
+            return new InjectionPoint(clazz, m.getName(), false,
+                    BeanDependency.of(m.getParameterTypes()[0], m.getGenericParameterTypes()[0], value, properties, autowired, m.getAnnotation(Lazy.class)), methodInjector(m));
+        } catch (IllegalAccessException e) {
+            throw new BeanDefinitionException("Cannot access injection point: " + member, e);
+        }
+    }
+
+    /**
+     * 通过MethodHandle给字段赋值
+     */
+    static InjectionPoint.Injector fieldInjector(Field f) throws IllegalAccessException {
+        f.setAccessible(true);
+        MethodHandle setter = MethodHandles.lookup().unreflectSetter(f).asType(SETTER_TYPE);
+        return (bean, value) -> {
+            setter.invokeExact(bean, value);
+        };
+    }
+
+    /**
+     * 通过MethodHandle调用set方法
+     */
+    static InjectionPoint.Injector methodInjector(Method m) throws IllegalAccessException {
+        m.setAccessible(true);
+        MethodHandle setter = MethodHandles.lookup().unreflect(m).asType(SETTER_TYPE);
+        return (bean, value) -> {
+            setter.invokeExact(bean, value);
+        };
+    }
+
+    /**
+     * @param m 成员对象
+     * @throws BeanDefinitionException 如果成员是静态属性或 final 属性/方法，则抛出异常
+     */
+    static void checkFieldOrMethod(Member m) {
+        int mod = m.getModifiers();
+        if (Modifier.isStatic(mod)) {
+            throw new BeanDefinitionException("Cannot inject static field: " + m);
+        }
+        if (Modifier.isFinal(mod)) {
+            if (m instanceof Field field) {
+                throw new BeanDefinitionException("Cannot inject final field: " + field);
+            }
+            if (m instanceof Method method) {
+                logger.warn(
+                        "Inject final method should be careful because it is not called on target bean when bean is proxied and may cause NullPointerException.");
+            }
+        }
+    }
+}
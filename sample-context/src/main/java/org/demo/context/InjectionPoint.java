@@ -0,0 +1,25 @@
+package org.demo.context;
+
+/**
+ * 一个注入点：字段或set方法。
+ * <p>
+ * 反射方式由{@link InjectionPlan}通过MethodHandle创建，编译期生成的{@link ContextInitializer}直接赋值或调用set方法。
+ *
+ * @param declaringClass 声明字段或方法的类
+ * @param name           字段或方法名称
+ * @param field          是否字段
+ * @param dependency     注入的值
+ * @param injector       注入方法
+ */
+public record InjectionPoint(Class<?> declaringClass, String name, boolean field, BeanDependency dependency, Injector injector) {
+
+    void inject(Object bean, Object value) throws Throwable {
+        this.injector.inject(bean, value);
+    }
+
+    @FunctionalInterface
+    public interface Injector {
+
+        void inject(Object bean, Object value) throws Throwable;
+    }
+}
@@ -0,0 +1,56 @@
+package org.demo.context;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+/**
+ * 线程安全的BeanProvider，第一次get()时解析Bean并缓存。也可以作为接口类型的延迟代理。
+ */
+class LazyBeanProvider<T> implements BeanProvider<T>, InvocationHandler {
+
+    private final Supplier<T> resolver;
+    private volatile T instance;
+
+    LazyBeanProvider(Supplier<T> resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public T get() {
+        T t = this.instance;
+        if (t == null) {
+            synchronized (this) {
+                t = this.instance;
+                if (t == null) {
+                    t = this.resolver.get();
+                    this.instance = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * 创建接口类型的代理，所有方法调用转发给延迟获取的Bean
+     */
+    @SuppressWarnings("unchecked")
+    T createProxy(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        T target = get();
+        if (target == null) {
+            throw new IllegalStateException("Lazy bean is not available: " + method.getDeclaringClass().getName());
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.demo.context;
+
+import jakarta.annotation.Nullable;
+import org.demo.context.index.ComponentIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 组件扫描结果的磁盘缓存。
+ * <p>
+ * 缓存文件记录候选组件的类名，以及每个Bean的元数据(名称、顺序、@Primary、@Lazy、init/destroy方法、工厂方法)。
+ * 缓存以classpath指纹为key：被扫描的package所在的目录和jar包，其文件列表、修改时间和大小都没有变化时，
+ * 直接从缓存恢复BeanDefinition，跳过classpath扫描和注解解析。计算指纹只读取文件属性，不读取文件内容。
+ * <p>
+ * 通过属性"demo.context.scan-cache"指定缓存文件路径，未指定时不启用。
+ */
+class ScanCache {
+
+    static final String SCAN_CACHE_PROPERTY = "${demo.context.scan-cache:}";
+
+    static final String HEADER = "# demo scan cache v2";
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    final Path file;
+    final String fingerprint;
+
+    ScanCache(Path file, String fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * 读取缓存，文件不存在、指纹不一致或格式错误时返回null
+     */
+    @Nullable
+    Content load() {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(this.file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            logger.atDebug().log("scan cache not found: {}", this.file);
+            return null;
+        } catch (IOException e) {
+            logger.warn("cannot read scan cache: {}", this.file, e);
+            return null;
+        }
+        if (lines.size() < 2 || !HEADER.equals(lines.get(0)) || !("fingerprint\t" + this.fingerprint).equals(lines.get(1))) {
+            logger.atInfo().log("scan cache is outdated: {}", this.file);
+            return null;
+        }
+        List<String> classNames = new ArrayList<>();
+        List<CachedBean> beans = new ArrayList<>();
+        for (String line : lines.subList(2, lines.size())) {
+            String[] ss = line.split("\t", -1);
+            if (ss[0].equals("class") && ss.length == 2) {
+                classNames.add(ss[1]);
+            } else if (ss[0].equals("bean") && ss.length == 13) {
+                beans.add(new CachedBean(ss[1], ss[2], nullIfEmpty(ss[3]), nullIfEmpty(ss[4]),
+                        ss[5].isEmpty() ? new String[0] : ss[5].split(","), Integer.parseInt(ss[6]), Boolean.parseBoolean(ss[7]),
+                        nullIfEmpty(ss[8]), nullIfEmpty(ss[9]), nullIfEmpty(ss[10]), nullIfEmpty(ss[11]), Boolean.parseBoolean(ss[12])));
+            } else {
+                logger.warn("invalid scan cache line: {}", line);
+                return null;
+            }
+        }
+        return new Content(classNames, beans);
+    }
+
+    /**
+     * 写入缓存，先写临时文件再替换，失败时只记录日志
+     */
+    void save(Collection<String> classNames, Collection<BeanDefinition> defs) {
+        try {
+            Path dir = this.file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, this.file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER + "\n");
+                writer.write("fingerprint\t" + this.fingerprint + "\n");
+                for (String className : new TreeSet<>(classNames)) {
+                    writer.write("class\t" + className + "\n");
+                }
+                for (BeanDefinition def : new TreeSet<>(defs)) {
+                    Method factoryMethod = def.getFactoryMethod();
+                    writer.write(String.join("\t", "bean", def.getName(), def.getBeanClass().getName(),
+                            emptyIfNull(def.getFactoryName()),
+                            factoryMethod == null ? "" : factoryMethod.getName(),
+                            factoryMethod == null ? "" : String.join(",", Arrays.stream(factoryMethod.getParameterTypes()).map(Class::getName).toList()),
+                            String.valueOf(def.getOrder()), String.valueOf(def.isPrimary()),
+                            emptyIfNull(def.getInitMethodName()), emptyIfNull(def.getDestroyMethodName()),
+                            methodToString(def.getInitMethod()), methodToString(def.getDestroyMethod()), String.valueOf(def.isLazy())) + "\n");
+                }
+            }
+            Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.atInfo().log("scan cache saved: {}", this.file);
+        } catch (IOException e) {
+            logger.warn("cannot write scan cache: {}", this.file, e);
+        }
+    }
+
+    /**
+     * 计算classpath指纹：配置类、扫描的package、带索引的根目录，以及配置类和这些package所在的目录下所有文件、jar包的路径、修改时间和大小
+     */
+    static String fingerprint(Class<?> configClass, String[] scanPackages, @Nullable ComponentIndex index, ClassLoader classLoader) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        List<String> items = new ArrayList<>();
+        items.add("config:" + configClass.getName());
+        items.add("packages:" + String.join(",", scanPackages));
+        items.add("index:" + (index == null ? "" : String.join(",", index.getIndexedRoots())));
+        try {
+            URL configUrl = classLoader.getResource(configClass.getName().replace('.', '/') + ".class");
+            if (configUrl != null) {
+                addLocation(items, configUrl.toURI());
+            }
+            for (String pkg : scanPackages) {
+                Enumeration<URL> en = classLoader.getResources(pkg.replace('.', '/'));
+                while (en.hasMoreElements()) {
+                    addLocation(items, en.nextElement().toURI());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+        for (String item : items) {
+            digest.update(item.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static void addLocation(List<String> items, URI uri) throws IOException {
+        String uriStr = uri.toString();
+        if (uriStr.startsWith("file:")) {
+            Path root = Paths.get(uri);
+            if (Files.isDirectory(root)) {
+                // 目录下的每个文件:
+                items.add("dir:" + root);
+                try (Stream<Path> paths = Files.walk(root)) {
+                    paths.sorted().forEach(path -> items.add(fileItem(root.relativize(path).toString(), path)));
+                }
+            } else {
+                items.add(fileItem(root.toString(), root));
+            }
+        } else if (uriStr.startsWith("jar:file:")) {
+            // jar包只记录jar文件本身:
+            int n = uriStr.indexOf("!/");
+            String jarUri = n < 0 ? uriStr.substring(4) : uriStr.substring(4, n);
+            Path jar = Paths.get(URI.create(jarUri));
+            items.add(fileItem(jar.toString(), jar));
+        } else {
+            items.add("url:" + uriStr);
+        }
+    }
+
+    static String fileItem(String name, Path path) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return "file:" + name + ":" + attrs.lastModifiedTime().toMillis() + ":" + attrs.size();
+        } catch (IOException e) {
+            return "file:" + name + ":missing";
+        }
+    }
+
+    static String methodToString(Method method) {
+        return method == null ? "" : method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+
+    static String emptyIfNull(String s) {
+        return s == null ? "" : s;
+    }
+
+    static String nullIfEmpty(String s) {
+        return s.isEmpty() ? null : s;
+    }
+
+    record Content(List<String> classNames, List<CachedBean> beans) {
+    }
+
+    /**
+     * 缓存的Bean元数据，init/destroy方法以"类名#方法名"表示
+     */
+    record CachedBean(String name, String beanClass, String factoryName, String factoryMethod, String[] factoryParameterTypes, int order,
+                      boolean primary, String initMethodName, String destroyMethodName, String initMethod, String destroyMethod, boolean lazy) {
+    }
+}
@@ -0,0 +1,262 @@
+package org.demo.context;
+
+import jakarta.annotation.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 记录ApplicationContext启动过程的时间线：每个阶段、每个Bean的创建、BeanPostProcessor、注入和初始化的墙钟时间、CPU时间和分配的字节数。
+ * <p>
+ * 通过属性"demo.context.startup-recording=true"启用，启动后通过AnnotationConfigApplicationContext.getStartupRecorder()查询，
+ * 可以导出为JSON，并根据Bean之间的依赖关系计算关键路径。未启用时所有记录操作为空操作。
+ */
+public class StartupRecorder {
+
+    static final String STARTUP_RECORDING_PROPERTY = "${demo.context.startup-recording:false}";
+
+    private final boolean enabled;
+    private final long baseNanos = System.nanoTime();
+    private final AtomicLong nextId = new AtomicLong();
+    private final Queue<StartupStep> steps = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Deque<StartupStep>> running = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadMXBean threadMXBean;
+    private final com.sun.management.ThreadMXBean allocationMXBean;
+
+    // Bean依赖的Bean，用于计算关键路径:
+    private volatile Map<String, Collection<String>> dependencies = Map.of();
+
+    // 未启用时使用的空步骤:
+    private final StartupStep noop;
+
+    public StartupRecorder(boolean enabled) {
+        this.enabled = enabled;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadMXBean = enabled && bean.isCurrentThreadCpuTimeSupported() ? bean : null;
+        if (enabled && bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            this.allocationMXBean = sunBean;
+        } else {
+            this.allocationMXBean = null;
+        }
+        this.noop = new StartupStep(this, 0, 0, "noop", null, null, 0, -1, -1);
+        this.noop.end(0, -1, -1);
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * 开始一个阶段
+     */
+    public StartupStep start(String phase) {
+        return start(phase, null, null);
+    }
+
+    /**
+     * 开始一个步骤，必须在同一个线程中调用close()结束
+     */
+    public StartupStep start(String phase, @Nullable String beanName, @Nullable String detail) {
+        if (!this.enabled) {
+            return this.noop;
+        }
+        Deque<StartupStep> stack = this.running.get();
+        long parentId = stack.isEmpty() ? 0 : stack.peek().getId();
+        StartupStep step = new StartupStep(this, this.nextId.incrementAndGet(), parentId, phase, beanName, detail, System.nanoTime() - this.baseNanos,
+                cpuNanos(), allocatedBytes());
+        stack.push(step);
+        return step;
+    }
+
+    void end(StartupStep step) {
+        step.end(System.nanoTime() - this.baseNanos, cpuNanos(), allocatedBytes());
+        Deque<StartupStep> stack = this.running.get();
+        // 正常情况下step位于栈顶，出现异常时未结束的子步骤一并弹出:
+        if (stack.contains(step)) {
+            StartupStep top;
+            do {
+                top = stack.pop();
+            } while (top != step);
+        }
+        if (!stack.isEmpty() && stack.peek().getId() == step.getParentId()) {
+            stack.peek().addChild(step);
+        }
+        if (stack.isEmpty()) {
+            this.running.remove();
+        }
+        this.steps.add(step);
+    }
+
+    long cpuNanos() {
+        return this.threadMXBean == null ? -1 : this.threadMXBean.getCurrentThreadCpuTime();
+    }
+
+    long allocatedBytes() {
+        return this.allocationMXBean == null ? -1 : this.allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * 设置Bean之间的依赖关系
+     */
+    void setDependencies(Map<String, Collection<String>> dependencies) {
+        this.dependencies = Map.copyOf(dependencies);
+    }
+
+    /**
+     * 所有已结束的步骤，按开始时间排序
+     */
+    public List<StartupStep> getSteps() {
+        return this.steps.stream().sorted(Comparator.comparingLong(StartupStep::getStartNanos).thenComparingLong(StartupStep::getId)).toList();
+    }
+
+    /**
+     * 所有阶段
+     */
+    public List<StartupStep> getPhaseSteps() {
+        return getSteps().stream().filter(step -> step.getBeanName() == null).toList();
+    }
+
+    /**
+     * 指定Bean的所有步骤
+     */
+    public List<StartupStep> getBeanSteps(String beanName) {
+        return getSteps().stream().filter(step -> beanName.equals(step.getBeanName())).toList();
+    }
+
+    /**
+     * 每个Bean自身花费的墙钟时间(不含嵌套创建的其他Bean)，按时间倒序
+     */
+    public Map<String, Long> getBeanWallNanos() {
+        Map<String, Long> times = new HashMap<>();
+        for (StartupStep step : this.steps) {
+            if (step.getBeanName() != null) {
+                times.merge(step.getBeanName(), step.getSelfWallNanos(), Long::sum);
+            }
+        }
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        times.entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed()).forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    /**
+     * 关键路径：沿依赖关系累计的Bean自身时间最长的一条路径，被依赖的Bean在前。即使并行启动，总启动时间也不会短于关键路径。
+     */
+    public CriticalPath getCriticalPath() {
+        Map<String, Long> beanTimes = getBeanWallNanos();
+        Map<String, CriticalPath> memo = new HashMap<>();
+        CriticalPath longest = new CriticalPath(List.of(), 0);
+        for (String beanName : beanTimes.keySet()) {
+            CriticalPath path = longestPath(beanName, beanTimes, memo, new HashSet<>());
+            if (path.totalNanos() > longest.totalNanos()) {
+                longest = path;
+            }
+        }
+        return longest;
+    }
+
+    CriticalPath longestPath(String beanName, Map<String, Long> beanTimes, Map<String, CriticalPath> memo, Set<String> visiting) {
+        CriticalPath cached = memo.get(beanName);
+        if (cached != null) {
+            return cached;
+        }
+        // 忽略字段注入形成的循环依赖:
+        if (!visiting.add(beanName)) {
+            return new CriticalPath(List.of(), 0);
+        }
+        CriticalPath longestDependency = new CriticalPath(List.of(), 0);
+        for (String dependsOn : this.dependencies.getOrDefault(beanName, List.of())) {
+            CriticalPath path = longestPath(dependsOn, beanTimes, memo, visiting);
+            if (path.totalNanos() > longestDependency.totalNanos()) {
+                longestDependency = path;
+            }
+        }
+        visiting.remove(beanName);
+        List<String> names = new ArrayList<>(longestDependency.beanNames());
+        names.add(beanName);
+        CriticalPath path = new CriticalPath(List.copyOf(names), longestDependency.totalNanos() + beanTimes.getOrDefault(beanName, 0L));
+        memo.put(beanName, path);
+        return path;
+    }
+
+    /**
+     * 导出为JSON
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("{\"steps\":[");
+        List<StartupStep> list = getSteps();
+        for (int i = 0; i < list.size(); i++) {
+            StartupStep step = list.get(i);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(step.getId()).append(",\"parentId\":").append(step.getParentId());
+            sb.append(",\"phase\":").append(quote(step.getPhase()));
+            sb.append(",\"bean\":").append(quote(step.getBeanName()));
+            sb.append(",\"detail\":").append(quote(step.getDetail()));
+            sb.append(",\"thread\":").append(quote(step.getThread()));
+            sb.append(",\"startNanos\":").append(step.getStartNanos());
+            sb.append(",\"wallNanos\":").append(step.getWallNanos());
+            sb.append(",\"cpuNanos\":").append(step.getCpuNanos());
+            sb.append(",\"allocatedBytes\":").append(step.getAllocatedBytes());
+            sb.append(",\"selfWallNanos\":").append(step.getSelfWallNanos());
+            sb.append(",\"selfCpuNanos\":").append(step.getSelfCpuNanos());
+            sb.append(",\"selfAllocatedBytes\":").append(step.getSelfAllocatedBytes()).append('}');
+        }
+        sb.append("],\"beans\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> e : getBeanWallNanos().entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append(quote(e.getKey())).append(':').append(e.getValue());
+        }
+        CriticalPath path = getCriticalPath();
+        sb.append("},\"criticalPath\":{\"totalNanos\":").append(path.totalNanos()).append(",\"beans\":[");
+        for (int i = 0; i < path.beanNames().size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(quote(path.beanNames().get(i)));
+        }
+        sb.append("]}}");
+        return sb.toString();
+    }
+
+    static String quote(@Nullable String s) {
+        if (s == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * 关键路径上的Bean和累计时间
+     */
+    public record CriticalPath(List<String> beanNames, long totalNanos) {
+    }
+}
@@ -0,0 +1,149 @@
+package org.demo.context;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * 启动过程中的一个步骤：一个阶段(phase)，或一个Bean在某个阶段的处理(创建、BeanPostProcessor、注入、初始化)。
+ * <p>
+ * 记录墙钟时间、CPU时间和分配的字节数，self值扣除了同一线程中嵌套的子步骤。
+ */
+public final class StartupStep implements AutoCloseable {
+
+    private final StartupRecorder recorder;
+    private final long id;
+    private final long parentId;
+    private final String phase;
+    private final String beanName;
+    private final String detail;
+    private final String thread;
+    private final long startNanos;
+    private final long startCpuNanos;
+    private final long startAllocatedBytes;
+
+    private long wallNanos;
+    private long cpuNanos;
+    private long allocatedBytes;
+    private long childWallNanos;
+    private long childCpuNanos;
+    private long childAllocatedBytes;
+    private boolean ended = false;
+
+    StartupStep(StartupRecorder recorder, long id, long parentId, String phase, String beanName, String detail, long startNanos, long startCpuNanos,
+                long startAllocatedBytes) {
+        this.recorder = recorder;
+        this.id = id;
+        this.parentId = parentId;
+        this.phase = phase;
+        this.beanName = beanName;
+        this.detail = detail;
+        this.thread = Thread.currentThread().getName();
+        this.startNanos = startNanos;
+        this.startCpuNanos = startCpuNanos;
+        this.startAllocatedBytes = startAllocatedBytes;
+    }
+
+    void end(long endNanos, long endCpuNanos, long endAllocatedBytes) {
+        this.wallNanos = endNanos - this.startNanos;
+        this.cpuNanos = this.startCpuNanos < 0 ? -1 : endCpuNanos - this.startCpuNanos;
+        this.allocatedBytes = this.startAllocatedBytes < 0 ? -1 : endAllocatedBytes - this.startAllocatedBytes;
+        this.ended = true;
+    }
+
+    void addChild(StartupStep child) {
+        this.childWallNanos += child.wallNanos;
+        this.childCpuNanos += Math.max(0, child.cpuNanos);
+        this.childAllocatedBytes += Math.max(0, child.allocatedBytes);
+    }
+
+    /**
+     * 结束当前步骤
+     */
+    @Override
+    public void close() {
+        if (!this.ended) {
+            this.recorder.end(this);
+        }
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * 父步骤的id，没有父步骤时为0
+     */
+    public long getParentId() {
+        return this.parentId;
+    }
+
+    public String getPhase() {
+        return this.phase;
+    }
+
+    /**
+     * Bean的名称，阶段步骤为null
+     */
+    @Nullable
+    public String getBeanName() {
+        return this.beanName;
+    }
+
+    /**
+     * 附加信息，例如BeanPostProcessor的类名
+     */
+    @Nullable
+    public String getDetail() {
+        return this.detail;
+    }
+
+    public String getThread() {
+        return this.thread;
+    }
+
+    /**
+     * 相对于Recorder创建时刻的开始时间
+     */
+    public long getStartNanos() {
+        return this.startNanos;
+    }
+
+    public long getWallNanos() {
+        return this.wallNanos;
+    }
+
+    /**
+     * CPU时间，JVM不支持时为-1
+     */
+    public long getCpuNanos() {
+        return this.cpuNanos;
+    }
+
+    /**
+     * 分配的字节数，JVM不支持时为-1
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    public long getSelfWallNanos() {
+        return this.wallNanos - this.childWallNanos;
+    }
+
+    public long getSelfCpuNanos() {
+        return this.cpuNanos < 0 ? -1 : this.cpuNanos - this.childCpuNanos;
+    }
+
+    public long getSelfAllocatedBytes() {
+        return this.allocatedBytes < 0 ? -1 : this.allocatedBytes - this.childAllocatedBytes;
+    }
+
+    public boolean isEnded() {
+        return this.ended;
+    }
+
+    @Override
+    public String toString() {
+        return "StartupStep [phase=" + phase + ", bean=" + beanName + ", detail=" + detail + ", wall=" + wallNanos + "ns, cpu=" + cpuNanos
+                + "ns, allocated=" + allocatedBytes + "]";
+    }
+}
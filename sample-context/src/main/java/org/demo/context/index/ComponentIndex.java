@@ -0,0 +1,120 @@
+package org.demo.context.index;
+
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+/**
+ * 读取编译期由{@link ComponentIndexer}生成的META-INF/demo.components。
+ * <p>
+ * 索引按classpath根目录(目录或jar包)记录：带有索引的根目录查询索引，不再遍历；没有索引的根目录(例如未启用ComponentIndexer编译的jar包)仍然扫描。
+ * 设置"demo.context.component-index=false"可以完全回退到classpath扫描。
+ */
+public class ComponentIndex {
+
+    public static final String INDEX_LOCATION = "META-INF/demo.components";
+
+    static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+
+    // 按ClassLoader缓存，null表示该ClassLoader下不存在索引:
+    private static final Map<ClassLoader, ComponentIndex> cache = new WeakHashMap<>();
+
+    // classpath根目录URI -> 该根目录下的组件类名:
+    private final Map<String, NavigableSet<String>> roots;
+
+    ComponentIndex(Map<String, NavigableSet<String>> roots) {
+        this.roots = roots;
+    }
+
+    /**
+     * 加载当前ClassLoader可见的组件索引，不存在时返回null
+     */
+    @Nullable
+    public static ComponentIndex load() {
+        ClassLoader cl = getContextClassLoader();
+        synchronized (cache) {
+            if (cache.containsKey(cl)) {
+                return cache.get(cl);
+            }
+            ComponentIndex index = doLoad(cl);
+            cache.put(cl, index);
+            return index;
+        }
+    }
+
+    static ComponentIndex doLoad(ClassLoader cl) {
+        Map<String, NavigableSet<String>> roots = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> en = cl.getResources(INDEX_LOCATION);
+            while (en.hasMoreElements()) {
+                URL url = en.nextElement();
+                logger.atDebug().log("load component index: {}", url);
+                String uri = url.toURI().toString();
+                NavigableSet<String> components = roots.computeIfAbsent(uri.substring(0, uri.length() - INDEX_LOCATION.length()), root -> new TreeSet<>());
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String name = line.strip();
+                        if (!name.isEmpty() && !name.startsWith("#")) {
+                            components.add(name);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+        return roots.isEmpty() ? null : new ComponentIndex(roots);
+    }
+
+    /**
+     * 带有索引的classpath根目录，格式与{@link org.demo.io.ResourceResolver}扫描时的根目录URI一致，例如"file:/path/to/classes/"或"jar:file:/path/to/x.jar!/"
+     */
+    public Set<String> getIndexedRoots() {
+        return this.roots.keySet();
+    }
+
+    public boolean isIndexed(String root) {
+        return this.roots.containsKey(root);
+    }
+
+    /**
+     * 返回所有带索引的根目录中，指定package及其子package下的组件类名
+     */
+    public List<String> getCandidateTypes(String basePackage) {
+        String prefix = basePackage + ".";
+        List<String> types = new ArrayList<>();
+        for (NavigableSet<String> components : this.roots.values()) {
+            // 索引有序，直接截取前缀区间:
+            types.addAll(components.subSet(prefix, true, prefix + Character.MAX_VALUE, false));
+        }
+        return types;
+    }
+
+    private static ClassLoader getContextClassLoader() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = ComponentIndex.class.getClassLoader();
+        }
+        return cl;
+    }
+}
@@ -0,0 +1,128 @@
+package org.demo.context.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 编译期生成组件索引的注解处理器。
+ * <p>
+ * 查找所有直接或间接(通过元注解，如@Configuration、@Controller、@RestController)标注了@Component的类，
+ * 将类名写入META-INF/demo.components，运行时由{@link ComponentIndex}读取，从而跳过classpath扫描。
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexer extends AbstractProcessor {
+
+    static final String COMPONENT_ANNOTATION = "org.demo.annotation.Component";
+
+    // 本次编译发现的组件:
+    private final Set<String> components = new TreeSet<>();
+    // 本次编译处理过的全部类型:
+    private final Set<String> processedTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        // 不声明处理任何注解，其他处理器仍可处理:
+        return false;
+    }
+
+    void collect(Element element) {
+        if (!(element instanceof TypeElement type)) {
+            return;
+        }
+        String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+        this.processedTypes.add(name);
+        // 只有普通类可以成为Bean，注解、接口、枚举和记录会在创建BeanDefinition时被跳过:
+        if (type.getKind() == ElementKind.CLASS && isComponent(type, new HashSet<>())) {
+            this.components.add(name);
+        }
+        // 递归处理嵌套类:
+        for (Element enclosed : type.getEnclosedElements()) {
+            collect(enclosed);
+        }
+    }
+
+    /**
+     * 与ClassUtils.findAnnotation()一致，递归查找元注解。
+     */
+    boolean isComponent(TypeElement type, Set<String> visited) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String annoName = annoType.getQualifiedName().toString();
+            if (annoName.equals(COMPONENT_ANNOTATION)) {
+                return true;
+            }
+            if (annoName.startsWith("java.lang.annotation.") || !visited.add(annoName)) {
+                continue;
+            }
+            if (isComponent(annoType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void writeIndex() {
+        // 增量编译时合并已有索引中仍然存在、且本次未重新编译的类:
+        Set<String> index = new TreeSet<>(this.components);
+        boolean existing = false;
+        try {
+            FileObject old = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(old.openReader(true))) {
+                existing = true;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String name = line.strip();
+                    if (name.isEmpty() || name.startsWith("#") || this.processedTypes.contains(name)) {
+                        continue;
+                    }
+                    if (processingEnv.getElementUtils().getTypeElement(name.replace('$', '.')) != null) {
+                        index.add(name);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 索引文件不存在:
+        }
+        if (index.isEmpty() && !existing) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (String name : index) {
+                    writer.write(name);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + ComponentIndex.INDEX_LOCATION + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.demo.io;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * 从字节码中读取的类信息，读取时不会加载类。
+ *
+ * @param className       类名，如org.example.Hello$Inner
+ * @param access          访问标志
+ * @param superClassName  父类名，java.lang.Object没有父类时为null
+ * @param interfaceNames  实现的接口
+ * @param annotationNames 类上的RuntimeVisible注解类型
+ */
+public record ClassMetadata(String className, int access, String superClassName, List<String> interfaceNames, List<String> annotationNames) {
+
+    // 字节码中定义的访问标志，java.lang.reflect.Modifier未公开:
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+
+    public boolean isInterface() {
+        return Modifier.isInterface(this.access);
+    }
+
+    public boolean isAnnotation() {
+        return (this.access & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum() {
+        return (this.access & ACC_ENUM) != 0;
+    }
+
+    public boolean isRecord() {
+        return "java.lang.Record".equals(this.superClassName);
+    }
+
+    public boolean isAbstract() {
+        return Modifier.isAbstract(this.access);
+    }
+}
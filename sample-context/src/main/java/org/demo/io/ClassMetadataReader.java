@@ -0,0 +1,252 @@
+package org.demo.io;
+
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 直接解析.class文件的头部和RuntimeVisibleAnnotations属性，在不加载类(不执行static初始化)的前提下判断类上的注解。
+ * <p>
+ * 扫描到的类直接读取{@link ResourceResolver}返回的内容，只有注解类型通过ClassLoader查找。
+ * <p>
+ * 注解类型本身的元注解同样通过字节码读取，结果按注解类型缓存，因此同一次扫描中每个注解类型只解析一次。
+ */
+public class ClassMetadataReader {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    static final int MAGIC = 0xCAFEBABE;
+
+    final ClassLoader classLoader;
+
+    // 注解类型的元数据缓存，Optional.empty()表示classpath中找不到:
+    final Map<String, Optional<ClassMetadata>> annotationCache = new ConcurrentHashMap<>();
+
+    // 注解类型是否直接或间接标注了目标注解，key为"注解类型->目标注解":
+    final Map<String, Boolean> metaAnnotationCache = new ConcurrentHashMap<>();
+
+    public ClassMetadataReader() {
+        this(getContextClassLoader());
+    }
+
+    /**
+     * 扫描可能在其他线程执行，因此ClassLoader需要在创建时确定
+     */
+    public ClassMetadataReader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 读取扫描到的.class资源
+     */
+    public ClassMetadata getMetadata(Resource resource) {
+        try {
+            return read(resource.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 通过ClassLoader读取类的字节码，不存在时返回null
+     */
+    @Nullable
+    public ClassMetadata getMetadata(String className) {
+        String path = className.replace('.', '/') + ".class";
+        try (InputStream input = this.classLoader.getResourceAsStream(path)) {
+            if (input == null) {
+                return null;
+            }
+            return read(input.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 类上是否直接标注了指定注解，或者通过元注解间接标注了指定注解
+     */
+    public boolean isAnnotated(ClassMetadata metadata, String annotationName) {
+        return isAnnotated(metadata, annotationName, new Search());
+    }
+
+    /**
+     * 一次元注解查找的状态。注解之间可能循环标注，已在查找中的注解被跳过时，其结果不能作为"未标注"缓存。
+     */
+    static final class Search {
+        final Set<String> visited = new HashSet<>();
+        // 因已访问而跳过的次数:
+        int skipped;
+    }
+
+    boolean isAnnotated(ClassMetadata metadata, String annotationName, Search search) {
+        for (String anno : metadata.annotationNames()) {
+            if (anno.equals(annotationName)) {
+                return true;
+            }
+        }
+        for (String anno : metadata.annotationNames()) {
+            // 与ClassUtils.findAnnotation()一致，忽略java.lang.annotation包中的注解:
+            if (anno.startsWith("java.lang.annotation.")) {
+                continue;
+            }
+            if (isMetaAnnotated(anno, annotationName, search)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isMetaAnnotated(String annotationType, String annotationName, Search search) {
+        String key = annotationType + "->" + annotationName;
+        Boolean cached = this.metaAnnotationCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (!search.visited.add(annotationType)) {
+            search.skipped++;
+            return false;
+        }
+        int skipped = search.skipped;
+        Optional<ClassMetadata> annoMetadata = this.annotationCache.computeIfAbsent(annotationType, name -> Optional.ofNullable(getMetadata(name)));
+        boolean result = annoMetadata.isPresent() && isAnnotated(annoMetadata.get(), annotationName, search);
+        // 找到时结果总是正确的；未找到时，只有没有跳过任何注解才是完整的结果:
+        if (result || search.skipped == skipped) {
+            this.metaAnnotationCache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * 解析字节码
+     */
+    public static ClassMetadata read(byte[] bytes) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Invalid class file.");
+        }
+        // minor_version, major_version:
+        input.skipBytes(4);
+        // 常量池，只保留Utf8和Class两种常量:
+        int count = input.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = input.readUnsignedByte();
+            switch (tag) {
+                // Utf8:
+                case 1 -> utf8[i] = input.readUTF();
+                // Class:
+                case 7 -> classes[i] = input.readUnsignedShort();
+                // String, MethodType, Module, Package:
+                case 8, 16, 19, 20 -> input.skipBytes(2);
+                // MethodHandle:
+                case 15 -> input.skipBytes(3);
+                // Integer, Float, Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic, InvokeDynamic:
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> input.skipBytes(4);
+                // Long, Double占用两个常量池位置:
+                case 5, 6 -> {
+                    input.skipBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("Invalid constant pool tag: " + tag);
+            }
+        }
+        int access = input.readUnsignedShort();
+        String className = toClassName(utf8[classes[input.readUnsignedShort()]]);
+        int superIndex = input.readUnsignedShort();
+        String superClassName = superIndex == 0 ? null : toClassName(utf8[classes[superIndex]]);
+        int interfaceCount = input.readUnsignedShort();
+        List<String> interfaceNames = new ArrayList<>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaceNames.add(toClassName(utf8[classes[input.readUnsignedShort()]]));
+        }
+        // 跳过fields和methods:
+        skipMembers(input);
+        skipMembers(input);
+        // 类的属性:
+        List<String> annotationNames = new ArrayList<>();
+        int attributeCount = input.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String name = utf8[input.readUnsignedShort()];
+            int length = input.readInt();
+            if ("RuntimeVisibleAnnotations".equals(name)) {
+                int annotationCount = input.readUnsignedShort();
+                for (int n = 0; n < annotationCount; n++) {
+                    annotationNames.add(readAnnotation(input, utf8));
+                }
+            } else {
+                input.skipBytes(length);
+            }
+        }
+        return new ClassMetadata(className, access, superClassName, List.copyOf(interfaceNames), List.copyOf(annotationNames));
+    }
+
+    static void skipMembers(DataInputStream input) throws IOException {
+        int count = input.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            // access_flags, name_index, descriptor_index:
+            input.skipBytes(6);
+            int attributeCount = input.readUnsignedShort();
+            for (int n = 0; n < attributeCount; n++) {
+                input.skipBytes(2);
+                input.skipBytes(input.readInt());
+            }
+        }
+    }
+
+    /**
+     * 读取一个annotation结构，返回注解类型
+     */
+    static String readAnnotation(DataInputStream input, String[] utf8) throws IOException {
+        String descriptor = utf8[input.readUnsignedShort()];
+        int pairs = input.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            input.skipBytes(2);
+            skipElementValue(input, utf8);
+        }
+        // "Lorg/example/Hello;" => "org.example.Hello":
+        return toClassName(descriptor.substring(1, descriptor.length() - 1));
+    }
+
+    static void skipElementValue(DataInputStream input, String[] utf8) throws IOException {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> input.skipBytes(2);
+            case 'e' -> input.skipBytes(4);
+            case '@' -> readAnnotation(input, utf8);
+            case '[' -> {
+                int count = input.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(input, utf8);
+                }
+            }
+            default -> throw new IOException("Invalid element value tag: " + (char) tag);
+        }
+    }
+
+    static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    static ClassLoader getContextClassLoader() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = ClassMetadataReader.class.getClassLoader();
+        }
+        return cl;
+    }
+}
@@ -0,0 +1,59 @@
+package org.demo.io;
+
+import java.util.Locale;
+
+/**
+ * 数据大小，例如"512KB"、"10MB"，不带单位时按字节计算，单位按1024进位。
+ */
+public record DataSize(long bytes) implements Comparable<DataSize> {
+
+    public static DataSize ofBytes(long bytes) {
+        return new DataSize(bytes);
+    }
+
+    public static DataSize ofKilobytes(long kilobytes) {
+        return new DataSize(Math.multiplyExact(kilobytes, 1024L));
+    }
+
+    public static DataSize ofMegabytes(long megabytes) {
+        return new DataSize(Math.multiplyExact(megabytes, 1024L * 1024));
+    }
+
+    public static DataSize ofGigabytes(long gigabytes) {
+        return new DataSize(Math.multiplyExact(gigabytes, 1024L * 1024 * 1024));
+    }
+
+    public static DataSize parse(String text) {
+        String s = text.trim().toUpperCase(Locale.ROOT);
+        int n = s.length();
+        while (n > 0 && !Character.isDigit(s.charAt(n - 1))) {
+            n--;
+        }
+        long amount = Long.parseLong(s.substring(0, n).trim());
+        return switch (s.substring(n).trim()) {
+            case "", "B" -> ofBytes(amount);
+            case "K", "KB" -> ofKilobytes(amount);
+            case "M", "MB" -> ofMegabytes(amount);
+            case "G", "GB" -> ofGigabytes(amount);
+            default -> throw new IllegalArgumentException("Invalid data size: " + text);
+        };
+    }
+
+    public long toKilobytes() {
+        return this.bytes / 1024;
+    }
+
+    public long toMegabytes() {
+        return this.bytes / (1024 * 1024);
+    }
+
+    @Override
+    public int compareTo(DataSize o) {
+        return Long.compare(this.bytes, o.bytes);
+    }
+
+    @Override
+    public String toString() {
+        return this.bytes + "B";
+    }
+}
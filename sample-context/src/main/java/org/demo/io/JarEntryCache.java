@@ -0,0 +1,107 @@
+package org.demo.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 缓存jar包的条目列表。
+ * <p>
+ * 每个jar包只通过ZipFile读取一次central directory，读取后立即关闭文件，不保留文件句柄。
+ * 缓存以jar路径为key，jar的修改时间和大小变化后重新读取，因此同一进程中反复创建ApplicationContext时不会重复解析jar包。
+ * jar包被删除或修改后旧的条目立即移除；ApplicationContext关闭时调用{@link #evictStale()}，最后一个ApplicationContext关闭时调用{@link #clear()}释放全部缓存。
+ */
+public class JarEntryCache {
+
+    static final Logger logger = LoggerFactory.getLogger(JarEntryCache.class);
+
+    static final Map<Path, JarEntries> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 返回jar包中指定目录下的所有文件条目(不含目录)，按名称排序
+     *
+     * @param jar    jar文件
+     * @param prefix 目录前缀，如"org/example/"
+     */
+    public static List<String> getEntryNames(Path jar, String prefix) throws IOException {
+        String[] names = getEntries(jar).names();
+        // 条目已排序，二分查找前缀区间:
+        int from = Arrays.binarySearch(names, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < names.length && names[to].startsWith(prefix)) {
+            to++;
+        }
+        return Collections.unmodifiableList(Arrays.asList(names).subList(from, to));
+    }
+
+    static JarEntries getEntries(Path jar) throws IOException {
+        Path key = jar.toAbsolutePath().normalize();
+        long lastModified;
+        long size;
+        try {
+            lastModified = Files.getLastModifiedTime(key).toMillis();
+            size = Files.size(key);
+        } catch (NoSuchFileException e) {
+            cache.remove(key);
+            throw e;
+        }
+        JarEntries entries = cache.get(key);
+        if (entries != null) {
+            if (entries.matches(lastModified, size)) {
+                return entries;
+            }
+            // jar已经变化，先移除旧的条目，读取失败时不会留下过期的缓存:
+            cache.remove(key, entries);
+        }
+        logger.atDebug().log("read jar entries: {}", key);
+        String[] names;
+        // 只读取central directory，读取完毕立即关闭:
+        try (ZipFile zip = new ZipFile(key.toFile())) {
+            names = zip.stream().filter(e -> !e.isDirectory()).map(ZipEntry::getName).sorted().toArray(String[]::new);
+        }
+        entries = new JarEntries(lastModified, size, names);
+        cache.put(key, entries);
+        return entries;
+    }
+
+    /**
+     * 移除已删除或已修改的jar包的缓存
+     */
+    public static void evictStale() {
+        cache.entrySet().removeIf(e -> {
+            try {
+                return !e.getValue().matches(Files.getLastModifiedTime(e.getKey()).toMillis(), Files.size(e.getKey()));
+            } catch (IOException ex) {
+                return true;
+            }
+        });
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        cache.clear();
+    }
+
+    record JarEntries(long lastModified, long size, String[] names) {
+
+        boolean matches(long lastModified, long size) {
+            return this.lastModified == lastModified && this.size == size;
+        }
+    }
+}
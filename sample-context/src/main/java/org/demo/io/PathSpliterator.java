@@ -0,0 +1,95 @@
+package org.demo.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 按目录拆分的Spliterator，用于并行遍历目录树，只返回普通文件。
+ * <p>
+ * 与Files.walk()不同，trySplit()会把尚未展开的子目录交给其他线程，因此一个classpath根目录内部也可以并行遍历。
+ */
+class PathSpliterator implements Spliterator<Path> {
+
+    // 尚未展开的目录:
+    final Deque<Path> dirs = new ArrayDeque<>();
+    // 已发现但尚未返回的文件:
+    final Deque<Path> files = new ArrayDeque<>();
+
+    PathSpliterator(Path root) {
+        if (Files.isDirectory(root)) {
+            this.dirs.add(root);
+        } else if (Files.isRegularFile(root)) {
+            this.files.add(root);
+        }
+    }
+
+    private PathSpliterator() {
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Path> action) {
+        while (this.files.isEmpty() && !this.dirs.isEmpty()) {
+            expand(this.dirs.poll());
+        }
+        Path file = this.files.poll();
+        if (file == null) {
+            return false;
+        }
+        action.accept(file);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Path> trySplit() {
+        // 只剩一个目录时先展开，以便拆分其子目录:
+        if (this.dirs.size() == 1 && this.files.isEmpty()) {
+            expand(this.dirs.poll());
+        }
+        PathSpliterator split = new PathSpliterator();
+        if (this.dirs.size() > 1) {
+            // 拆分一半目录:
+            for (int n = this.dirs.size() / 2; n > 0; n--) {
+                split.dirs.add(this.dirs.pollLast());
+            }
+        } else if (this.files.size() > 1) {
+            // 拆分一半文件，使mapper也能并行执行:
+            for (int n = this.files.size() / 2; n > 0; n--) {
+                split.files.add(this.files.pollLast());
+            }
+        } else {
+            return null;
+        }
+        return split;
+    }
+
+    void expand(Path dir) {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+            for (Path p : ds) {
+                if (Files.isDirectory(p)) {
+                    this.dirs.add(p);
+                } else if (Files.isRegularFile(p)) {
+                    this.files.add(p);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.dirs.isEmpty() ? this.files.size() : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL | DISTINCT;
+    }
+}
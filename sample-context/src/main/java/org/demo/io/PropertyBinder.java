@@ -0,0 +1,352 @@
+package org.demo.io;
+
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * 将前缀下的属性绑定到record或POJO，支持嵌套对象、List/Set、数组、Map、Optional、枚举以及PropertyResolver支持的所有类型(包括Duration和DataSize)。
+ * <p>
+ * 每个类型的绑定计划(构造方法、属性名、声明类型和set方法的MethodHandle)只计算一次并缓存在ClassValue中，
+ * 绑定时只按前缀查询排序后的属性名，一次遍历即可完成整棵配置树的绑定。
+ */
+public class PropertyBinder {
+
+    static final Logger logger = LoggerFactory.getLogger(PropertyBinder.class);
+
+    private static final ClassValue<BindPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected BindPlan computeValue(Class<?> type) {
+            return new BindPlan(type);
+        }
+    };
+
+    final PropertyResolver propertyResolver;
+
+    public PropertyBinder(PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+    }
+
+    /**
+     * 将prefix下的属性绑定到type的新实例，前缀下没有任何属性时返回所有属性均为默认值的实例
+     */
+    public <T> T bind(String prefix, Class<T> type) {
+        if (!isBean(type)) {
+            throw new IllegalArgumentException("Cannot bind properties to type: " + type.getName());
+        }
+        logger.atDebug().log("bind properties '{}' to {}.", prefix, type.getName());
+        return type.cast(PLANS.get(type).bind(this, prefix));
+    }
+
+    /**
+     * 按声明类型绑定一个值，属性不存在时返回null
+     */
+    @Nullable
+    Object bindValue(String key, Type type) {
+        Class<?> raw = rawType(type);
+        if (raw == Optional.class) {
+            return Optional.ofNullable(bindValue(key, typeArgument(type, 0)));
+        }
+        if (raw == Object.class || this.propertyResolver.isConvertible(raw)) {
+            return bindScalar(key, raw == Object.class ? String.class : raw);
+        }
+        if (raw.isArray()) {
+            Collection<Object> list = bindCollection(key, raw.getComponentType(), new ArrayList<>());
+            if (list == null) {
+                return null;
+            }
+            Object array = Array.newInstance(raw.getComponentType(), list.size());
+            int i = 0;
+            for (Object item : list) {
+                Array.set(array, i++, item);
+            }
+            return array;
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            return bindCollection(key, typeArgument(type, 0), newCollection(raw));
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return bindMap(key, typeArgument(type, 0), typeArgument(type, 1));
+        }
+        // 嵌套对象只在存在下级属性时创建:
+        if (this.propertyResolver.getPropertyNames(key + ".").isEmpty()) {
+            return null;
+        }
+        return PLANS.get(raw).bind(this, key);
+    }
+
+    @Nullable
+    Object bindScalar(String key, Class<?> type) {
+        try {
+            return this.propertyResolver.getProperty(key, type);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format("Could not bind property '%s' to type %s.", key, type.getName()), e);
+        }
+    }
+
+    Object convert(String key, Class<?> type, String value) {
+        try {
+            return this.propertyResolver.convert(type, value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format("Could not bind property '%s' to type %s.", key, type.getName()), e);
+        }
+    }
+
+    /**
+     * 绑定"a,b,c"格式的属性，或"key[0]"、"key[1].name"格式的多个属性
+     */
+    @Nullable
+    Collection<Object> bindCollection(String key, Type elementType, Collection<Object> target) {
+        String value = this.propertyResolver.getProperty(key);
+        if (value != null) {
+            Class<?> raw = rawType(elementType);
+            for (String item : value.split(",")) {
+                item = item.trim();
+                if (!item.isEmpty()) {
+                    target.add(convert(key, raw == Object.class ? String.class : raw, item));
+                }
+            }
+            return target;
+        }
+        NavigableSet<String> names = this.propertyResolver.getPropertyNames(key + "[");
+        if (names.isEmpty()) {
+            return null;
+        }
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (String name : names) {
+            int end = name.indexOf(']', key.length() + 1);
+            if (end > 0) {
+                try {
+                    indexes.add(Integer.parseInt(name.substring(key.length() + 1, end)));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(String.format("Invalid index of property '%s'.", name), e);
+                }
+            }
+        }
+        for (int index : indexes) {
+            Object item = bindValue(key + "[" + index + "]", elementType);
+            if (item != null) {
+                target.add(item);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 绑定"key.name"格式的属性，值为简单类型时name可以包含'.'，否则name是下一级的第一段
+     */
+    @Nullable
+    Map<Object, Object> bindMap(String key, Type keyType, Type valueType) {
+        String prefix = key + ".";
+        NavigableSet<String> names = this.propertyResolver.getPropertyNames(prefix);
+        if (names.isEmpty()) {
+            return null;
+        }
+        Class<?> keyRaw = rawType(keyType);
+        Class<?> valueRaw = rawType(valueType);
+        boolean scalar = valueRaw == Object.class || this.propertyResolver.isConvertible(valueRaw);
+        Map<Object, Object> map = new LinkedHashMap<>();
+        Set<String> bound = new HashSet<>();
+        for (String name : names) {
+            String rest = name.substring(prefix.length());
+            String mapKey = scalar ? rest : firstSegment(rest);
+            if (bound.add(mapKey)) {
+                Object value = bindValue(prefix + mapKey, valueType);
+                if (value != null) {
+                    map.put(keyRaw == Object.class || keyRaw == String.class ? mapKey : convert(name, keyRaw, mapKey), value);
+                }
+            }
+        }
+        return map;
+    }
+
+    static String firstSegment(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '.' || c == '[') {
+                return name.substring(0, i);
+            }
+        }
+        return name;
+    }
+
+    static Collection<Object> newCollection(Class<?> type) {
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>();
+        }
+        if (type.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet<>();
+        }
+        if (type.isAssignableFrom(TreeSet.class)) {
+            return new TreeSet<>();
+        }
+        throw new IllegalArgumentException("Unsupported collection type: " + type.getName());
+    }
+
+    boolean isBean(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())
+                && !this.propertyResolver.isConvertible(type);
+    }
+
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class<?> c) {
+            return c;
+        }
+        if (type instanceof ParameterizedType pt && pt.getRawType() instanceof Class<?> c) {
+            return c;
+        }
+        if (type instanceof WildcardType wt) {
+            return rawType(wt.getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType pt) {
+            return pt.getActualTypeArguments()[index];
+        }
+        return Object.class;
+    }
+
+    /**
+     * maximumPoolSize -> maximum-pool-size
+     */
+    static String toKebabCase(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    sb.append('-');
+                }
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 一个类型的绑定计划：record通过规范构造方法一次性传入所有属性，POJO通过无参构造方法创建后调用set方法或直接赋值字段
+     */
+    static final class BindPlan {
+
+        private static final MethodType RECORD_TYPE = MethodType.methodType(Object.class, Object[].class);
+        private static final MethodType POJO_TYPE = MethodType.methodType(Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        final Class<?> type;
+        final boolean record;
+        final MethodHandle constructor;
+        final List<BindProperty> properties;
+
+        BindPlan(Class<?> type) {
+            this.type = type;
+            this.record = type.isRecord();
+            List<BindProperty> list = new ArrayList<>();
+            try {
+                if (this.record) {
+                    RecordComponent[] components = type.getRecordComponents();
+                    Class<?>[] types = new Class<?>[components.length];
+                    for (int i = 0; i < components.length; i++) {
+                        types[i] = components[i].getType();
+                        list.add(new BindProperty(components[i].getName(), components[i].getGenericType(), components[i].getType(), null));
+                    }
+                    Constructor<?> ctor = type.getDeclaredConstructor(types);
+                    ctor.setAccessible(true);
+                    this.constructor = MethodHandles.lookup().unreflectConstructor(ctor).asSpreader(Object[].class, types.length).asType(RECORD_TYPE);
+                } else {
+                    Constructor<?> ctor = type.getDeclaredConstructor();
+                    ctor.setAccessible(true);
+                    this.constructor = MethodHandles.lookup().unreflectConstructor(ctor).asType(POJO_TYPE);
+                    Set<String> names = new HashSet<>();
+                    // 优先使用public的set方法:
+                    for (Method m : type.getMethods()) {
+                        String name = m.getName();
+                        if (name.length() > 3 && name.startsWith("set") && m.getParameterCount() == 1 && !Modifier.isStatic(m.getModifiers())
+                                && names.add(Character.toLowerCase(name.charAt(3)) + name.substring(4))) {
+                            MethodHandle setter = MethodHandles.lookup().unreflect(m).asType(SETTER_TYPE);
+                            list.add(new BindProperty(Character.toLowerCase(name.charAt(3)) + name.substring(4), m.getGenericParameterTypes()[0],
+                                    m.getParameterTypes()[0], setter));
+                        }
+                    }
+                    // 没有set方法的字段直接赋值:
+                    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                        for (Field f : c.getDeclaredFields()) {
+                            int mod = f.getModifiers();
+                            if (!Modifier.isStatic(mod) && !Modifier.isFinal(mod) && !Modifier.isTransient(mod) && !f.isSynthetic() && names.add(f.getName())) {
+                                f.setAccessible(true);
+                                list.add(new BindProperty(f.getName(), f.getGenericType(), f.getType(), MethodHandles.lookup().unreflectSetter(f).asType(SETTER_TYPE)));
+                            }
+                        }
+                    }
+                }
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Cannot bind properties to type without default constructor: " + type.getName(), e);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot bind properties to type: " + type.getName(), e);
+            }
+            this.properties = List.copyOf(list);
+        }
+
+        Object bind(PropertyBinder binder, String prefix) {
+            try {
+                if (this.record) {
+                    Object[] args = new Object[this.properties.size()];
+                    for (int i = 0; i < args.length; i++) {
+                        BindProperty property = this.properties.get(i);
+                        Object value = property.bind(binder, prefix);
+                        args[i] = value == null ? property.defaultValue() : value;
+                    }
+                    return (Object) this.constructor.invokeExact(args);
+                }
+                Object bean = (Object) this.constructor.invokeExact();
+                for (BindProperty property : this.properties) {
+                    Object value = property.bind(binder, prefix);
+                    // 属性不存在时保留字段的初始值:
+                    if (value != null) {
+                        property.setter().invokeExact(bean, value);
+                    }
+                }
+                return bean;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException(String.format("Could not bind properties '%s' to type %s.", prefix, this.type.getName()), e);
+            }
+        }
+    }
+
+    /**
+     * 一个属性：名称、kebab-case的属性名、声明类型和POJO的set方法
+     */
+    record BindProperty(String name, String key, Type type, Class<?> rawType, @Nullable MethodHandle setter) {
+
+        BindProperty(String name, Type type, Class<?> rawType, @Nullable MethodHandle setter) {
+            this(name, toKebabCase(name), type, rawType, setter);
+        }
+
+        @Nullable
+        Object bind(PropertyBinder binder, String prefix) {
+            String p = prefix.isEmpty() ? "" : prefix + ".";
+            Object value = binder.bindValue(p + this.key, this.type);
+            if (value == null && !this.key.equals(this.name)) {
+                // 也允许与字段名相同的属性名:
+                value = binder.bindValue(p + this.name, this.type);
+            }
+            return value;
+        }
+
+        @Nullable
+        Object defaultValue() {
+            return this.rawType.isPrimitive() ? Array.get(Array.newInstance(this.rawType, 1), 0) : null;
+        }
+    }
+}
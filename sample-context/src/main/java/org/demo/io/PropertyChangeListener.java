@@ -0,0 +1,18 @@
+package org.demo.io;
+
+import java.util.Set;
+
+/**
+ * 重新加载配置后，注册的前缀下有属性变化时回调，用于在不重启的情况下调整连接池大小、超时时间等设置。
+ * <p>
+ * 回调在重新加载配置的线程中执行，此时{@link PropertyResolver}已经返回新的属性值。
+ */
+@FunctionalInterface
+public interface PropertyChangeListener {
+
+    /**
+     * @param propertyResolver 属性解析器
+     * @param changedKeys      前缀下新增、删除或修改的属性名
+     */
+    void onChange(PropertyResolver propertyResolver, Set<String> changedKeys);
+}
@@ -0,0 +1,156 @@
+package org.demo.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译后的属性表达式，例如"jdbc:mysql://${db.host:localhost}:${db.port:${DB_PORT:3306}}/demo"。
+ * <p>
+ * 表达式由普通文本和${key:default}占位符组成，默认值本身也是表达式，因此可以嵌套。编译结果不可变，可以在多个线程间共享。
+ */
+sealed interface PropertyExpr permits PropertyExpr.Literal, PropertyExpr.Placeholder, PropertyExpr.Composite {
+
+    /**
+     * 计算表达式的值
+     *
+     * @param resolving 正在解析的属性名，用于检测循环引用
+     */
+    String evaluate(PropertySnapshot snapshot, Set<String> resolving);
+
+    /**
+     * 普通文本
+     */
+    record Literal(String text) implements PropertyExpr {
+
+        @Override
+        public String evaluate(PropertySnapshot snapshot, Set<String> resolving) {
+            return this.text;
+        }
+    }
+
+    /**
+     * ${key}或${key:default}，属性不存在且没有默认值时抛出NullPointerException
+     */
+    record Placeholder(String key, @Nullable PropertyExpr defaultExpr) implements PropertyExpr {
+
+        @Override
+        public String evaluate(PropertySnapshot snapshot, Set<String> resolving) {
+            String value = snapshot.resolveKey(this.key, resolving);
+            if (value != null) {
+                return value;
+            }
+            if (this.defaultExpr != null) {
+                return this.defaultExpr.evaluate(snapshot, resolving);
+            }
+            throw new NullPointerException("Property '" + this.key + "' not found.");
+        }
+    }
+
+    /**
+     * 普通文本和占位符的组合，例如"${app.title} ${app.version}"
+     */
+    record Composite(List<PropertyExpr> parts) implements PropertyExpr {
+
+        @Override
+        public String evaluate(PropertySnapshot snapshot, Set<String> resolving) {
+            StringBuilder sb = new StringBuilder();
+            for (PropertyExpr part : this.parts) {
+                sb.append(part.evaluate(snapshot, resolving));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 编译表达式。没有闭合的"${"按普通文本处理，与以前"不是完整的${...}就原样返回"的行为保持兼容。
+     */
+    static PropertyExpr compile(String expr) {
+        List<PropertyExpr> parts = new ArrayList<>();
+        parseSequence(expr, 0, false, parts);
+        return of(parts);
+    }
+
+    private static PropertyExpr of(List<PropertyExpr> parts) {
+        return switch (parts.size()) {
+            case 0 -> new Literal("");
+            case 1 -> parts.get(0);
+            default -> new Composite(List.copyOf(parts));
+        };
+    }
+
+    /**
+     * 解析从start开始的文本和占位符。inDefault为true时解析占位符的默认值，遇到匹配的'}'结束并返回其位置，没有闭合时返回-1。
+     */
+    private static int parseSequence(String s, int start, boolean inDefault, List<PropertyExpr> parts) {
+        StringBuilder text = new StringBuilder();
+        // 默认值中不属于占位符的'{'，例如${json:{}}:
+        int braces = 0;
+        int i = start;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '$' && i + 1 < s.length() && s.charAt(i + 1) == '{') {
+                int end = parsePlaceholder(s, i, parts, text);
+                if (end < 0) {
+                    // 没有闭合，剩余部分都是普通文本:
+                    text.append(s, i, s.length());
+                    i = s.length();
+                    break;
+                }
+                i = end + 1;
+            } else if (c == '{' && inDefault) {
+                braces++;
+                text.append(c);
+                i++;
+            } else if (c == '}' && inDefault) {
+                if (braces == 0) {
+                    flush(text, parts);
+                    return i;
+                }
+                braces--;
+                text.append(c);
+                i++;
+            } else {
+                text.append(c);
+                i++;
+            }
+        }
+        flush(text, parts);
+        return inDefault ? -1 : i;
+    }
+
+    /**
+     * 解析从start开始的${key:default}，成功时将之前的文本和占位符加入parts并返回'}'的位置，没有闭合时不修改parts并返回-1
+     */
+    private static int parsePlaceholder(String s, int start, List<PropertyExpr> parts, StringBuilder text) {
+        int keyStart = start + 2;
+        for (int i = keyStart; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '}') {
+                flush(text, parts);
+                parts.add(new Placeholder(s.substring(keyStart, i), null));
+                return i;
+            }
+            if (c == ':') {
+                List<PropertyExpr> defaultParts = new ArrayList<>();
+                int end = parseSequence(s, i + 1, true, defaultParts);
+                if (end < 0) {
+                    return -1;
+                }
+                flush(text, parts);
+                parts.add(new Placeholder(s.substring(keyStart, i), of(defaultParts)));
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    private static void flush(StringBuilder text, List<PropertyExpr> parts) {
+        if (!text.isEmpty()) {
+            parts.add(new Literal(text.toString()));
+            text.setLength(0);
+        }
+    }
+}
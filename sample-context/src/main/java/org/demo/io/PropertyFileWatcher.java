@@ -0,0 +1,110 @@
+package org.demo.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * 监视配置文件，文件修改后重新解析并调用{@link PropertyResolver#reload(Map)}替换属性快照。
+ * <p>
+ * 通过WatchService监视文件所在目录，编辑器保存文件时通常产生多个事件，等待事件平息后只重新加载一次。
+ * 文件读取或解析失败时保留原来的属性。
+ */
+public class PropertyFileWatcher implements AutoCloseable {
+
+    /**
+     * 最后一个事件之后等待的时间
+     */
+    static final long DEBOUNCE_MILLIS = 100;
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final PropertyResolver propertyResolver;
+    private final Path file;
+    private final InputStreamCallback<Map<String, String>> loader;
+    private final WatchService watchService;
+    private final Thread thread;
+    private volatile boolean closed = false;
+
+    /**
+     * @param propertyResolver 需要重新加载的属性解析器
+     * @param file             配置文件
+     * @param loader           将文件内容解析为拍平的属性
+     */
+    public PropertyFileWatcher(PropertyResolver propertyResolver, Path file, InputStreamCallback<Map<String, String>> loader) {
+        this.propertyResolver = propertyResolver;
+        this.file = file.toAbsolutePath().normalize();
+        this.loader = loader;
+        try {
+            this.watchService = this.file.getFileSystem().newWatchService();
+            this.file.getParent().register(this.watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot watch config file: " + this.file, e);
+        }
+        this.thread = new Thread(this::watch, "property-file-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        logger.info("watching config file: {}", this.file);
+    }
+
+    void watch() {
+        try {
+            while (!this.closed) {
+                WatchKey key = this.watchService.take();
+                boolean changed = isChanged(key);
+                if (changed) {
+                    // 合并连续的事件:
+                    while ((key = this.watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        isChanged(key);
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 关闭
+        }
+    }
+
+    boolean isChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || this.file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * 重新读取配置文件并替换属性快照，成功时返回true
+     */
+    public boolean reload() {
+        try (InputStream input = Files.newInputStream(this.file)) {
+            Map<String, String> properties = this.loader.doWithInputStream(input);
+            this.propertyResolver.reload(properties);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Reload config file {} failed, keep current properties.", this.file, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            logger.warn("Close watch service failed.", e);
+        }
+    }
+}
@@ -4,38 +4,147 @@ import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class PropertyResolver {
     Logger logger = LoggerFactory.getLogger(getClass());
 
-    Map<String, String> properties = new HashMap<>();
     Map<Class<?>, Function<String, Object>> converters = new HashMap<>();
 
+    // 表达式与属性值无关，只需编译一次，重新加载配置后仍然有效:
+    final Map<String, PropertyExpr> expressions = new ConcurrentHashMap<>();
+
+    // 当前的属性快照，重新加载时整体替换:
+    volatile PropertySnapshot snapshot;
+
+    // 属性变化时的回调:
+    final List<ChangeListenerRegistration> changeListeners = new CopyOnWriteArrayList<>();
+
+    record ChangeListenerRegistration(String prefix, PropertyChangeListener listener) {
+    }
+
     public PropertyResolver(Properties props) {
-        // 将系统环境变量放入属性map中
-        this.properties.putAll(System.getenv());
-        // 获取配置文件中的属性名集合
-        Set<String> names = props.stringPropertyNames();
-        // 将配置文件中的属性名和属性值放入属性map中
-        for (String name : names) {
-            this.properties.put(name, props.getProperty(name));
+        this(toMap(props));
+    }
+
+    /**
+     * 直接使用已经拍平的配置，例如{@link org.demo.utils.YamlUtils#loadYamlInto}的结果，避免再复制一次Properties。
+     * <p>
+     * 传入的Map由PropertyResolver接管，调用方不应再修改。
+     */
+    public PropertyResolver(Map<String, String> properties) {
+        this.snapshot = new PropertySnapshot(this, loadProperties(properties));
+        // 注册转换器
+        this.registerConverters();
+    }
+
+    static Map<String, String> toMap(Properties props) {
+        Map<String, String> map = new HashMap<>();
+        // 获取配置文件中的属性名集合，将属性名和属性值放入map中
+        for (String name : props.stringPropertyNames()) {
+            map.put(name, props.getProperty(name));
         }
+        return map;
+    }
+
+    Map<String, String> loadProperties(Map<String, String> properties) {
+        // 将系统环境变量放入属性map中，配置文件中的属性优先
+        System.getenv().forEach(properties::putIfAbsent);
         if (logger.isDebugEnabled()) {
             // 获取属性map中的所有键
-            List<String> keys = new ArrayList<>(this.properties.keySet());
+            List<String> keys = new ArrayList<>(properties.keySet());
             // 将键列表按字典序进行排序
             Collections.sort(keys);
             // 输出排序后的属性名和属性值
             for (String key : keys) {
-                logger.debug("PropertyResolver: {} = {}", key, this.properties.get(key));
+                logger.debug("PropertyResolver: {} = {}", key, properties.get(key));
             }
         }
-        // 注册转换器
-        this.registerConverters();
+        return properties;
+    }
+
+    /**
+     * 用新的配置替换全部属性，返回新增、删除或修改的属性名。原始值不变、但引用的属性变化导致解析结果变化的属性(例如app.url=${app.host})同样视为修改。
+     * <p>
+     * 新的属性快照创建完成后一次性替换，正在进行的查询仍然读取旧的快照；替换后在当前线程中调用前缀匹配的{@link PropertyChangeListener}。
+     * 已经注入的@Value和@ConfigurationProperties不会改变，需要调整的Bean应注册回调。
+     */
+    public Set<String> reload(Properties props) {
+        return reload(toMap(props));
+    }
+
+    /**
+     * 用新的配置替换全部属性，传入的Map由PropertyResolver接管。
+     *
+     * @see #reload(Properties)
+     */
+    public synchronized Set<String> reload(Map<String, String> properties) {
+        PropertySnapshot previous = this.snapshot;
+        PropertySnapshot next = new PropertySnapshot(this, loadProperties(properties));
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, String> e : next.properties.entrySet()) {
+            String key = e.getKey();
+            String value = e.getValue();
+            if (!value.equals(previous.properties.get(key))) {
+                changed.add(key);
+            } else if (value.contains("${") && !Objects.equals(resolveQuietly(previous, key), resolveQuietly(next, key))) {
+                // 原始值相同，比较解析占位符后的值:
+                changed.add(key);
+            }
+        }
+        for (String key : previous.properties.keySet()) {
+            if (!next.properties.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        if (changed.isEmpty()) {
+            // 没有变化时保留原来的快照和解析缓存:
+            return changed;
+        }
+        this.snapshot = next;
+        logger.info("reload properties: {} changed.", changed.size());
+        for (ChangeListenerRegistration registration : this.changeListeners) {
+            Set<String> keys = changed.stream().filter(key -> key.startsWith(registration.prefix())).collect(Collectors.toCollection(TreeSet::new));
+            if (!keys.isEmpty()) {
+                try {
+                    registration.listener().onChange(this, Collections.unmodifiableSet(keys));
+                } catch (RuntimeException e) {
+                    logger.warn("Property change listener failed for properties {}.", keys, e);
+                }
+            }
+        }
+        return changed;
+    }
+
+    // 解析失败(例如引用的属性不存在)时返回null:
+    @Nullable
+    String resolveQuietly(PropertySnapshot snapshot, String key) {
+        try {
+            return snapshot.getProperty(key);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 注册属性变化的回调，prefix为空时任意属性变化都会回调
+     */
+    public void addChangeListener(String prefix, PropertyChangeListener listener) {
+        this.changeListeners.add(new ChangeListenerRegistration(prefix, listener));
+    }
+
+    public void removeChangeListener(PropertyChangeListener listener) {
+        this.changeListeners.removeIf(registration -> registration.listener() == listener);
     }
+
     private void registerConverters() {
         // 注册字符串类型转换器
         converters.put(String.class, s -> s);
@@ -67,54 +176,58 @@ public class PropertyResolver {
         converters.put(ZonedDateTime.class, ZonedDateTime::parse);
         converters.put(Duration.class, Duration::parse);
         converters.put(ZoneId.class, ZoneId::of);
+        converters.put(DataSize.class, DataSize::parse);
+    }
+
+    /**
+     * 所有属性(含环境变量)的SHA-256指纹，属性完全相同的PropertyResolver指纹相同
+     */
+    public String getFingerprint() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Map.Entry<String, String> e : new TreeMap<>(this.snapshot.properties).entrySet()) {
+            digest.update(e.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '=');
+            digest.update(e.getValue().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
     public boolean containsProperty(String key) {
-        return this.properties.containsKey(key);
+        return this.snapshot.properties.containsKey(key);
+    }
+
+    /**
+     * 以prefix开头的所有属性名，按字典序排列
+     */
+    public NavigableSet<String> getPropertyNames(String prefix) {
+        return this.snapshot.getPropertyNames(prefix);
     }
 
     @Nullable
     public String getProperty(String key) {
-        // 解析${abc.xyz:defaultValue}:
-        PropertyExpr keyExpr = parsePropertyExpr(key);
-        if (keyExpr != null) {
-            if (keyExpr.defaultValue() != null) {
-                // 带默认值查询:
-                return getProperty(keyExpr.key(), keyExpr.defaultValue());
-            } else {
-                // 不带默认值查询:
-                return getRequiredProperty(keyExpr.key());
-            }
-        }
-        // 普通key查询:
-        String value = this.properties.get(key);
-        if (value != null) {
-            return parseValue(value);
-        }
-        return value;
+        return this.snapshot.getProperty(key);
     }
 
     public String getProperty(String key, String defaultValue) {
-        String value = getProperty(key);
-        return value == null ? parseValue(defaultValue) : value;
+        PropertySnapshot snapshot = this.snapshot;
+        String value = snapshot.getProperty(key);
+        return value == null ? snapshot.parseValue(defaultValue) : value;
     }
 
     @Nullable
     public <T> T getProperty(String key, Class<T> targetType) {
-        String value = getProperty(key);
-        if (value == null) {
-            return null;
-        }
-        // 转换为指定类型:
-        return convert(targetType, value);
+        return this.snapshot.getProperty(key, targetType);
     }
 
     public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
-        String value = getProperty(key);
-        if (value == null) {
-            return defaultValue;
-        }
-        return convert(targetType, value);
+        T value = this.snapshot.getProperty(key, targetType);
+        return value == null ? defaultValue : value;
     }
 
     public String getRequiredProperty(String key) {
@@ -128,42 +241,30 @@ public class PropertyResolver {
     }
 
     // 转换到指定Class类型:
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     <T> T convert(Class<?> clazz, String value) {
         Function<String, Object> fn = this.converters.get(clazz);
+        if (fn == null && clazz.isEnum()) {
+            // 枚举忽略大小写，允许kebab-case，例如"read-only"对应READ_ONLY:
+            return (T) Enum.valueOf((Class<? extends Enum>) clazz, value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
         if (fn == null) {
             throw new IllegalArgumentException("Unsupported value type: " + clazz.getName());
         }
         return (T) fn.apply(value);
     }
 
-    String parseValue(String value) {
-        PropertyExpr expr = parsePropertyExpr(value);
-        if (expr == null) {
-            return value;
-        }
-        if (expr.defaultValue() != null) {
-            return getProperty(expr.key(), expr.defaultValue());
-        } else {
-            return getRequiredProperty(expr.key());
-        }
+    boolean isConvertible(Class<?> clazz) {
+        return this.converters.containsKey(clazz) || clazz.isEnum();
     }
 
-    PropertyExpr parsePropertyExpr(String key) {
-        if (key.startsWith("${") && key.endsWith("}")) {
-            // 是否存在defaultValue?
-            int n = key.indexOf(':');
-            if (n == (-1)) {
-                // 没有defaultValue: ${key}
-                String k = key.substring(2, key.length() - 1);
-                return new PropertyExpr(k, null);
-            } else {
-                // 有defaultValue: ${key:default}
-                String k = key.substring(2, n);
-                return new PropertyExpr(k, key.substring(n + 1, key.length() - 1));
-            }
+    PropertyExpr compile(String expr) {
+        PropertyExpr compiled = this.expressions.get(expr);
+        if (compiled == null) {
+            compiled = PropertyExpr.compile(expr);
+            this.expressions.put(expr, compiled);
         }
-        return null;
+        return compiled;
     }
 
     String notEmpty(String key) {
@@ -174,5 +275,3 @@ public class PropertyResolver {
     }
 }
 
-record PropertyExpr(String key, String defaultValue) {
-}
@@ -0,0 +1,101 @@
+package org.demo.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 某一时刻的全部属性及其解析缓存。
+ * <p>
+ * 快照创建后不再修改，重新加载配置时{@link PropertyResolver}整体替换为新的快照，因此读取属性时不需要加锁，
+ * 解析和类型转换的结果也可以一直缓存到快照被替换为止。一次查询只读取一个快照，不会混合新旧两份配置。
+ */
+final class PropertySnapshot {
+
+    final PropertyResolver resolver;
+
+    // 属性名 -> 属性值(未解析占位符):
+    final Map<String, String> properties;
+    // key或表达式 -> 解析后的值，Optional.empty()表示属性不存在:
+    final Map<String, Optional<String>> resolvedValues = new ConcurrentHashMap<>();
+    // 类型 -> key或表达式 -> 转换后的值:
+    final Map<Class<?>, Map<String, Object>> typedValues = new ConcurrentHashMap<>();
+    // 排序后的属性名，第一次按前缀查询时创建:
+    volatile NavigableSet<String> sortedNames;
+
+    PropertySnapshot(PropertyResolver resolver, Map<String, String> properties) {
+        this.resolver = resolver;
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    @Nullable
+    String getProperty(String key) {
+        Optional<String> cached = this.resolvedValues.get(key);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        if (!key.contains("${")) {
+            // 普通key查询:
+            return resolveKey(key, new LinkedHashSet<>());
+        }
+        // 解析${abc.xyz:defaultValue}或包含占位符的文本:
+        String value = this.resolver.compile(key).evaluate(this, new LinkedHashSet<>());
+        this.resolvedValues.put(key, Optional.of(value));
+        return value;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    <T> T getProperty(String key, Class<T> targetType) {
+        Map<String, Object> values = this.typedValues.computeIfAbsent(targetType, type -> new ConcurrentHashMap<>());
+        Object cached = values.get(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        String value = getProperty(key);
+        if (value == null) {
+            return null;
+        }
+        // 转换为指定类型:
+        T converted = this.resolver.convert(targetType, value);
+        if (converted != null) {
+            values.put(key, converted);
+        }
+        return converted;
+    }
+
+    /**
+     * 查询普通key，属性值中的占位符会被解析，结果被缓存
+     */
+    @Nullable
+    String resolveKey(String key, Set<String> resolving) {
+        Optional<String> cached = this.resolvedValues.get(key);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        String value = this.properties.get(key);
+        if (value != null && value.contains("${")) {
+            if (!resolving.add(key)) {
+                throw new IllegalArgumentException("Circular placeholder reference: " + String.join(" -> ", resolving) + " -> " + key);
+            }
+            value = this.resolver.compile(value).evaluate(this, resolving);
+            resolving.remove(key);
+        }
+        this.resolvedValues.put(key, Optional.ofNullable(value));
+        return value;
+    }
+
+    String parseValue(String value) {
+        return value.contains("${") ? this.resolver.compile(value).evaluate(this, new LinkedHashSet<>()) : value;
+    }
+
+    NavigableSet<String> getPropertyNames(String prefix) {
+        NavigableSet<String> names = this.sortedNames;
+        if (names == null) {
+            names = Collections.unmodifiableNavigableSet(new TreeSet<>(this.properties.keySet()));
+            this.sortedNames = names;
+        }
+        return prefix.isEmpty() ? names : names.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+}
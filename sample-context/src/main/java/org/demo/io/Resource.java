@@ -1,5 +1,33 @@
 package org.demo.io;
 
+import java.io.IOException;
 
-public record Resource(String path, String name) {
+/**
+ * 扫描到的资源。content由{@link ResourceResolver}提供，在扫描返回的Stream关闭前可以读取资源内容，不需要再通过ClassLoader查找。
+ */
+public record Resource(String path, String name, Content content) {
+
+    public Resource(String path, String name) {
+        this(path, name, null);
+    }
+
+    /**
+     * 读取资源内容，扫描返回的Stream关闭后不再有效
+     */
+    public byte[] readAllBytes() throws IOException {
+        if (this.content == null) {
+            throw new IOException("Content is not available: " + this);
+        }
+        return this.content.read();
+    }
+
+    @Override
+    public String toString() {
+        return "Resource[path=" + this.path + ", name=" + this.name + "]";
+    }
+
+    @FunctionalInterface
+    public interface Content {
+        byte[] read() throws IOException;
+    }
 }
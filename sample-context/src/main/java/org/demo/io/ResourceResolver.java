@@ -3,37 +3,76 @@ package org.demo.io;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public class ResourceResolver {
     Logger logger = LoggerFactory.getLogger(getClass());
 
     String basePackage;
 
+    // 跳过的classpath根目录，例如已经有组件索引的根目录:
+    Predicate<String> skipRoot;
+
     public ResourceResolver(String basePackage) {
+        this(basePackage, root -> false);
+    }
+
+    /**
+     * skipRoot的参数为classpath根目录的URI，例如"file:/path/to/classes/"或"jar:file:/path/to/x.jar!/"
+     */
+    public ResourceResolver(String basePackage, Predicate<String> skipRoot) {
         this.basePackage = basePackage;
+        this.skipRoot = skipRoot;
     }
 
     public <R> List<R> scan(Function<Resource, R> mapper) {
+        try (Stream<R> stream = stream(mapper)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 以并行Stream返回扫描结果，mapper返回null的资源被忽略。
+     * <p>
+     * 各个classpath根目录以及目录内的子目录由ForkJoinPool并行遍历，mapper同样并行执行，因此mapper必须是线程安全的。
+     * mapper中可以通过{@link Resource#readAllBytes()}读取资源内容，返回的Stream需要关闭。
+     */
+    public <R> Stream<R> stream(Function<Resource, R> mapper) {
+        return resources().map(mapper).filter(Objects::nonNull);
+    }
+
+    /**
+     * 以并行Stream返回basePackage下的所有资源
+     */
+    public Stream<Resource> resources() {
         String basePackagePath = this.basePackage.replace(".", "/");
         String path = basePackagePath;
         try {
-            List<R> collector = new ArrayList<>();
-            scan0(basePackagePath, path, collector, mapper);
-            return collector;
+            return scan0(basePackagePath, path).parallel();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         } catch (URISyntaxException e) {
@@ -41,8 +80,9 @@ public class ResourceResolver {
         }
     }
 
-    <R> void scan0(String basePackagePath, String path, List<R> collector, Function<Resource, R> mapper) throws IOException, URISyntaxException {
+    Stream<Resource> scan0(String basePackagePath, String path) throws IOException, URISyntaxException {
         logger.atDebug().log("scan path: {}", path);
+        Stream<Resource> resources = Stream.empty();
         // 通过ClassLoader获取URL列表:
         Enumeration<URL> en = getContextClassLoader().getResources(path);
         while (en.hasMoreElements()) {
@@ -50,17 +90,31 @@ public class ResourceResolver {
             URI uri = url.toURI();
             String uriStr = removeTrailingSlash(uri.toString());
             String uriBaseStr = uriStr.substring(0, uriStr.length() - basePackagePath.length());
+            if (this.skipRoot.test(uriBaseStr)) {
+                logger.atDebug().log("skip root: {}", uriBaseStr);
+                continue;
+            }
             if (uriBaseStr.startsWith("file:")) {
                 // 在目录搜索
                 uriBaseStr = uriBaseStr.substring(5);
             }
+            Stream<Resource> root;
             if (uriStr.startsWith("jar:")) {
                 // 在 Jar 包中搜索
-                scanFile(true, uriBaseStr, jarUriToPath(basePackagePath, uri), collector, mapper);
+                Path jarFile = jarUriToJarFile(uri);
+                if (jarFile != null) {
+                    root = scanJar(uriBaseStr, jarFile, basePackagePath);
+                } else {
+                    // 嵌套jar等无法直接读取的jar包，通过ZipFileSystem遍历:
+                    root = scanJarFileSystem(uriBaseStr, basePackagePath, uri);
+                }
             } else {
-                scanFile(false, uriBaseStr, Paths.get(uri), collector, mapper);
+                root = scanFile(false, uriBaseStr, Paths.get(uri));
             }
+            // 合并各个classpath根目录:
+            resources = Stream.concat(resources, root);
         }
+        return resources;
     }
 
     /**
@@ -75,35 +129,122 @@ public class ResourceResolver {
         return cl;
     }
 
-    Path jarUriToPath(String basePackagePath, URI jarUri) throws IOException {
-        return FileSystems.newFileSystem(jarUri, Map.of()).getPath(basePackagePath);
+    /**
+     * 把"jar:file:/path/to/x.jar!/org/example"转换为jar文件路径，不是本地文件或者是嵌套jar时返回null
+     */
+    Path jarUriToJarFile(URI jarUri) {
+        String ssp = jarUri.getRawSchemeSpecificPart();
+        int n = ssp.indexOf("!/");
+        if (n < 0 || ssp.indexOf("!/", n + 2) >= 0) {
+            return null;
+        }
+        URI fileUri = URI.create(ssp.substring(0, n));
+        if (!"file".equals(fileUri.getScheme())) {
+            return null;
+        }
+        Path jar = Paths.get(fileUri);
+        return Files.isRegularFile(jar) ? jar : null;
+    }
+
+    // 从缓存的jar条目列表中查找资源，读取内容时才打开jar包，关闭Stream时关闭
+    Stream<Resource> scanJar(String base, Path jarFile, String basePackagePath) throws IOException {
+        String baseDir = removeTrailingSlash(base);
+        LazyZipFile zip = new LazyZipFile(jarFile);
+        return JarEntryCache.getEntryNames(jarFile, basePackagePath + "/").stream().parallel().map(name -> {
+            Resource res = new Resource(baseDir, name, () -> zip.read(name));
+            logger.atDebug().log("找到资源：{}", res);
+            return res;
+        }).onClose(closeQuietly(zip));
+    }
+
+    /**
+     * 第一次读取内容时才打开的jar包，多个线程共用一个ZipFile
+     */
+    static class LazyZipFile implements Closeable {
+
+        final Path jarFile;
+        ZipFile zip;
+        boolean closed;
+
+        LazyZipFile(Path jarFile) {
+            this.jarFile = jarFile;
+        }
+
+        synchronized ZipFile getZipFile() throws IOException {
+            if (this.closed) {
+                throw new IOException("Jar file is closed: " + this.jarFile);
+            }
+            if (this.zip == null) {
+                this.zip = new ZipFile(this.jarFile.toFile());
+            }
+            return this.zip;
+        }
+
+        byte[] read(String name) throws IOException {
+            ZipFile zipFile = getZipFile();
+            ZipEntry entry = zipFile.getEntry(name);
+            if (entry == null) {
+                throw new FileNotFoundException(name + " not found in " + this.jarFile);
+            }
+            try (InputStream input = zipFile.getInputStream(entry)) {
+                return input.readAllBytes();
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            this.closed = true;
+            if (this.zip != null) {
+                this.zip.close();
+            }
+        }
+    }
+
+    Stream<Resource> scanJarFileSystem(String base, String basePackagePath, URI jarUri) throws IOException {
+        FileSystem fs;
+        boolean created;
+        try {
+            fs = FileSystems.newFileSystem(jarUri, Map.of());
+            created = true;
+        } catch (FileSystemAlreadyExistsException e) {
+            fs = FileSystems.getFileSystem(jarUri);
+            created = false;
+        }
+        Stream<Resource> stream = scanFile(true, base, fs.getPath(basePackagePath));
+        // 关闭Stream时关闭自己创建的FileSystem:
+        return created ? stream.onClose(closeQuietly(fs)) : stream;
+    }
+
+    Runnable closeQuietly(Closeable closeable) {
+        return () -> {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                logger.warn("close failed: {}", closeable, e);
+            }
+        };
     }
 
     // 扫描文件以查找资源
-    <R> void scanFile(boolean isJar, String base, Path root, List<R> collector, Function<Resource, R> mapper) throws IOException {
+    Stream<Resource> scanFile(boolean isJar, String base, Path root) {
         // 从基本目录中移除尾部斜线
         String baseDir = removeTrailingSlash(base);
-        // 遍历给定的根路径
-        Files.walk(root).filter(Files::isRegularFile).forEach(file -> {
+        // 遍历给定的根路径，子目录可以拆分给其他线程:
+        return StreamSupport.stream(new PathSpliterator(root), true).map(file -> {
             Resource res = null;
             // 检查文件是否为JAR文件
             if (isJar) {
                 // 如果是，则创建一个新的资源对象，其中包含基本目录和文件路径
-                res = new Resource(baseDir, removeLeadingSlash(file.toString()));
+                res = new Resource(baseDir, removeLeadingSlash(file.toString()), () -> Files.readAllBytes(file));
             } else {
                 // 否则，创建一个新的资源对象，其中包含文件URL和文件名
                 String path = file.toString();
                 String name = removeLeadingSlash(path.substring(baseDir.length()));
-                res = new Resource("file:" + path, name);
+                res = new Resource("file:" + path, name, () -> Files.readAllBytes(file));
             }
             // 记录找到的资源
             logger.atDebug().log("找到资源：{}", res);
-            // 对资源应用映射函数
-            R r = mapper.apply(res);
-            // 如果结果不为空，则将其添加到集合中
-            if (r != null) {
-                collector.add(r);
-            }
+            return res;
         });
     }
 
@@ -9,9 +9,30 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ClassUtils {
 
+    // 不存在的注解也缓存，用NONE表示:
+    private static final Object NONE = new Object();
+
+    // 按类缓存findAnnotation()的结果，key为注解类型，value为直接标注或通过元注解找到的注解:
+    private static final ClassValue<Map<Class<? extends Annotation>, Object>> ANNOTATION_CACHE = new ClassValue<>() {
+        @Override
+        protected Map<Class<? extends Annotation>, Object> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    // 按类缓存getBeanName()的结果:
+    private static final ClassValue<String> BEAN_NAME_CACHE = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return resolveBeanName(type);
+        }
+    };
+
     /**
      * 递归查找Annotation
      * <p>
@@ -29,8 +50,22 @@ public class ClassUtils {
      * public @interface B {}
      * @B public class Hello {}
      * </code>
+     * <p>
+     * 结果按类和注解类型缓存，重复查找直接命中缓存。
      */
     public static <A extends Annotation> A findAnnotation(Class<?> target, Class<A> annoClass) {
+        Map<Class<? extends Annotation>, Object> cache = ANNOTATION_CACHE.get(target);
+        Object found = cache.get(annoClass);
+        if (found == null) {
+            // 查找失败(找到多个)时抛出异常，不缓存:
+            A a = doFindAnnotation(target, annoClass);
+            found = a == null ? NONE : a;
+            cache.putIfAbsent(annoClass, found);
+        }
+        return found == NONE ? null : annoClass.cast(found);
+    }
+
+    static <A extends Annotation> A doFindAnnotation(Class<?> target, Class<A> annoClass) {
         // 获取目标注解
         A a = target.getAnnotation(annoClass);
         // 遍历类上的注解
@@ -92,6 +127,10 @@ public class ClassUtils {
      * </code>
      */
     public static String getBeanName(Class<?> clazz) {
+        return BEAN_NAME_CACHE.get(clazz);
+    }
+
+    static String resolveBeanName(Class<?> clazz) {
         String name = "";
         // 查找@Component注解:
         Component component = clazz.getAnnotation(Component.class);
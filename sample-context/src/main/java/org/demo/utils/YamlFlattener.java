@@ -0,0 +1,219 @@
+package org.demo.utils;
+
+import org.yaml.snakeyaml.events.*;
+
+import java.util.*;
+
+/**
+ * 基于SnakeYaml事件流将Yaml直接"拍平"为abc.xyz格式的key，不创建中间的Map/List树。
+ * <p>
+ * 列表拍平为key[0]、key[1]，支持锚点(&amp;)、别名(*)和合并(&lt;&lt;)。多文档文件中设置了"demo.config.activate.on-profile"的文档只在对应profile激活时生效，
+ * 后面的文档覆盖前面的文档。
+ */
+class YamlFlattener {
+
+    /**
+     * 文档的激活条件，例如"dev"、"dev,test"或"!prod"
+     */
+    static final String ON_PROFILE_KEY = "demo.config.activate.on-profile";
+
+    /**
+     * 激活的profile，多个用逗号分隔
+     */
+    static final String ACTIVE_PROFILES_KEY = "demo.profiles.active";
+
+    static final String MERGE_KEY = "<<";
+
+    /**
+     * 正在解析的Map或List
+     */
+    static final class Frame {
+
+        final String path;
+        final boolean mapping;
+        final String anchor;
+        // Map中当前的key，为null时下一个Scalar是key:
+        String key;
+        // List中当前的下标:
+        int index;
+
+        Frame(String path, boolean mapping, String anchor) {
+            this.path = path;
+            this.mapping = mapping;
+            this.anchor = anchor;
+        }
+    }
+
+    /**
+     * 锚点下的所有值，key为相对锚点的后缀，例如".url"或"[0]"
+     */
+    record Recording(String anchor, String path, List<String[]> entries) {
+    }
+
+    private final Map<String, ? super String> target;
+    private final Set<String> explicitProfiles;
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final Deque<Recording> recordings = new ArrayDeque<>();
+    private final Map<String, List<String[]>> anchors = new HashMap<>();
+    // 当前文档的值，文档结束时根据激活条件合并到target:
+    private final Map<String, String> document = new LinkedHashMap<>();
+
+    YamlFlattener(Map<String, ? super String> target, Collection<String> activeProfiles) {
+        this.target = target;
+        this.explicitProfiles = Set.copyOf(activeProfiles);
+    }
+
+    void flatten(Iterable<Event> events) {
+        for (Event event : events) {
+            if (event instanceof DocumentStartEvent) {
+                this.document.clear();
+                this.anchors.clear();
+            } else if (event instanceof DocumentEndEvent) {
+                commitDocument();
+            } else if (event instanceof MappingStartEvent e) {
+                startCollection(true, e.getAnchor());
+            } else if (event instanceof SequenceStartEvent e) {
+                startCollection(false, e.getAnchor());
+            } else if (event instanceof CollectionEndEvent) {
+                endCollection();
+            } else if (event instanceof ScalarEvent e) {
+                scalar(e.getValue(), e.getAnchor());
+            } else if (event instanceof AliasEvent e) {
+                alias(e.getAnchor());
+            }
+        }
+    }
+
+    void startCollection(boolean mapping, String anchor) {
+        Frame frame = new Frame(this.frames.isEmpty() ? "" : valuePath(), mapping, anchor);
+        this.frames.push(frame);
+        if (anchor != null) {
+            this.recordings.push(new Recording(anchor, frame.path, new ArrayList<>()));
+        }
+    }
+
+    void endCollection() {
+        Frame frame = this.frames.pop();
+        if (frame.anchor != null) {
+            Recording recording = this.recordings.pop();
+            this.anchors.put(recording.anchor(), recording.entries());
+        }
+        afterValue();
+    }
+
+    void scalar(String value, String anchor) {
+        Frame top = this.frames.peek();
+        if (top == null) {
+            // 文档只有一个Scalar，没有key:
+            return;
+        }
+        if (top.mapping && top.key == null) {
+            top.key = value;
+            return;
+        }
+        emit(valuePath(), value, false);
+        if (anchor != null) {
+            this.anchors.put(anchor, List.<String[]>of(new String[] { "", value }));
+        }
+        afterValue();
+    }
+
+    void alias(String anchor) {
+        List<String[]> entries = this.anchors.get(anchor);
+        if (entries == null) {
+            throw new IllegalArgumentException("Undefined yaml alias: *" + anchor);
+        }
+        Frame top = this.frames.peek();
+        // "<<: *base"将锚点中的值合并到当前Map，已有的key优先:
+        boolean merge = top != null && top.mapping && MERGE_KEY.equals(top.key);
+        String base = merge ? top.path : valuePath();
+        for (String[] entry : entries) {
+            emit(join(base, entry[0]), entry[1], merge);
+        }
+        afterValue();
+    }
+
+    void emit(String path, String value, boolean merge) {
+        if (merge) {
+            if (this.document.putIfAbsent(path, value) != null) {
+                return;
+            }
+        } else {
+            this.document.put(path, value);
+        }
+        for (Recording recording : this.recordings) {
+            recording.entries().add(new String[] { path.substring(recording.path().length()), value });
+        }
+    }
+
+    void afterValue() {
+        Frame top = this.frames.peek();
+        if (top != null) {
+            if (top.mapping) {
+                top.key = null;
+            } else {
+                top.index++;
+            }
+        }
+    }
+
+    String valuePath() {
+        Frame top = this.frames.peek();
+        if (top.mapping) {
+            return top.path.isEmpty() ? top.key : top.path + "." + top.key;
+        }
+        return top.path + "[" + top.index + "]";
+    }
+
+    /**
+     * 将锚点中的相对后缀拼接到base，例如base="db"、suffix=".url"得到"db.url"
+     */
+    static String join(String base, String suffix) {
+        if (base.isEmpty() && suffix.startsWith(".")) {
+            return suffix.substring(1);
+        }
+        return base + suffix;
+    }
+
+    void commitDocument() {
+        // 激活条件只用于选择文档，不作为属性:
+        String condition = this.document.remove(ON_PROFILE_KEY);
+        if (condition == null || matches(condition, activeProfiles())) {
+            for (Map.Entry<String, String> e : this.document.entrySet()) {
+                this.target.put(e.getKey(), e.getValue());
+            }
+        }
+        this.document.clear();
+    }
+
+    /**
+     * 显式指定的profile优先，否则使用之前已生效的文档中的demo.profiles.active
+     */
+    Set<String> activeProfiles() {
+        if (!this.explicitProfiles.isEmpty()) {
+            return this.explicitProfiles;
+        }
+        return this.target.get(ACTIVE_PROFILES_KEY) instanceof String active ? parseProfiles(active) : Set.of();
+    }
+
+    static boolean matches(String condition, Set<String> activeProfiles) {
+        for (String profile : parseProfiles(condition)) {
+            if (profile.startsWith("!") ? !activeProfiles.contains(profile.substring(1).trim()) : activeProfiles.contains(profile)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Set<String> parseProfiles(String profiles) {
+        Set<String> set = new LinkedHashSet<>();
+        for (String profile : profiles.split(",")) {
+            profile = profile.trim();
+            if (!profile.isEmpty()) {
+                set.add(profile);
+            }
+        }
+        return set;
+    }
+}
@@ -4,33 +4,31 @@ import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.reader.UnicodeReader;
 import org.yaml.snakeyaml.representer.Representer;
 import org.yaml.snakeyaml.resolver.Resolver;
 
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @SuppressWarnings("unused")
 public class YamlUtils {
     // 从指定路径下的Yaml文件中加载数据为Map<String, Object>类型
     @SuppressWarnings("unchecked")
     public static Map<String, Object> loadYaml(String path) {
-        // 创建LoaderOptions、DumperOptions、Representer、NoImplicitResolver以及Yaml对象
-        var loaderOptions = new LoaderOptions();
-        var dumperOptions = new DumperOptions();
-        var representer = new Representer(dumperOptions);
-        var resolver = new NoImplicitResolver();
-        var yaml = new Yaml(new Constructor(loaderOptions), representer, dumperOptions, loaderOptions, resolver);
-        // 读取指定路径下的Yaml文件并转换为Map<String, Object>类型
-        return ClassPathUtils.readInputStream(path, yaml::load);
+        // 读取指定路径下的Yaml文件并转换为Map<String, Object>类型，只需要拍平的key时应使用loadYamlInto()
+        return ClassPathUtils.readInputStream(path, createYaml()::load);
         //  return ClassPathUtils.readInputStream(path, (input) -> {
         //            return (Map<String, Object>) yaml.load(input);
         //        });
     }
 
     // 从指定路径下的Yaml文件中加载数据为Map<String, Object>类型，并转换为无层级的Map<String, Object>类型
-    // SnakeYaml默认读出的结构是树形结构，需要“拍平”成abc.xyz格式的key；
+    // SnakeYaml默认读出的结构是树形结构，需要“拍平”成abc.xyz格式的key，列表仍然作为List返回；
     public static Map<String, Object> loadYamlAsPlainMap(String path) {
         Map<String, Object> data = loadYaml(path);
         Map<String, Object> plain = new LinkedHashMap<>();
@@ -53,6 +51,40 @@ public class YamlUtils {
             }
         }
     }
+
+    // 从指定路径下的Yaml文件中读取事件流，直接拍平到target中，不创建中间的树形结构，列表拍平为abc.xyz[0]格式的key，返回target
+    public static <M extends Map<String, ? super String>> M loadYamlInto(String path, M target) {
+        return ClassPathUtils.readInputStream(path, input -> loadYamlInto(input, target, getActiveProfiles()));
+    }
+
+    /**
+     * 从输入流读取Yaml事件流并直接拍平到target中，返回target。
+     * <p>
+     * 多文档文件中设置了"demo.config.activate.on-profile"的文档只在对应的profile激活时生效。activeProfiles为空时，
+     * 使用之前已生效的文档中的"demo.profiles.active"。
+     */
+    public static <M extends Map<String, ? super String>> M loadYamlInto(InputStream input, M target, Collection<String> activeProfiles) {
+        new YamlFlattener(target, activeProfiles).flatten(createYaml().parse(new UnicodeReader(input)));
+        return target;
+    }
+
+    // 通过系统属性-Ddemo.profiles.active或环境变量DEMO_PROFILES_ACTIVE指定的profile
+    public static Set<String> getActiveProfiles() {
+        String active = System.getProperty(YamlFlattener.ACTIVE_PROFILES_KEY);
+        if (active == null) {
+            active = System.getenv("DEMO_PROFILES_ACTIVE");
+        }
+        return active == null ? Set.of() : YamlFlattener.parseProfiles(active);
+    }
+
+    // 创建LoaderOptions、DumperOptions、Representer、NoImplicitResolver以及Yaml对象
+    static Yaml createYaml() {
+        var loaderOptions = new LoaderOptions();
+        var dumperOptions = new DumperOptions();
+        var representer = new Representer(dumperOptions);
+        var resolver = new NoImplicitResolver();
+        return new Yaml(new Constructor(loaderOptions), representer, dumperOptions, loaderOptions, resolver);
+    }
 }
 
 /**
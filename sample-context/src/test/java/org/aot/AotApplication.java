@@ -0,0 +1,8 @@
+package org.aot;
+
+import org.demo.annotation.ComponentScan;
+
+@ComponentScan
+public class AotApplication {
+
+}
@@ -0,0 +1,16 @@
+package org.aot;
+
+import org.demo.annotation.Bean;
+import org.demo.annotation.Configuration;
+import org.demo.annotation.Value;
+
+import java.time.ZoneId;
+
+@Configuration
+public class AotConfiguration {
+
+    @Bean
+    ZoneId aotZone(@Value("${aot.zone:Asia/Shanghai}") String zone) {
+        return ZoneId.of(zone);
+    }
+}
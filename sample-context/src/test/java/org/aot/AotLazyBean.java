@@ -0,0 +1,17 @@
+package org.aot;
+
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+import org.demo.annotation.Lazy;
+
+@Lazy
+@Component
+public class AotLazyBean {
+
+    AotRepository repository;
+
+    @Autowired
+    public void setRepository(AotRepository repository) {
+        this.repository = repository;
+    }
+}
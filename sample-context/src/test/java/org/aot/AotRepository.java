@@ -0,0 +1,15 @@
+package org.aot;
+
+import jakarta.annotation.PostConstruct;
+import org.demo.annotation.Component;
+
+@Component
+class AotRepository {
+
+    boolean initialized = false;
+
+    @PostConstruct
+    void init() {
+        this.initialized = true;
+    }
+}
@@ -0,0 +1,46 @@
+package org.aot;
+
+import jakarta.annotation.PreDestroy;
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+import org.demo.annotation.Value;
+import org.demo.context.BeanProvider;
+
+import java.time.ZoneId;
+
+@Component
+public class AotService {
+
+    final AotRepository repository;
+    final String title;
+
+    @Autowired
+    public ZoneId zone;
+
+    @Autowired
+    private BeanProvider<AotLazyBean> lazyBean;
+
+    public boolean destroyed = false;
+
+    public AotService(@Autowired AotRepository repository, @Value("${app.title}") String title) {
+        this.repository = repository;
+        this.title = title;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public boolean isRepositoryInitialized() {
+        return this.repository.initialized;
+    }
+
+    public AotLazyBean getLazyBean() {
+        return this.lazyBean.get();
+    }
+
+    @PreDestroy
+    private void destroy() {
+        this.destroyed = true;
+    }
+}
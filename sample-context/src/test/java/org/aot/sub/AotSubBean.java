@@ -0,0 +1,18 @@
+package org.aot.sub;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.Value;
+
+@Component
+public class AotSubBean {
+
+    @Value("${app.version}")
+    String version;
+
+    AotSubBean() {
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+}
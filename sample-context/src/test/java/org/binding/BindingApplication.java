@@ -0,0 +1,8 @@
+package org.binding;
+
+import org.demo.annotation.ComponentScan;
+
+@ComponentScan
+public class BindingApplication {
+
+}
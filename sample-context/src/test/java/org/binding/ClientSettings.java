@@ -0,0 +1,41 @@
+package org.binding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClientSettings {
+
+    private String name = "default";
+    private int retries = 3;
+    List<Backend> backends = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    public List<String> getBackendUrls() {
+        return backends.stream().map(backend -> backend.url).toList();
+    }
+
+    public List<Integer> getBackendWeights() {
+        return backends.stream().map(backend -> backend.weight).toList();
+    }
+
+    public static class Backend {
+
+        String url;
+        int weight = 1;
+    }
+}
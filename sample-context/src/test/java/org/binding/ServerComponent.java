@@ -0,0 +1,17 @@
+package org.binding;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.ConfigurationProperties;
+
+@Component
+public class ServerComponent {
+
+    public final ServerProperties server;
+
+    @ConfigurationProperties(prefix = "app.client")
+    public ClientSettings client;
+
+    public ServerComponent(ServerProperties server) {
+        this.server = server;
+    }
+}
@@ -0,0 +1,24 @@
+package org.binding;
+
+import org.demo.annotation.ConfigurationProperties;
+import org.demo.io.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "app.server")
+public record ServerProperties(String host, int port, Duration timeout, DataSize maxUpload, Mode mode, List<String> tags, Map<String, Endpoint> endpoints,
+                               Tls tls) {
+
+    public enum Mode {
+        STANDALONE, READ_ONLY
+    }
+
+    public record Endpoint(String path, List<String> methods) {
+    }
+
+    public record Tls(boolean enabled, Set<String> protocols) {
+    }
+}
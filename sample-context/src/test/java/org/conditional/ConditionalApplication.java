@@ -0,0 +1,8 @@
+package org.conditional;
+
+import org.demo.annotation.ComponentScan;
+
+@ComponentScan
+public class ConditionalApplication {
+
+}
@@ -0,0 +1,14 @@
+package org.conditional;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.ConditionalOnProperty;
+
+@Component
+@ConditionalOnProperty(name = "greeting.custom")
+public class CustomGreetingService implements GreetingService {
+
+    @Override
+    public String greet(String name) {
+        return "Hi, " + name;
+    }
+}
@@ -0,0 +1,14 @@
+package org.conditional;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.ConditionalOnMissingBean;
+
+@Component
+@ConditionalOnMissingBean(GreetingService.class)
+public class DefaultGreetingService implements GreetingService {
+
+    @Override
+    public String greet(String name) {
+        return "Hello, " + name;
+    }
+}
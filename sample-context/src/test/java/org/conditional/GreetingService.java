@@ -0,0 +1,6 @@
+package org.conditional;
+
+public interface GreetingService {
+
+    String greet(String name);
+}
@@ -0,0 +1,5 @@
+package org.conditional;
+
+public class Pool {
+
+}
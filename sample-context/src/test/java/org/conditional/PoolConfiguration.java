@@ -0,0 +1,15 @@
+package org.conditional;
+
+import org.demo.annotation.Bean;
+import org.demo.annotation.ConditionalOnProperty;
+import org.demo.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "pool.enabled", havingValue = "true")
+public class PoolConfiguration {
+
+    @Bean
+    Pool pool() {
+        return new Pool();
+    }
+}
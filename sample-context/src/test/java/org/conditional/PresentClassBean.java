@@ -0,0 +1,10 @@
+package org.conditional;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.ConditionalOnClass;
+
+@Component
+@ConditionalOnClass(Pool.class)
+public class PresentClassBean {
+
+}
@@ -1,19 +1,29 @@
 package org.demo.context;
 
+import org.binding.BindingApplication;
+import org.binding.ServerComponent;
 import org.imported.LocalDateConfiguration;
 import org.imported.ZonedDateConfiguration;
+import org.demo.exception.UnsatisfiedDependencyException;
 import org.demo.io.PropertyResolver;
+import org.event.EventApplication;
 import org.scan.ScanApplication;
 import org.scan.convert.ValueConverterBean;
+import org.scan.dto.LoadTrackingDto;
 import org.scan.custom.annotation.CustomAnnotationBean;
 import org.scan.init.AnnotationInitBean;
 import org.scan.init.SpecifyInitBean;
+import org.scan.lazy.LazyBean;
+import org.scan.lazy.LazyInjectionBean;
+import org.scan.lazy.LazyService;
+import org.scan.lazy.LazyServiceImpl;
 import org.scan.nested.OuterBean;
 import org.scan.primary.DogBean;
 import org.scan.primary.PersonBean;
 import org.scan.primary.StudentBean;
 import org.scan.primary.TeacherBean;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.scan.proxy.InjectProxyOnConstructorBean;
 import org.scan.proxy.InjectProxyOnPropertyBean;
 import org.scan.proxy.OriginBean;
@@ -21,10 +31,21 @@ import org.scan.proxy.SecondProxyBean;
 import org.scan.sub1.Sub1Bean;
 import org.scan.sub1.sub2.Sub2Bean;
 import org.scan.sub1.sub2.sub3.Sub3Bean;
+import org.shutdown.DestroyRecorder;
+import org.shutdown.ShutdownApplication;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,7 +53,7 @@ public class AnnotationConfigApplicationContextTest {
 
     @Test
     public void testAnnotationConfigApplicationContext() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         // @CustomAnnotation:
         assertNotNull(ctx.findBeanDefinition(CustomAnnotationBean.class));
         assertNotNull(ctx.findBeanDefinition("customAnnotation"));
@@ -58,8 +79,97 @@ public class AnnotationConfigApplicationContextTest {
         assertSame(teacherDef, personPrimaryDef);
     }
 
+    @Test
+    public void testTypeIndex() {
+        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        // Object匹配所有Bean:
+        assertEquals(ctx.beans.size(), ctx.findBeanDefinitions(Object.class).size());
+        // 接口和父类:
+        assertEquals(2, ctx.findBeanDefinitions(PersonBean.class).size());
+        assertSame(ctx.findBeanDefinitions(PersonBean.class), ctx.findBeanDefinitions(PersonBean.class));
+        assertTrue(ctx.findBeanDefinitions(Runnable.class).isEmpty());
+        // 与逐个判断isAssignableFrom的结果一致:
+        for (BeanDefinition def : ctx.beans.values()) {
+            Class<?> type = def.getBeanClass();
+            assertEquals(ctx.beans.values().stream().filter(d -> type.isAssignableFrom(d.getBeanClass())).sorted().toList(),
+                    ctx.findBeanDefinitions(type));
+        }
+        // @Primary解析结果:
+        assertSame(ctx.findBeanDefinition(TeacherBean.class), ctx.findBeanDefinition(PersonBean.class));
+        assertSame(ctx.findBeanDefinition(PersonBean.class), ctx.findBeanDefinition(PersonBean.class));
+        ctx.close();
+        assertTrue(ctx.findBeanDefinitions(Object.class).isEmpty());
+    }
+
+    @Test
+    public void testScanWithoutLoadingNonComponents() {
+        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        assertNotNull(ctx.findBeanDefinition(CustomAnnotationBean.class));
+        assertNotNull(ctx.findBeanDefinition(OuterBean.NestedBean.class));
+        assertNotNull(ctx.findBeanDefinition("startLocalDate"));
+        // 非组件类只读取了字节码，没有被加载:
+        assertNull(System.getProperty(LoadTrackingDto.LOADED_PROPERTY));
+        ctx.close();
+    }
+
+    @Test
+    public void testComponentIndex() {
+        var ps = createProperties();
+        ps.put("demo.context.component-index", "true");
+        try (var indexed = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps));
+             var scanned = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            // 查询索引与扫描classpath得到相同的Bean:
+            assertNotNull(indexed.getComponentIndex());
+            assertNull(scanned.getComponentIndex());
+            assertEquals(scanned.beans.keySet(), indexed.beans.keySet());
+        }
+    }
+
+    @Test
+    public void testScanCache(@TempDir Path tempDir) throws Exception {
+        Path cacheFile = tempDir.resolve("scan.cache");
+        var ps = createProperties();
+        ps.put("demo.context.scan-cache", cacheFile.toString());
+        // 第一次启动扫描并写入缓存:
+        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps));
+        assertTrue(Files.exists(cacheFile));
+        List<String> lines = Files.readAllLines(cacheFile);
+        assertTrue(lines.contains("class\t" + CustomAnnotationBean.class.getName()));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("bean\tcustomAnnotation\t")));
+
+        // 指纹不变时从缓存恢复，不再扫描(删除缓存中的customAnnotation后不再出现):
+        Files.write(cacheFile, lines.stream().filter(line -> !line.startsWith("bean\tcustomAnnotation\t")).toList());
+        var cached = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps));
+        assertNull(cached.findBeanDefinition("customAnnotation"));
+        assertEquals(ctx.beans.size() - 1, cached.beans.size());
+        assertSame(TeacherBean.class, cached.getBean(PersonBean.class).getClass());
+        assertNotNull(cached.getBean("startLocalDate"));
+        assertEquals("Scan App / v1.0", cached.getBean(AnnotationInitBean.class).appName);
+        assertEquals("Scan App / v1.0", cached.getBean(SpecifyInitBean.class).appName);
+
+        // 指纹变化时重新扫描:
+        lines.set(1, "fingerprint\t0");
+        Files.write(cacheFile, lines);
+        var rescanned = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps));
+        assertNotNull(rescanned.findBeanDefinition("customAnnotation"));
+        assertNotEquals("fingerprint\t0", Files.readAllLines(cacheFile).get(1));
+    }
+
+    /**
+     * 只读取Bean的测试共享同一个ApplicationContext
+     */
+    ConfigurableApplicationContext cachedContext() {
+        return ContextCache.getDefault().getContext(ScanApplication.class, createPropertyResolver());
+    }
+
     PropertyResolver createPropertyResolver() {
+        return new PropertyResolver(createProperties());
+    }
+
+    Properties createProperties() {
         var ps = new Properties();
+        // 测试代码编译时生成了组件索引，这里的测试走classpath扫描，索引由testComponentIndex()覆盖:
+        ps.put("demo.context.component-index", "false");
         ps.put("app.title", "Scan App");
         ps.put("app.version", "v1.0");
         ps.put("jdbc.url", "jdbc:hsqldb:file:testdb.tmp");
@@ -78,20 +188,19 @@ public class AnnotationConfigApplicationContextTest {
         ps.put("convert.zoneddatetime", "2023-03-29T20:45:01+08:00[Asia/Shanghai]");
         ps.put("convert.duration", "P2DT3H4M");
         ps.put("convert.zoneid", "Asia/Shanghai");
-        var pr = new PropertyResolver(ps);
-        return pr;
+        return ps;
     }
 
     @Test
     public void testCustomAnnotation() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         assertNotNull(ctx.getBean(CustomAnnotationBean.class));
         assertNotNull(ctx.getBean("customAnnotation"));
     }
 
     @Test
     public void testImport() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         assertNotNull(ctx.getBean(LocalDateConfiguration.class));
         assertNotNull(ctx.getBean("startLocalDate"));
         assertNotNull(ctx.getBean("startLocalDateTime"));
@@ -101,14 +210,14 @@ public class AnnotationConfigApplicationContextTest {
 
     @Test
     public void testNested() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         ctx.getBean(OuterBean.class);
         ctx.getBean(OuterBean.NestedBean.class);
     }
 
     @Test
     public void testPrimary() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         var person = ctx.getBean(PersonBean.class);
         assertEquals(TeacherBean.class, person.getClass());
         var dog = ctx.getBean(DogBean.class);
@@ -117,7 +226,7 @@ public class AnnotationConfigApplicationContextTest {
 
     @Test
     public void testSub() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         ctx.getBean(Sub1Bean.class);
         ctx.getBean(Sub2Bean.class);
         ctx.getBean(Sub3Bean.class);
@@ -125,7 +234,7 @@ public class AnnotationConfigApplicationContextTest {
 
     @Test
     public void testInitMethod() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         // test @PostConstruct:
         var bean1 = ctx.getBean(AnnotationInitBean.class);
         var bean2 = ctx.getBean(SpecifyInitBean.class);
@@ -135,7 +244,7 @@ public class AnnotationConfigApplicationContextTest {
 
     @Test
     public void testConverter() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         var bean = ctx.getBean(ValueConverterBean.class);
 
         assertNotNull(bean.injectedBoolean);
@@ -176,7 +285,7 @@ public class AnnotationConfigApplicationContextTest {
 
     @Test
     public void testProxy() {
-        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        var ctx = cachedContext();
         // test proxy:
         // 获取OriginBean的实例,此处获取的应该是SendProxyBeanProxy:
         OriginBean proxy = ctx.getBean(OriginBean.class);
@@ -199,4 +308,225 @@ public class AnnotationConfigApplicationContextTest {
         assertSame(proxy, inject1.injected);
         assertSame(proxy, inject2.injected);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testInjectionPlan() {
+        // 每个类只解析一次:
+        var plan = InjectionPlan.of(AnnotationInitBean.class);
+        assertSame(plan, InjectionPlan.of(AnnotationInitBean.class));
+        assertEquals(List.of("appTitle", "appVersion"), plan.points().stream().map(InjectionPoint::name).sorted().toList());
+        // 通过MethodHandle注入:
+        var ctx = cachedContext();
+        var bean = ctx.getBean(LazyInjectionBean.class);
+        assertNotNull(bean.lazyService);
+        assertNotNull(bean.lazyBeanProvider);
+    }
+
+    @Test
+    public void testLazy() {
+        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        // @Lazy的Bean在启动时没有创建:
+        assertNull(ctx.findBeanDefinition(LazyBean.class).getInstance());
+        assertNull(ctx.findBeanDefinition(LazyServiceImpl.class).getInstance());
+        var injection = ctx.getBean(LazyInjectionBean.class);
+        assertNotNull(injection.lazyService);
+        assertNotNull(injection.lazyBeanProvider);
+
+        // 调用延迟代理时才创建:
+        assertEquals("Hello, Bob", injection.lazyService.hello("Bob"));
+        assertNotNull(ctx.findBeanDefinition(LazyServiceImpl.class).getInstance());
+        assertSame(ctx.getBean(LazyServiceImpl.class), ctx.getBean(LazyService.class));
+
+        // 第一次获取时创建、注入并初始化:
+        LazyBean lazyBean = injection.lazyBeanProvider.get();
+        assertEquals("Scan App", lazyBean.appTitle);
+        assertTrue(lazyBean.initialized);
+        assertSame(lazyBean, ctx.getBean(LazyBean.class));
+        assertSame(lazyBean, injection.lazyBeanProvider.get());
+        ctx.close();
+    }
+
+    @Test
+    public void testConcurrentGetBean() throws Exception {
+        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<LazyBean>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // 并发读取普通Bean，并发创建同一个@Lazy的Bean:
+                    assertSame(TeacherBean.class, ctx.getBean(PersonBean.class).getClass());
+                    assertFalse(ctx.getBeans(PersonBean.class).isEmpty());
+                    return ctx.getBean(LazyBean.class);
+                }));
+            }
+            start.countDown();
+            LazyBean lazyBean = futures.get(0).get();
+            assertTrue(lazyBean.initialized);
+            for (Future<LazyBean> future : futures) {
+                assertSame(lazyBean, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        ctx.close();
+        // 重复关闭不会再次调用destroy方法:
+        ctx.close();
+        assertFalse(ApplicationContextUtils.getApplicationContexts().contains(ctx));
+    }
+
+    @Test
+    public void testParallelStartup() {
+        var ps = createProperties();
+        ps.put("demo.context.parallel-startup", "true");
+        ps.put("demo.context.startup-threads", "4");
+        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps));
+        assertEquals("Scan App / v1.0", ctx.getBean(AnnotationInitBean.class).appName);
+        assertEquals("Scan App / v1.0", ctx.getBean(SpecifyInitBean.class).appName);
+        assertSame(TeacherBean.class, ctx.getBean(PersonBean.class).getClass());
+        // 代理和注入:
+        OriginBean proxy = ctx.getBean(OriginBean.class);
+        assertSame(SecondProxyBean.class, proxy.getClass());
+        assertEquals("Scan App", proxy.getName());
+        assertSame(proxy, ctx.getBean(InjectProxyOnPropertyBean.class).injected);
+        assertSame(proxy, ctx.getBean(InjectProxyOnConstructorBean.class).injected);
+        ctx.beans.values().stream().filter(def -> !def.isLazy()).forEach(def -> assertNotNull(def.getInstance()));
+    }
+
+    @Test
+    public void testDependencyGraph() throws Exception {
+        var a = new BeanDefinition("a", Object.class, Object.class.getConstructor(), 2, false, null, null, null, null);
+        var b = new BeanDefinition("b", Object.class, Object.class.getConstructor(), 1, false, null, null, null, null);
+        var c = new BeanDefinition("c", Object.class, Object.class.getConstructor(), 0, false, null, null, null, null);
+        var graph = new DependencyGraph();
+        graph.addDependency(c, a);
+        graph.addBean(b);
+        // 按@Order排序，c最先处理，被c依赖的a排在c之前:
+        assertEquals(List.of(a, c, b), graph.sort(true));
+        // 循环依赖:
+        graph.addDependency(a, c);
+        assertThrows(UnsatisfiedDependencyException.class, () -> graph.sort(true));
+        assertEquals(3, graph.sort(false).size());
+    }
+
+    @Test
+    public void testStartupRecorder() {
+        var ps = createProperties();
+        ps.put("demo.context.startup-recording", "true");
+        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps));
+        StartupRecorder recorder = ctx.getStartupRecorder();
+        assertTrue(recorder.isEnabled());
+        // 所有阶段:
+        assertEquals(List.of("scan", "typeIndex", "eventListeners", "configuration", "postProcessors", "create", "inject", "init"),
+                recorder.getPhaseSteps().stream().map(StartupStep::getPhase).toList());
+        // Bean的创建、BeanPostProcessor、注入和初始化:
+        String beanName = ctx.findBeanDefinition(InjectProxyOnConstructorBean.class).getName();
+        Set<String> phases = recorder.getBeanSteps(beanName).stream().map(StartupStep::getPhase).collect(Collectors.toSet());
+        assertTrue(phases.containsAll(List.of("create", "postProcessBeforeInitialization", "inject", "init", "postProcessAfterInitialization")));
+        recorder.getSteps().forEach(step -> {
+            assertTrue(step.isEnded());
+            assertTrue(step.getSelfWallNanos() >= 0);
+        });
+        // 关键路径中被依赖的Bean在前:
+        StartupRecorder.CriticalPath path = recorder.getCriticalPath();
+        assertFalse(path.beanNames().isEmpty());
+        assertTrue(path.totalNanos() > 0);
+        String json = recorder.toJson();
+        assertTrue(json.startsWith("{\"steps\":["));
+        assertTrue(json.contains("\"criticalPath\""));
+        assertTrue(json.contains("\"" + beanName + "\""));
+        ctx.close();
+    }
+
+    @Test
+    public void testStartupRecorderDisabled() {
+        var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver());
+        assertFalse(ctx.getStartupRecorder().isEnabled());
+        assertTrue(ctx.getStartupRecorder().getSteps().isEmpty());
+        ctx.close();
+    }
+
+    @Test
+    public void testCloseInReverseDependencyOrder() {
+        var ctx = new AnnotationConfigApplicationContext(ShutdownApplication.class, new PropertyResolver(new Properties()));
+        DestroyRecorder recorder = ctx.getBean(DestroyRecorder.class);
+        ctx.close();
+        // 依赖其他Bean的Bean先销毁:
+        List<String> destroyed = recorder.destroyed;
+        assertEquals(4, destroyed.size());
+        assertTrue(destroyed.indexOf("controller") < destroyed.indexOf("service"));
+        assertTrue(destroyed.indexOf("service") < destroyed.indexOf("repository"));
+        // 只记录有destroy方法的Bean:
+        assertEquals(Set.of("shutdownController", "shutdownService", "shutdownRepository", "slowBean"), ctx.getDestroyDurations().keySet());
+        assertTrue(ctx.getDestroyDurations().get("shutdownService").toMillis() >= 20);
+    }
+
+    @Test
+    public void testCloseWithDestroyTimeout() {
+        var ps = new Properties();
+        ps.put("shutdown.slow-millis", "10000");
+        ps.put("demo.context.destroy-timeout", "PT0.2S");
+        var ctx = new AnnotationConfigApplicationContext(ShutdownApplication.class, new PropertyResolver(ps));
+        DestroyRecorder recorder = ctx.getBean(DestroyRecorder.class);
+        long start = System.currentTimeMillis();
+        ctx.close();
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        // 超时的Bean不影响其他Bean:
+        assertEquals(List.of("controller", "service", "repository"), recorder.destroyed);
+        assertFalse(ctx.getDestroyDurations().containsKey("slowBean"));
+    }
+
+    @Test
+    public void testCloseWithShutdownTimeout() {
+        var ps = new Properties();
+        ps.put("shutdown.slow-millis", "10000");
+        ps.put("demo.context.shutdown-timeout", "PT0.2S");
+        var ctx = new AnnotationConfigApplicationContext(ShutdownApplication.class, new PropertyResolver(ps));
+        DestroyRecorder recorder = ctx.getBean(DestroyRecorder.class);
+        long start = System.currentTimeMillis();
+        ctx.close();
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertFalse(recorder.destroyed.contains("slow"));
+        assertTrue(ctx.isClosed());
+    }
+
+    @Test
+    public void testConfigurationProperties() {
+        var ps = new Properties();
+        ps.put("app.server.host", "example.com");
+        ps.put("app.server.port", "8443");
+        ps.put("app.server.tls.enabled", "true");
+        ps.put("app.client.name", "${app.server.host}-client");
+        ps.put("app.client.backends[0].url", "https://${app.server.host}:${app.server.port}");
+        var ctx = new AnnotationConfigApplicationContext(BindingApplication.class, new PropertyResolver(ps));
+        ServerComponent component = ctx.getBean(ServerComponent.class);
+        // 构造方法参数按类上的前缀绑定:
+        assertEquals("example.com", component.server.host());
+        assertEquals(8443, component.server.port());
+        assertTrue(component.server.tls().enabled());
+        // 字段按字段上的前缀绑定:
+        assertEquals("example.com-client", component.client.getName());
+        assertEquals(3, component.client.getRetries());
+        assertEquals(List.of("https://example.com:8443"), component.client.getBackendUrls());
+        ctx.close();
+    }
+
+    @Test
+    public void testMultipleApplicationContexts() {
+        try (var first = new AnnotationConfigApplicationContext(EventApplication.class, new PropertyResolver(new Properties()));
+             var second = new AnnotationConfigApplicationContext(EventApplication.class, new PropertyResolver(new Properties()))) {
+            assertTrue(ApplicationContextUtils.getApplicationContexts().containsAll(List.of(first, second)));
+            // 未绑定的线程不猜测使用哪一个:
+            assertThrows(IllegalStateException.class, ApplicationContextUtils::getApplicationContext);
+            // 绑定的线程获取所属的ApplicationContext:
+            ApplicationContext previous = ApplicationContextUtils.setCurrentApplicationContext(first);
+            try {
+                assertSame(first, ApplicationContextUtils.getRequiredApplicationContext());
+            } finally {
+                ApplicationContextUtils.restoreCurrentApplicationContext(previous);
+            }
+        }
+    }
+}
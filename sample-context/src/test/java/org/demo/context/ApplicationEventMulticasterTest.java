@@ -0,0 +1,86 @@
+package org.demo.context;
+
+import org.demo.annotation.Scope;
+import org.demo.exception.BeanDefinitionException;
+import org.demo.io.PropertyResolver;
+import org.event.AuditListener;
+import org.event.EventApplication;
+import org.event.OrderEvent;
+import org.event.OrderListener;
+import org.event.OrderPlacedEvent;
+import org.event.OrderService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApplicationEventMulticasterTest {
+
+    @Test
+    public void testPublishEvent() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(EventApplication.class, new PropertyResolver(new Properties()))) {
+            OrderService service = ctx.getBean(OrderService.class);
+            // 没有ApplicationEventPublisher类型的Bean时注入ApplicationContext:
+            assertSame(ctx, service.publisher);
+
+            OrderListener listener = ctx.getBean(OrderListener.class);
+            service.placeOrder(1);
+            // 同步监听器在发布事件的线程中调用:
+            assertEquals(List.of(1L), listener.placed);
+            // 异步监听器在事件线程池中调用，监听父类型的事件:
+            assertTrue(listener.asyncLatch.await(5, TimeUnit.SECONDS));
+            assertTrue(listener.asyncThreads.get(0).startsWith("context-event-"));
+
+            // 只匹配父类型的事件不会调用子类型的监听器:
+            ctx.publishEvent(new OrderEvent(2));
+            assertEquals(List.of(1L), listener.placed);
+
+            // 同步监听器的异常抛给调用方:
+            assertThrows(IllegalArgumentException.class, () -> service.placeOrder(-1));
+
+            var metrics = ctx.getEventListenerMetrics();
+            assertEquals(2, metrics.get("orderListener#onOrderPlaced").invocations());
+            assertEquals(1, metrics.get("orderListener#onOrderPlaced").failures());
+            assertTrue(metrics.get("orderListener#onOrderPlaced").maxTime().toNanos() > 0);
+            assertTrue(metrics.containsKey("orderListener#onOrderEvent"));
+        }
+    }
+
+    @Test
+    public void testOverriddenListener() {
+        try (var ctx = new AnnotationConfigApplicationContext(EventApplication.class, new PropertyResolver(new Properties()))) {
+            AuditListener listener = ctx.getBean(AuditListener.class);
+            ctx.publishEvent(new OrderPlacedEvent(1));
+            // 子类覆写的@EventListener方法只调用一次:
+            assertEquals(List.of(1L), listener.audited);
+        }
+    }
+
+    @Test
+    public void testBackPressure() throws Exception {
+        var ps = new Properties();
+        ps.put("demo.context.event.threads", "1");
+        ps.put("demo.context.event.queue-capacity", "1");
+        var ctx = new AnnotationConfigApplicationContext(EventApplication.class, new PropertyResolver(ps));
+        OrderListener listener = ctx.getBean(OrderListener.class);
+        for (int i = 0; i < 100; i++) {
+            ctx.publishEvent(new OrderEvent(i));
+        }
+        // 队列满时由发布事件的线程调用，关闭时等待队列中的事件处理完成:
+        ctx.close();
+        assertEquals(100, listener.asyncThreads.size());
+        assertTrue(listener.asyncThreads.contains(Thread.currentThread().getName()));
+        assertEquals(100, ctx.getEventListenerMetrics().get("orderListener#onOrderEvent").invocations());
+    }
+
+    @Test
+    public void testRejectPooledListener() throws Exception {
+        var def = new BeanDefinition("orderListener", OrderListener.class, OrderListener.class.getConstructor(), 0, false, null, null, null, null);
+        def.setScope(Scope.POOLED);
+        var multicaster = new ApplicationEventMulticaster(null, 1, 1);
+        assertThrows(BeanDefinitionException.class, () -> multicaster.addListeners(def));
+    }
+}
@@ -0,0 +1,92 @@
+package org.demo.context;
+
+import org.demo.exception.BeanCreationException;
+import org.demo.exception.NoSuchBeanDefinitionException;
+import org.demo.io.PropertyResolver;
+import org.junit.jupiter.api.Test;
+import org.pooled.DigestClient;
+import org.pooled.Digester;
+import org.pooled.PooledApplication;
+import org.pooled.Sha256Digester;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeanPoolTest {
+
+    @Test
+    public void testPooledBean() throws Exception {
+        Sha256Digester.initialized.set(0);
+        Sha256Digester.destroyed.set(0);
+        var ps = new Properties();
+        ps.put("demo.context.pool.sha256Digester.max-size", "2");
+        var ctx = new AnnotationConfigApplicationContext(PooledApplication.class, new PropertyResolver(ps));
+        // 注入和获取的都是对象池的代理:
+        Digester digester = ctx.getBean(Digester.class);
+        assertSame(digester, ctx.getBean(DigestClient.class).digester);
+        assertThrows(NoSuchBeanDefinitionException.class, () -> ctx.getBean(Sha256Digester.class));
+        // 启动时创建了一个实例:
+        assertEquals(1, Sha256Digester.initialized.get());
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest("hello".getBytes(StandardCharsets.UTF_8)));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 800; i++) {
+                futures.add(executor.submit(() -> digester.digest("hello")));
+            }
+            for (Future<String> future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        BeanPoolMetrics metrics = ctx.getBeanPoolMetrics().get("sha256Digester");
+        assertEquals(2, metrics.maxSize());
+        assertTrue(metrics.size() <= 2);
+        assertTrue(metrics.createdCount() <= 2);
+        assertEquals(801, metrics.borrowCount());
+        assertEquals(metrics.size(), metrics.idle());
+
+        ctx.close();
+        // 关闭时销毁所有实例:
+        assertEquals(Sha256Digester.initialized.get(), Sha256Digester.destroyed.get());
+        assertEquals(0, ctx.getBeanPoolMetrics().get("sha256Digester").size());
+    }
+
+    @Test
+    public void testIdleEvictionAndTimeout() throws Exception {
+        List<Object> destroyed = new ArrayList<>();
+        // 对象池销毁原始实例，而不是BeanPostProcessor返回的实例:
+        var pool = new BeanPool("test", 2, Duration.ofMillis(10), Duration.ofMillis(100), () -> new BeanPool.Pooled(new Object(), new Object()),
+                destroyed::add);
+        BeanPool.Pooled a = pool.borrow();
+        BeanPool.Pooled b = pool.borrow();
+        assertNotSame(a, b);
+        // 池满时等待超时:
+        assertThrows(BeanCreationException.class, pool::borrow);
+        pool.release(a);
+        Thread.sleep(50);
+        // 归还时淘汰空闲超时的实例:
+        pool.release(b);
+        assertEquals(List.of(a.target()), destroyed);
+        BeanPoolMetrics metrics = pool.getMetrics();
+        assertEquals(1, metrics.evictedCount());
+        assertEquals(1, metrics.size());
+        assertSame(b, pool.borrow());
+        pool.close();
+        assertEquals(1, destroyed.size());
+        pool.release(b);
+        assertEquals(List.of(a.target(), b.target()), destroyed);
+    }
+}
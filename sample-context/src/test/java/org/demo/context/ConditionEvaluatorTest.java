@@ -0,0 +1,51 @@
+package org.demo.context;
+
+import org.conditional.*;
+import org.demo.io.PropertyResolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionEvaluatorTest {
+
+    @Test
+    public void testDefaultConditions() {
+        try (var ctx = new AnnotationConfigApplicationContext(ConditionalApplication.class, new PropertyResolver(new Properties()))) {
+            // 属性不存在时跳过@Configuration及其@Bean方法:
+            assertNull(ctx.findBeanDefinition(PoolConfiguration.class));
+            assertNull(ctx.findBeanDefinition(Pool.class));
+            // 没有其他GreetingService时使用默认的:
+            assertEquals("Hello, Bob", ctx.getBean(GreetingService.class).greet("Bob"));
+            assertNull(ctx.findBeanDefinition(CustomGreetingService.class));
+            // Class不存在时跳过:
+            assertNull(ctx.findBeanDefinition(MissingClassBean.class));
+            assertNotNull(ctx.findBeanDefinition(PresentClassBean.class));
+        }
+    }
+
+    @Test
+    public void testPropertyConditions() {
+        var ps = new Properties();
+        ps.put("pool.enabled", "TRUE");
+        ps.put("greeting.custom", "yes");
+        try (var ctx = new AnnotationConfigApplicationContext(ConditionalApplication.class, new PropertyResolver(ps))) {
+            assertNotNull(ctx.getBean(Pool.class));
+            // 已定义GreetingService时跳过默认的:
+            assertEquals("Hi, Bob", ctx.getBean(GreetingService.class).greet("Bob"));
+            assertNull(ctx.findBeanDefinition(DefaultGreetingService.class));
+        }
+    }
+
+    @Test
+    public void testDisabledProperty() {
+        var ps = new Properties();
+        ps.put("pool.enabled", "no");
+        ps.put("greeting.custom", "false");
+        try (var ctx = new AnnotationConfigApplicationContext(ConditionalApplication.class, new PropertyResolver(ps))) {
+            assertNull(ctx.findBeanDefinition(Pool.class));
+            assertInstanceOf(DefaultGreetingService.class, ctx.getBean(GreetingService.class));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.demo.context;
+
+import org.aot.AotApplication;
+import org.aot.AotService;
+import org.demo.io.PropertyResolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextCacheTest {
+
+    @Test
+    public void testContextCache() {
+        var cache = new ContextCache(1);
+        try {
+            // 相同配置类和属性时复用:
+            var ctx = cache.getContext(AotApplication.class, createPropertyResolver("Aot App"));
+            assertSame(ctx, cache.getContext(AotApplication.class, createPropertyResolver("Aot App")));
+            assertEquals(1, cache.getMissCount());
+            assertEquals(1, cache.getHitCount());
+            assertEquals("Aot App", ctx.getBean(AotService.class).getTitle());
+
+            // 属性不同时创建新的ApplicationContext，并淘汰最久未使用的:
+            var other = cache.getContext(AotApplication.class, createPropertyResolver("Other App"));
+            assertNotSame(ctx, other);
+            assertEquals("Other App", other.getBean(AotService.class).getTitle());
+            assertEquals(1, cache.size());
+            assertTrue(((AnnotationConfigApplicationContext) ctx).isClosed());
+            assertFalse(ApplicationContextUtils.getApplicationContexts().contains(ctx));
+            assertTrue(ApplicationContextUtils.getApplicationContexts().contains(other));
+
+            // 已关闭的ApplicationContext重新创建:
+            other.close();
+            var recreated = cache.getContext(AotApplication.class, createPropertyResolver("Other App"));
+            assertNotSame(other, recreated);
+            assertEquals(3, cache.getMissCount());
+        } finally {
+            cache.clear();
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testFingerprint() {
+        assertEquals(createPropertyResolver("Aot App").getFingerprint(), createPropertyResolver("Aot App").getFingerprint());
+        assertNotEquals(createPropertyResolver("Aot App").getFingerprint(), createPropertyResolver("Other App").getFingerprint());
+    }
+
+    PropertyResolver createPropertyResolver(String title) {
+        var ps = new Properties();
+        ps.put("app.title", title);
+        ps.put("app.version", "v1.0");
+        return new PropertyResolver(ps);
+    }
+}
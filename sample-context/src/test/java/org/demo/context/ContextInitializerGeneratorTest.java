@@ -0,0 +1,99 @@
+package org.demo.context;
+
+import org.aot.AotApplication;
+import org.aot.AotLazyBean;
+import org.aot.AotService;
+import org.aot.sub.AotSubBean;
+import org.demo.io.PropertyResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextInitializerGeneratorTest {
+
+    @Test
+    public void testGenerateContextInitializer(@TempDir Path dir) throws Exception {
+        // 使用反射方式启动并生成源码:
+        var ps = createProperties();
+        ps.put("demo.context.aot", "false");
+        Path file;
+        Set<String> beanNames;
+        try (var ctx = new AnnotationConfigApplicationContext(AotApplication.class, new PropertyResolver(ps))) {
+            assertNull(ContextInitializer.find(AotApplication.class));
+            var generator = new ContextInitializerGenerator(AotApplication.class, ctx);
+            assertEquals("org.aot.AotApplication__ContextInitializer", generator.getClassName());
+            file = generator.writeTo(dir.resolve("src"));
+            beanNames = Set.copyOf(ctx.beans.keySet());
+        }
+        String source = Files.readString(file);
+        // 可以访问的成员直接调用:
+        assertTrue(source.contains("new org.aot.AotService((org.aot.AotRepository) args[0], (java.lang.String) args[1])"));
+        assertTrue(source.contains("((org.aot.AotConfiguration) factoryBean).aotZone((java.lang.String) args[0])"));
+        assertTrue(source.contains("((org.aot.AotService) bean).zone = (java.time.ZoneId) value"));
+        assertTrue(source.contains("((org.aot.AotLazyBean) bean).setRepository((org.aot.AotRepository) value)"));
+        assertTrue(source.contains("((org.aot.AotRepository) bean).init()"));
+        // 按类型注入时使用构建时解析出的Bean名称:
+        assertTrue(source.contains("BeanDependency.ofBean(org.aot.AotRepository.class, \"aotRepository\", true)"));
+        // 无法访问的成员通过反射:
+        assertTrue(source.contains("GeneratedBeanDefinition.reflectConstructor(org.aot.sub.AotSubBean.class)"));
+        assertTrue(source.contains("GeneratedBeanDefinition.reflectField(org.aot.sub.AotSubBean.class, \"version\")"));
+        assertTrue(source.contains("GeneratedBeanDefinition.reflectField(org.aot.AotService.class, \"lazyBean\")"));
+        assertTrue(source.contains("GeneratedBeanDefinition.reflectMethod(org.aot.AotService.class, \"destroy\")"));
+
+        // 编译生成的源码，并定义在配置类所在的ClassLoader和package中:
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path classes = Files.createDirectories(dir.resolve("classes"));
+        String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        assertEquals(0, compiler.run(null, null, null, "-proc:none", "-classpath", classpath, "-d", classes.toString(), file.toString()));
+        byte[] bytes = Files.readAllBytes(classes.resolve("org/aot/AotApplication__ContextInitializer.class"));
+        MethodHandles.privateLookupIn(AotApplication.class, MethodHandles.lookup()).defineClass(bytes);
+        assertNotNull(ContextInitializer.find(AotApplication.class));
+
+        // 默认不使用生成的初始化器:
+        try (var defaultCtx = new AnnotationConfigApplicationContext(AotApplication.class, new PropertyResolver(createProperties()))) {
+            defaultCtx.beans.values().forEach(def -> assertFalse(def instanceof GeneratedBeanDefinition));
+        }
+
+        // 设置demo.context.aot=true时使用生成的初始化器启动:
+        var aotProps = createProperties();
+        aotProps.put("demo.context.aot", "true");
+        var ctx = new AnnotationConfigApplicationContext(AotApplication.class, new PropertyResolver(aotProps));
+        assertEquals(beanNames, Set.copyOf(ctx.beans.keySet()));
+        ctx.beans.values().forEach(def -> assertInstanceOf(GeneratedBeanDefinition.class, def));
+        AotService service = ctx.getBean(AotService.class);
+        assertEquals("Aot App", service.getTitle());
+        assertTrue(service.isRepositoryInitialized());
+        assertEquals(ZoneId.of("Asia/Shanghai"), service.zone);
+        assertSame(ctx.getBean("aotZone"), service.zone);
+        assertEquals("v1.0", ctx.getBean(AotSubBean.class).getVersion());
+        // @Lazy的Bean在第一次获取时创建:
+        assertNull(ctx.findBeanDefinition(AotLazyBean.class).getInstance());
+        AotLazyBean lazyBean = service.getLazyBean();
+        assertNotNull(lazyBean);
+        assertSame(lazyBean, ctx.getBean(AotLazyBean.class));
+        ctx.close();
+        assertTrue(service.destroyed);
+
+        // 显式设置demo.context.aot=false时同样忽略:
+        try (var reflectCtx = new AnnotationConfigApplicationContext(AotApplication.class, new PropertyResolver(ps))) {
+            reflectCtx.beans.values().forEach(def -> assertFalse(def instanceof GeneratedBeanDefinition));
+        }
+    }
+
+    Properties createProperties() {
+        var ps = new Properties();
+        ps.put("app.title", "Aot App");
+        ps.put("app.version", "v1.0");
+        return ps;
+    }
+}
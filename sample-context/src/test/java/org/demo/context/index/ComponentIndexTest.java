@@ -0,0 +1,53 @@
+package org.demo.context.index;
+
+import org.demo.io.Resource;
+import org.demo.io.ResourceResolver;
+import org.imported.LocalDateConfiguration;
+import org.junit.jupiter.api.Test;
+import org.scan.custom.annotation.CustomAnnotationBean;
+import org.scan.init.SpecifyInitBean;
+import org.scan.init.SpecifyInitConfiguration;
+import org.scan.nested.OuterBean;
+import org.scan.sub1.sub2.sub3.Sub3Bean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentIndexTest {
+
+    @Test
+    public void testIndexGeneratedAtCompileTime() {
+        // 测试代码编译时由ComponentIndexer生成:
+        ComponentIndex index = ComponentIndex.load();
+        assertNotNull(index);
+
+        List<String> classes = index.getCandidateTypes("org.scan");
+        // @Configuration:
+        assertTrue(classes.contains(SpecifyInitConfiguration.class.getName()));
+        // @CustomAnnotation:
+        assertTrue(classes.contains(CustomAnnotationBean.class.getName()));
+        // nested:
+        assertTrue(classes.contains(OuterBean.class.getName()));
+        assertTrue(classes.contains(OuterBean.NestedBean.class.getName()));
+        // sub package:
+        assertTrue(classes.contains(Sub3Bean.class.getName()));
+        // not a component:
+        assertFalse(classes.contains(SpecifyInitBean.class.getName()));
+        // not in package:
+        assertFalse(classes.contains(LocalDateConfiguration.class.getName()));
+        assertFalse(index.getCandidateTypes("org.sc").contains(SpecifyInitConfiguration.class.getName()));
+    }
+
+    @Test
+    public void testSkipIndexedRoots() throws Exception {
+        ComponentIndex index = ComponentIndex.load();
+        assertNotNull(index);
+        // 测试代码的根目录有索引:
+        String testClasses = getClass().getProtectionDomain().getCodeSource().getLocation().toURI().toString();
+        assertTrue(index.isIndexed(testClasses));
+        // 带索引的根目录不再扫描，没有索引的根目录仍然扫描:
+        assertTrue(new ResourceResolver("org.scan", index::isIndexed).scan(Resource::name).isEmpty());
+        assertFalse(new ResourceResolver("org.demo.io", index::isIndexed).scan(Resource::name).isEmpty());
+    }
+}
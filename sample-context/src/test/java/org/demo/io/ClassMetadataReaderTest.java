@@ -0,0 +1,112 @@
+package org.demo.io;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.Configuration;
+import org.junit.jupiter.api.Test;
+import org.scan.custom.annotation.CustomAnnotation;
+import org.scan.custom.annotation.CustomAnnotationBean;
+import org.scan.init.SpecifyInitBean;
+import org.scan.init.SpecifyInitConfiguration;
+import org.scan.nested.OuterBean;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.time.DayOfWeek;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassMetadataReaderTest {
+
+    final ClassMetadataReader reader = new ClassMetadataReader();
+
+    @Test
+    public void readScannedResource() {
+        // 目录中的类:
+        List<ClassMetadata> classes = new ResourceResolver("org.scan.custom").scan(res -> res.name().endsWith(".class") ? reader.getMetadata(res) : null);
+        assertTrue(classes.stream().anyMatch(md -> md.className().equals(CustomAnnotationBean.class.getName())));
+        // jar包中的类:
+        List<ClassMetadata> jarClasses = new ResourceResolver("jakarta.annotation.security").scan(res -> res.name().endsWith(".class") ? reader.getMetadata(res) : null);
+        assertTrue(jarClasses.stream().anyMatch(md -> md.className().equals("jakarta.annotation.security.PermitAll") && md.isAnnotation()));
+    }
+
+    @Test
+    public void readComponent() {
+        ClassMetadata md = reader.getMetadata(SpecifyInitConfiguration.class.getName());
+        assertEquals(SpecifyInitConfiguration.class.getName(), md.className());
+        assertEquals("java.lang.Object", md.superClassName());
+        assertTrue(md.annotationNames().contains(Configuration.class.getName()));
+        // @Configuration标注了@Component:
+        assertTrue(reader.isAnnotated(md, Component.class.getName()));
+        assertTrue(reader.isAnnotated(md, Configuration.class.getName()));
+    }
+
+    @Test
+    public void readMetaAnnotation() {
+        ClassMetadata md = reader.getMetadata(CustomAnnotationBean.class.getName());
+        assertEquals(1, md.annotationNames().size());
+        assertTrue(reader.isAnnotated(md, Component.class.getName()));
+
+        ClassMetadata nested = reader.getMetadata(OuterBean.NestedBean.class.getName());
+        assertTrue(reader.isAnnotated(nested, Component.class.getName()));
+    }
+
+    @Test
+    public void readNonComponent() {
+        ClassMetadata md = reader.getMetadata(SpecifyInitBean.class.getName());
+        assertTrue(md.annotationNames().isEmpty());
+        assertFalse(reader.isAnnotated(md, Component.class.getName()));
+        assertNull(reader.getMetadata("org.scan.NotExist"));
+    }
+
+    @Test
+    public void readTypeKinds() {
+        ClassMetadata anno = reader.getMetadata(CustomAnnotation.class.getName());
+        assertTrue(anno.isAnnotation());
+        assertTrue(anno.isInterface());
+
+        ClassMetadata enumType = reader.getMetadata(DayOfWeek.class.getName());
+        assertTrue(enumType.isEnum());
+        assertTrue(enumType.interfaceNames().contains("java.time.temporal.TemporalAccessor"));
+
+        ClassMetadata recordType = reader.getMetadata(Point.class.getName());
+        assertTrue(recordType.isRecord());
+        assertTrue(recordType.annotationNames().contains(Deprecated.class.getName()));
+    }
+
+    @Test
+    public void readCyclicMetaAnnotation() {
+        // 先扫描@CycleA，查找@CycleB的元注解时@CycleA正在查找中而被跳过:
+        assertTrue(reader.isAnnotated(reader.getMetadata(CycleABean.class.getName()), Component.class.getName()));
+        // @CycleB -> @CycleA -> @CycleC -> @Component:
+        assertTrue(reader.isAnnotated(reader.getMetadata(CycleBBean.class.getName()), Component.class.getName()));
+    }
+
+    @Deprecated
+    record Point(int x, int y) {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @CycleB
+    @CycleC
+    @interface CycleA {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @CycleA
+    @interface CycleB {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Component
+    @interface CycleC {
+    }
+
+    @CycleA
+    static class CycleABean {
+    }
+
+    @CycleB
+    static class CycleBBean {
+    }
+}
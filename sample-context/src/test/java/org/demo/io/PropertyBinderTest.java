@@ -0,0 +1,119 @@
+package org.demo.io;
+
+import org.binding.ClientSettings;
+import org.binding.ServerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyBinderTest {
+
+    @Test
+    public void bindRecord() {
+        var props = new Properties();
+        props.setProperty("app.server.host", "${SERVER_HOST_NOT_EXIST:localhost}");
+        props.setProperty("app.server.port", "8080");
+        props.setProperty("app.server.timeout", "PT30S");
+        props.setProperty("app.server.max-upload", "10MB");
+        props.setProperty("app.server.mode", "read-only");
+        props.setProperty("app.server.tags", "a, b,c");
+        props.setProperty("app.server.endpoints.api.path", "/api");
+        props.setProperty("app.server.endpoints.api.methods[0]", "GET");
+        props.setProperty("app.server.endpoints.api.methods[1]", "POST");
+        props.setProperty("app.server.endpoints.admin.path", "/admin");
+        props.setProperty("app.server.tls.enabled", "true");
+        props.setProperty("app.server.tls.protocols", "TLSv1.3,TLSv1.2,TLSv1.3");
+
+        var binder = new PropertyBinder(new PropertyResolver(props));
+        ServerProperties server = binder.bind("app.server", ServerProperties.class);
+        assertEquals("localhost", server.host());
+        assertEquals(8080, server.port());
+        assertEquals(Duration.ofSeconds(30), server.timeout());
+        assertEquals(DataSize.ofMegabytes(10), server.maxUpload());
+        assertEquals(ServerProperties.Mode.READ_ONLY, server.mode());
+        assertEquals(List.of("a", "b", "c"), server.tags());
+        assertEquals(List.of("admin", "api"), List.copyOf(server.endpoints().keySet()));
+        assertEquals(new ServerProperties.Endpoint("/api", List.of("GET", "POST")), server.endpoints().get("api"));
+        assertEquals(new ServerProperties.Endpoint("/admin", null), server.endpoints().get("admin"));
+        assertEquals(new ServerProperties.Tls(true, Set.of("TLSv1.3", "TLSv1.2")), server.tls());
+    }
+
+    @Test
+    public void bindMissing() {
+        var binder = new PropertyBinder(new PropertyResolver(new Properties()));
+        ServerProperties server = binder.bind("app.server", ServerProperties.class);
+        assertNull(server.host());
+        assertEquals(0, server.port());
+        assertNull(server.tags());
+        assertNull(server.endpoints());
+        assertNull(server.tls());
+
+        ClientSettings client = binder.bind("app.client", ClientSettings.class);
+        assertEquals("default", client.getName());
+        assertEquals(3, client.getRetries());
+    }
+
+    @Test
+    public void bindPojo() {
+        var props = new Properties();
+        props.setProperty("app.client.name", "demo");
+        props.setProperty("app.client.backends[0].url", "http://a");
+        props.setProperty("app.client.backends[1].url", "http://b");
+        props.setProperty("app.client.backends[1].weight", "5");
+        props.setProperty("app.client.backends[10].url", "http://c");
+
+        var binder = new PropertyBinder(new PropertyResolver(props));
+        ClientSettings client = binder.bind("app.client", ClientSettings.class);
+        assertEquals("demo", client.getName());
+        assertEquals(3, client.getRetries());
+        assertEquals(List.of("http://a", "http://b", "http://c"), client.getBackendUrls());
+        assertEquals(List.of(1, 5, 1), client.getBackendWeights());
+    }
+
+    @Test
+    public void bindMap() {
+        var props = new Properties();
+        props.setProperty("app.limits.per-second", "100");
+        props.setProperty("app.limits.per-minute", "1000");
+        props.setProperty("app.labels.team.name", "core");
+
+        record Settings(Map<String, Integer> limits, Map<String, String> labels) {
+        }
+        var binder = new PropertyBinder(new PropertyResolver(props));
+        Settings settings = binder.bind("app", Settings.class);
+        assertEquals(Map.of("per-second", 100, "per-minute", 1000), settings.limits());
+        assertEquals(Map.of("team.name", "core"), settings.labels());
+    }
+
+    @Test
+    public void bindInvalid() {
+        var props = new Properties();
+        props.setProperty("app.server.port", "http");
+        props.setProperty("app.server.mode", "cluster");
+
+        var binder = new PropertyBinder(new PropertyResolver(props));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> {
+            binder.bind("app.server", ServerProperties.class);
+        });
+        assertTrue(e.getMessage().contains("app.server.port"));
+        assertThrows(IllegalArgumentException.class, () -> {
+            binder.bind("app.server", Duration.class);
+        });
+    }
+
+    @Test
+    public void dataSize() {
+        assertEquals(100, DataSize.parse("100").bytes());
+        assertEquals(512 * 1024, DataSize.parse("512KB").bytes());
+        assertEquals(2L * 1024 * 1024 * 1024, DataSize.parse("2 gb").bytes());
+        assertThrows(IllegalArgumentException.class, () -> {
+            DataSize.parse("1TB");
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package org.demo.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyFileWatcherTest {
+
+    @Test
+    public void reloadOnChange(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("application.properties");
+        Files.writeString(file, "app.pool.size=10\n");
+        var props = new Properties();
+        props.setProperty("app.pool.size", "10");
+        var pr = new PropertyResolver(props);
+        try (var watcher = new PropertyFileWatcher(pr, file, input -> {
+            var p = new Properties();
+            p.load(input);
+            return PropertyResolver.toMap(p);
+        })) {
+            Files.writeString(file, "app.pool.size=20\napp.pool.idle=5\n");
+            assertTrue(waitFor(() -> Integer.valueOf(20).equals(pr.getProperty("app.pool.size", int.class))));
+            assertEquals("5", pr.getProperty("app.pool.idle"));
+            // 其他文件的修改不影响:
+            Files.writeString(dir.resolve("other.properties"), "app.pool.size=30\n");
+            Thread.sleep(300);
+            assertEquals(20, pr.getProperty("app.pool.size", int.class));
+        }
+    }
+
+    @Test
+    public void keepPropertiesOnError(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("application.properties");
+        Files.writeString(file, "app.pool.size=10\n");
+        var pr = new PropertyResolver(new Properties());
+        try (var watcher = new PropertyFileWatcher(pr, file, input -> {
+            throw new IllegalArgumentException("invalid config");
+        })) {
+            assertFalse(watcher.reload());
+            assertNull(pr.getProperty("app.pool.size"));
+        }
+    }
+
+    static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
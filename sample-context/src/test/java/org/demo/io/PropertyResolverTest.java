@@ -8,7 +8,11 @@ import org.junit.jupiter.api.condition.OS;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,6 +89,111 @@ class PropertyResolverTest {
         assertEquals("/not-exist", pr.getProperty("${app.path:${app.home:${ENV_NOT_EXIST:/not-exist}}}"));
     }
 
+    @Test
+    public void nestedAndEmbeddedPlaceholder() {
+        var props = new Properties();
+        props.setProperty("db.host", "localhost");
+        props.setProperty("db.port", "3306");
+        props.setProperty("db.url", "jdbc:mysql://${db.host}:${db.port:3306}/${db.name:${app.name:demo}}");
+        props.setProperty("app.title", "${app.name:Demo} ${app.version:v1.0}");
+        props.setProperty("app.json", "${app.json-default:{\"a\":{}}}");
+
+        var pr = new PropertyResolver(props);
+        assertEquals("jdbc:mysql://localhost:3306/demo", pr.getProperty("db.url"));
+        assertEquals("Demo v1.0", pr.getProperty("app.title"));
+        assertEquals("{\"a\":{}}", pr.getProperty("app.json"));
+        assertEquals("localhost:3306", pr.getProperty("${db.host}:${db.port}"));
+        assertEquals("b", pr.getProperty("${a:${b:${c:b}}}"));
+        assertEquals("", pr.getProperty("${app.empty:}"));
+        assertEquals(3306, pr.getProperty("${db.port:0}", int.class));
+        assertEquals("localhost/demo", pr.getProperty("app.author", "${db.host}/${app.name:demo}"));
+        // 没有闭合的占位符按普通文本处理:
+        assertEquals("${db.host", pr.getProperty("app.author", "${db.host"));
+        assertEquals("prefix-${db.port:1", pr.getProperty("app.author", "prefix-${db.port:1"));
+        assertThrows(NullPointerException.class, () -> {
+            pr.getProperty("${db.host}:${db.user}");
+        });
+    }
+
+    @Test
+    public void circularPlaceholder() {
+        var props = new Properties();
+        props.setProperty("a", "${b}");
+        props.setProperty("b", "x-${a}");
+
+        var pr = new PropertyResolver(props);
+        assertThrows(IllegalArgumentException.class, () -> {
+            pr.getProperty("a");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            pr.getProperty("${b:none}");
+        });
+    }
+
+    @Test
+    public void cachedValues() {
+        var props = new Properties();
+        props.setProperty("scheduler.started-at", "2023-03-29T21:45:01");
+        props.setProperty("scheduler.zone", "${TZ_NOT_EXIST:Asia/Shanghai}");
+
+        var pr = new PropertyResolver(props);
+        LocalDateTime startedAt = pr.getProperty("scheduler.started-at", LocalDateTime.class);
+        assertSame(startedAt, pr.getProperty("scheduler.started-at", LocalDateTime.class));
+        assertEquals(ZoneId.of("Asia/Shanghai"), pr.getProperty("scheduler.zone", ZoneId.class));
+        assertSame(pr.getProperty("scheduler.zone"), pr.getProperty("scheduler.zone"));
+        assertSame(pr.compile("${scheduler.zone}"), pr.compile("${scheduler.zone}"));
+        assertNull(pr.getProperty("scheduler.stopped-at", LocalDateTime.class));
+        assertEquals(startedAt, pr.getProperty("scheduler.stopped-at", LocalDateTime.class, startedAt));
+    }
+
+    @Test
+    public void reload() {
+        var props = new Properties();
+        props.setProperty("app.title", "Demo");
+        props.setProperty("app.pool.size", "10");
+        props.setProperty("app.pool.timeout", "PT30S");
+        props.setProperty("app.url", "http://${app.host:localhost}/");
+
+        var pr = new PropertyResolver(props);
+        String fingerprint = pr.getFingerprint();
+        assertEquals(10, pr.getProperty("app.pool.size", int.class));
+        assertEquals("http://localhost/", pr.getProperty("app.url"));
+        List<Set<String>> poolChanges = new ArrayList<>();
+        List<Set<String>> allChanges = new ArrayList<>();
+        pr.addChangeListener("app.pool.", (resolver, keys) -> {
+            assertSame(pr, resolver);
+            // 回调时已经可以读取新的属性:
+            assertEquals(20, resolver.getProperty("app.pool.size", int.class));
+            poolChanges.add(keys);
+        });
+        pr.addChangeListener("", (resolver, keys) -> {
+            allChanges.add(keys);
+            throw new IllegalStateException("listener failed");
+        });
+
+        var updated = new Properties();
+        updated.setProperty("app.title", "Demo");
+        updated.setProperty("app.pool.size", "20");
+        updated.setProperty("app.pool.idle", "5");
+        updated.setProperty("app.host", "example.com");
+        updated.setProperty("app.url", "http://${app.host:localhost}/");
+        // app.url的原始值不变，但解析结果随app.host变化:
+        assertEquals(Set.of("app.pool.size", "app.pool.idle", "app.pool.timeout", "app.host", "app.url"), pr.reload(updated));
+        assertEquals(List.of(Set.of("app.pool.idle", "app.pool.size", "app.pool.timeout")), poolChanges);
+        assertEquals(1, allChanges.size());
+        // 缓存的解析结果随快照一起替换:
+        assertEquals(20, pr.getProperty("app.pool.size", int.class));
+        assertNull(pr.getProperty("app.pool.timeout", Duration.class));
+        assertEquals("http://example.com/", pr.getProperty("app.url"));
+        assertEquals(Set.of("app.pool.idle", "app.pool.size"), pr.getPropertyNames("app.pool."));
+        assertNotEquals(fingerprint, pr.getFingerprint());
+
+        // 没有变化时不回调:
+        assertTrue(pr.reload(updated).isEmpty());
+        assertEquals(1, poolChanges.size());
+        assertEquals(1, allChanges.size());
+    }
+
     @Test
     @EnabledOnOs(OS.WINDOWS)
     public void propertyHolderOnWin() {
@@ -6,11 +6,24 @@ import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.sql.DataSourceDefinition;
 import jakarta.annotation.sub.AnnoScan;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ResourceResolverTest {
@@ -69,6 +82,48 @@ class ResourceResolverTest {
         assertTrue(classes.contains(AnnoScan.class.getName()));
     }
 
+    @Test
+    public void scanJarRepeatedly() throws Exception {
+        var pkg = PostConstruct.class.getPackageName();
+        // 重复扫描同一个jar包不会因为FileSystem已存在而失败:
+        for (int i = 0; i < 3; i++) {
+            List<String> names = new ResourceResolver(pkg).scan(Resource::name);
+            assertTrue(names.contains("jakarta/annotation/PostConstruct.class"));
+        }
+        Path jar = Paths.get(PostConstruct.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        // 条目列表已缓存:
+        assertSame(JarEntryCache.getEntries(jar), JarEntryCache.getEntries(jar));
+        List<String> entries = JarEntryCache.getEntryNames(jar, "jakarta/annotation/security/");
+        assertTrue(entries.contains("jakarta/annotation/security/PermitAll.class"));
+        assertFalse(entries.contains("jakarta/annotation/PostConstruct.class"));
+    }
+
+    @Test
+    public void evictStaleJarEntries(@TempDir Path dir) throws Exception {
+        Path jar = dir.resolve("stale.jar");
+        writeJar(jar, "a/A.class");
+        assertEquals(List.of("a/A.class"), JarEntryCache.getEntryNames(jar, "a/"));
+        // jar变化后移除旧的条目:
+        writeJar(jar, "a/A.class", "a/B.class");
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        JarEntryCache.evictStale();
+        assertFalse(JarEntryCache.cache.containsKey(jar.toAbsolutePath().normalize()));
+        assertEquals(List.of("a/A.class", "a/B.class"), JarEntryCache.getEntryNames(jar, "a/"));
+        // jar删除后移除:
+        Files.delete(jar);
+        assertThrows(NoSuchFileException.class, () -> JarEntryCache.getEntries(jar));
+        assertFalse(JarEntryCache.cache.containsKey(jar.toAbsolutePath().normalize()));
+    }
+
+    void writeJar(Path jar, String... names) throws Exception {
+        try (var out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            for (String name : names) {
+                out.putNextEntry(new ZipEntry(name));
+                out.closeEntry();
+            }
+        }
+    }
+
     @Test
     public void scanTxt() {
         var pkg = "org.demo.scan";
@@ -88,4 +143,19 @@ class ResourceResolverTest {
                 "org/demo/scan/sub1/sub2/sub3/sub3.txt", //
         }, classes.toArray(String[]::new));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void streamTxt() {
+        var pkg = "org.demo.scan";
+        var rr = new ResourceResolver(pkg);
+        try (Stream<String> stream = rr.stream(res -> res.name().endsWith(".txt") ? res.name().replace("\\", "/") : null)) {
+            // 并行扫描:
+            assertTrue(stream.isParallel());
+            assertArrayEquals(new String[]{
+                    "org/demo/scan/sub1/sub1.txt", //
+                    "org/demo/scan/sub1/sub2/sub2.txt", //
+                    "org/demo/scan/sub1/sub2/sub3/sub3.txt", //
+            }, stream.sorted().toArray(String[]::new));
+        }
+    }
+}
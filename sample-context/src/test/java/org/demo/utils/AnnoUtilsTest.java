@@ -52,6 +52,15 @@ public class AnnoUtilsTest {
         assertEquals("customName", ClassUtils.getBeanName(CustomWithName.class));
     }
 
+    @Test
+    public void cachedAnnotation() throws Exception {
+        // 重复查找返回缓存的结果:
+        assertSame(ClassUtils.findAnnotation(CustomWithName.class, Component.class), ClassUtils.findAnnotation(CustomWithName.class, Component.class));
+        assertNull(ClassUtils.findAnnotation(Simple.class, Configuration.class));
+        assertNull(ClassUtils.findAnnotation(Simple.class, Configuration.class));
+        assertSame(ClassUtils.getBeanName(CustomWithName.class), ClassUtils.getBeanName(CustomWithName.class));
+    }
+
     @Test
     public void duplicateComponent() throws Exception {
         assertThrows(BeanDefinitionException.class, () -> {
@@ -2,10 +2,14 @@ package org.demo.utils;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 class YamlUtilsTest {
 
@@ -26,4 +30,89 @@ class YamlUtilsTest {
         assertEquals("0x1a2b3c", configs.get("other.hex-data"));
         assertEquals("0x1a2b3c", configs.get("other.hex-string"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoadYamlAsPlainMapList() {
+        // loadYamlAsPlainMap()中的列表仍然是List:
+        Map<String, Object> configs = YamlUtils.loadYamlAsPlainMap("/application.yml");
+        assertEquals(List.of("Apple", "Orange", "Pear"), configs.get("other.list"));
+        assertNull(configs.get("other.list[0]"));
+    }
+
+    @Test
+    public void testLoadYamlList() {
+        Map<String, String> configs = YamlUtils.loadYamlInto("/application.yml", new HashMap<>());
+        assertEquals("Apple", configs.get("other.list[0]"));
+        assertEquals("Orange", configs.get("other.list[1]"));
+        assertEquals("Pear", configs.get("other.list[2]"));
+        assertNull(configs.get("other.list"));
+        assertEquals("", configs.get("summer.datasource.password"));
+    }
+
+    @Test
+    public void testProfileDocuments() {
+        String yaml = """
+                app:
+                  name: demo
+                  port: 8080
+                ---
+                demo.config.activate.on-profile: dev
+                app:
+                  port: 8081
+                ---
+                demo.config.activate.on-profile: "!prod"
+                app:
+                  debug: true
+                """;
+        Map<String, String> dev = load(yaml, Set.of("dev"));
+        assertEquals("demo", dev.get("app.name"));
+        assertEquals("8081", dev.get("app.port"));
+        assertEquals("true", dev.get("app.debug"));
+        assertNull(dev.get("demo.config.activate.on-profile"));
+
+        Map<String, String> prod = load(yaml, Set.of("prod"));
+        assertEquals("8080", prod.get("app.port"));
+        assertNull(prod.get("app.debug"));
+        assertNull(prod.get("demo.config.activate.on-profile"));
+    }
+
+    @Test
+    public void testActiveProfilesInYaml() {
+        String yaml = """
+                demo.profiles.active: test
+                app.port: 8080
+                ---
+                demo.config.activate.on-profile: dev, test
+                app.port: 9090
+                """;
+        assertEquals("9090", load(yaml, Set.of()).get("app.port"));
+        // 显式指定的profile优先:
+        assertEquals("8080", load(yaml, Set.of("prod")).get("app.port"));
+    }
+
+    @Test
+    public void testAnchorAndMerge() {
+        String yaml = """
+                defaults: &defaults
+                  pool: 10
+                  timeout: 30s
+                  hosts: [a, b]
+                primary:
+                  <<: *defaults
+                  timeout: 5s
+                backup: *defaults
+                """;
+        Map<String, String> map = load(yaml, Set.of());
+        assertEquals("10", map.get("primary.pool"));
+        assertEquals("5s", map.get("primary.timeout"));
+        assertEquals("b", map.get("primary.hosts[1]"));
+        assertEquals("30s", map.get("backup.timeout"));
+        assertEquals("a", map.get("backup.hosts[0]"));
+        assertFalse(map.containsKey("primary.<<"));
+    }
+
+    static Map<String, String> load(String yaml, Set<String> profiles) {
+        var input = new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8));
+        return YamlUtils.loadYamlInto(input, new HashMap<>(), profiles);
+    }
+}
@@ -0,0 +1,15 @@
+package org.event;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.EventListener;
+
+@Component
+public class AuditListener extends BaseAuditListener {
+
+    // 覆写并再次标注@EventListener，只注册一次:
+    @Override
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        super.onOrderPlaced(event);
+    }
+}
@@ -0,0 +1,16 @@
+package org.event;
+
+import org.demo.annotation.EventListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public abstract class BaseAuditListener {
+
+    public final List<Long> audited = new CopyOnWriteArrayList<>();
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        audited.add(event.orderId);
+    }
+}
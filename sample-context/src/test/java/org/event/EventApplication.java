@@ -0,0 +1,8 @@
+package org.event;
+
+import org.demo.annotation.ComponentScan;
+
+@ComponentScan
+public class EventApplication {
+
+}
@@ -0,0 +1,10 @@
+package org.event;
+
+public class OrderEvent {
+
+    public final long orderId;
+
+    public OrderEvent(long orderId) {
+        this.orderId = orderId;
+    }
+}
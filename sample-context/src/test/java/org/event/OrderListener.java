@@ -0,0 +1,30 @@
+package org.event;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.EventListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+@Component
+public class OrderListener {
+
+    public final List<Long> placed = new CopyOnWriteArrayList<>();
+    public final List<String> asyncThreads = new CopyOnWriteArrayList<>();
+    public final CountDownLatch asyncLatch = new CountDownLatch(1);
+
+    @EventListener
+    void onOrderPlaced(OrderPlacedEvent event) {
+        if (event.orderId < 0) {
+            throw new IllegalArgumentException("Invalid order id: " + event.orderId);
+        }
+        placed.add(event.orderId);
+    }
+
+    @EventListener(async = true)
+    void onOrderEvent(OrderEvent event) {
+        asyncThreads.add(Thread.currentThread().getName());
+        asyncLatch.countDown();
+    }
+}
@@ -0,0 +1,8 @@
+package org.event;
+
+public class OrderPlacedEvent extends OrderEvent {
+
+    public OrderPlacedEvent(long orderId) {
+        super(orderId);
+    }
+}
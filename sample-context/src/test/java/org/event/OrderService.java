@@ -0,0 +1,16 @@
+package org.event;
+
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+import org.demo.context.ApplicationEventPublisher;
+
+@Component
+public class OrderService {
+
+    @Autowired
+    public ApplicationEventPublisher publisher;
+
+    public void placeOrder(long orderId) {
+        publisher.publishEvent(new OrderPlacedEvent(orderId));
+    }
+}
@@ -0,0 +1,11 @@
+package org.pooled;
+
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+
+@Component
+public class DigestClient {
+
+    @Autowired
+    public Digester digester;
+}
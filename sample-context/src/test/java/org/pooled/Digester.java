@@ -0,0 +1,6 @@
+package org.pooled;
+
+public interface Digester {
+
+    String digest(String input);
+}
@@ -0,0 +1,8 @@
+package org.pooled;
+
+import org.demo.annotation.ComponentScan;
+
+@ComponentScan
+public class PooledApplication {
+
+}
@@ -0,0 +1,57 @@
+package org.pooled;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.demo.annotation.Component;
+import org.demo.annotation.Scope;
+import org.demo.annotation.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MessageDigest不是线程安全的，每个实例同时只能被一个线程使用
+ */
+@Component
+@Scope(Scope.POOLED)
+public class Sha256Digester implements Digester {
+
+    public static final AtomicInteger initialized = new AtomicInteger();
+    public static final AtomicInteger destroyed = new AtomicInteger();
+
+    final MessageDigest md;
+    final String salt;
+    boolean busy = false;
+
+    public Sha256Digester(@Value("${digest.salt:}") String salt) throws NoSuchAlgorithmException {
+        this.md = MessageDigest.getInstance("SHA-256");
+        this.salt = salt;
+    }
+
+    @PostConstruct
+    void init() {
+        initialized.incrementAndGet();
+    }
+
+    @Override
+    public String digest(String input) {
+        if (busy) {
+            throw new IllegalStateException("Concurrent access.");
+        }
+        busy = true;
+        try {
+            md.update(salt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(md.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            busy = false;
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        destroyed.incrementAndGet();
+    }
+}
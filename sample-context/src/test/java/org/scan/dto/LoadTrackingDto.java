@@ -0,0 +1,15 @@
+package org.scan.dto;
+
+/**
+ * 不是Bean，组件扫描时不应被加载
+ */
+public class LoadTrackingDto {
+
+    public static final String LOADED_PROPERTY = "org.scan.dto.LoadTrackingDto.loaded";
+
+    static {
+        System.setProperty(LOADED_PROPERTY, "true");
+    }
+
+    public String name;
+}
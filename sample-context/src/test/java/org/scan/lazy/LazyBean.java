@@ -0,0 +1,21 @@
+package org.scan.lazy;
+
+import jakarta.annotation.PostConstruct;
+import org.demo.annotation.Component;
+import org.demo.annotation.Lazy;
+import org.demo.annotation.Value;
+
+@Lazy
+@Component
+public class LazyBean {
+
+    @Value("${app.title}")
+    public String appTitle;
+
+    public boolean initialized = false;
+
+    @PostConstruct
+    void init() {
+        this.initialized = true;
+    }
+}
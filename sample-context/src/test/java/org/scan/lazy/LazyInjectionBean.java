@@ -0,0 +1,20 @@
+package org.scan.lazy;
+
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+import org.demo.annotation.Lazy;
+import org.demo.context.BeanProvider;
+
+@Component
+public class LazyInjectionBean {
+
+    @Lazy
+    @Autowired
+    public LazyService lazyService;
+
+    public final BeanProvider<LazyBean> lazyBeanProvider;
+
+    public LazyInjectionBean(@Autowired BeanProvider<LazyBean> lazyBeanProvider) {
+        this.lazyBeanProvider = lazyBeanProvider;
+    }
+}
@@ -0,0 +1,6 @@
+package org.scan.lazy;
+
+public interface LazyService {
+
+    String hello(String name);
+}
@@ -0,0 +1,14 @@
+package org.scan.lazy;
+
+import org.demo.annotation.Component;
+import org.demo.annotation.Lazy;
+
+@Lazy
+@Component
+public class LazyServiceImpl implements LazyService {
+
+    @Override
+    public String hello(String name) {
+        return "Hello, " + name;
+    }
+}
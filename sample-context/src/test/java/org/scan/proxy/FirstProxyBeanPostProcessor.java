@@ -6,7 +6,7 @@ import org.demo.context.BeanPostProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
 @Order(100)
@@ -16,7 +16,7 @@ public class FirstProxyBeanPostProcessor implements BeanPostProcessor {
     final Logger logger = LoggerFactory.getLogger(getClass());
 
     // 保存原始Bean:
-    Map<String, Object> originBeans = new HashMap<>();
+    Map<String, Object> originBeans = new ConcurrentHashMap<>();
 
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) {
@@ -0,0 +1,12 @@
+package org.shutdown;
+
+import org.demo.annotation.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class DestroyRecorder {
+
+    public final List<String> destroyed = new CopyOnWriteArrayList<>();
+}
@@ -0,0 +1,8 @@
+package org.shutdown;
+
+import org.demo.annotation.ComponentScan;
+
+@ComponentScan
+public class ShutdownApplication {
+
+}
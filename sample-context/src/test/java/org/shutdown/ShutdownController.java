@@ -0,0 +1,20 @@
+package org.shutdown;
+
+import jakarta.annotation.PreDestroy;
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+
+@Component
+public class ShutdownController {
+
+    @Autowired
+    ShutdownService service;
+
+    @Autowired
+    DestroyRecorder recorder;
+
+    @PreDestroy
+    void destroy() {
+        recorder.destroyed.add("controller");
+    }
+}
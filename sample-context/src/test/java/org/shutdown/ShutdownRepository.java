@@ -0,0 +1,18 @@
+package org.shutdown;
+
+import jakarta.annotation.PreDestroy;
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+
+@Component
+public class ShutdownRepository {
+
+    @Autowired
+    DestroyRecorder recorder;
+
+    @PreDestroy
+    void destroy() throws InterruptedException {
+        Thread.sleep(20);
+        recorder.destroyed.add("repository");
+    }
+}
@@ -0,0 +1,23 @@
+package org.shutdown;
+
+import jakarta.annotation.PreDestroy;
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+
+@Component
+public class ShutdownService {
+
+    final ShutdownRepository repository;
+    final DestroyRecorder recorder;
+
+    public ShutdownService(@Autowired ShutdownRepository repository, @Autowired DestroyRecorder recorder) {
+        this.repository = repository;
+        this.recorder = recorder;
+    }
+
+    @PreDestroy
+    void destroy() throws InterruptedException {
+        Thread.sleep(20);
+        recorder.destroyed.add("service");
+    }
+}
@@ -0,0 +1,25 @@
+package org.shutdown;
+
+import jakarta.annotation.PreDestroy;
+import org.demo.annotation.Autowired;
+import org.demo.annotation.Component;
+import org.demo.annotation.Value;
+
+/**
+ * destroy方法耗时由shutdown.slow-millis设置，例如等待连接池中的连接归还
+ */
+@Component
+public class SlowBean {
+
+    @Autowired
+    DestroyRecorder recorder;
+
+    @Value("${shutdown.slow-millis:0}")
+    long slowMillis;
+
+    @PreDestroy
+    void destroy() throws InterruptedException {
+        Thread.sleep(slowMillis);
+        recorder.destroyed.add("slow");
+    }
+}
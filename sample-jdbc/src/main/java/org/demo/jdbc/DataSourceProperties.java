@@ -0,0 +1,74 @@
+package org.demo.jdbc;
+
+import org.demo.annotation.ConfigurationProperties;
+
+/**
+ * 连接池配置，绑定"demo.datasource"下的属性，未设置的属性使用字段的初始值
+ */
+@ConfigurationProperties(prefix = "demo.datasource")
+public class DataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private int maximumPoolSize = 20;
+    private int minimumPoolSize = 1;
+    private int connectionTimeout = 30000;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getMinimumPoolSize() {
+        return minimumPoolSize;
+    }
+
+    public void setMinimumPoolSize(int minimumPoolSize) {
+        this.minimumPoolSize = minimumPoolSize;
+    }
+
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+}
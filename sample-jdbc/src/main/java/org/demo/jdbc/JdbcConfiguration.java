@@ -1,46 +1,49 @@
 package org.demo.jdbc;
 
 import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
 import org.demo.annotation.Autowired;
 import org.demo.annotation.Bean;
+import org.demo.annotation.ConditionalOnMissingBean;
+import org.demo.annotation.ConditionalOnProperty;
 import org.demo.annotation.Configuration;
-import org.demo.annotation.Value;
+import org.demo.io.PropertyResolver;
 import org.demo.jdbc.tx.DataSourceTransactionManager;
 import org.demo.jdbc.tx.PlatformTransactionManager;
 import org.demo.jdbc.tx.TransactionalBeanPostProcessor;
 
 import javax.sql.DataSource;
 
+/**
+ * 未设置demo.datasource.url时不创建连接池，已定义DataSource或JdbcTemplate时使用已定义的Bean。
+ * <p>
+ * 事务相关的Bean始终创建，既没有连接池也没有其他DataSource时启动失败，不会让@Transactional的Bean在没有事务的情况下运行。
+ */
 @Configuration
 public class JdbcConfiguration {
 
+    static final String PROPERTIES_PREFIX = "demo.datasource";
+
     @Bean(destroyMethod = "close")
-    DataSource dataSource(
-            // properties:
-            @Value("${demo.datasource.url}") String url,
-            @Value("${demo.datasource.username}") String username,
-            @Value("${demo.datasource.password}") String password,
-            @Value("${demo.datasource.driver-class-name:}") String driver,
-            @Value("${demo.datasource.maximum-pool-size:20}") int maximumPoolSize,
-            @Value("${demo.datasource.minimum-pool-size:1}") int minimumPoolSize,
-            @Value("${demo.datasource.connection-timeout:30000}") int connTimeout
-    ) {
+    @ConditionalOnProperty(name = "demo.datasource.url")
+    @ConditionalOnMissingBean
+    DataSource dataSource(DataSourceProperties properties, @Autowired PropertyResolver propertyResolver) {
         var config = new HikariConfig();
         config.setAutoCommit(false);
-        config.setJdbcUrl(url);
-        config.setUsername(username);
-        config.setPassword(password);
-        if (driver != null) {
-            config.setDriverClassName(driver);
+        config.setJdbcUrl(properties.getUrl());
+        config.setUsername(properties.getUsername());
+        config.setPassword(properties.getPassword());
+        if (properties.getDriverClassName() != null && !properties.getDriverClassName().isEmpty()) {
+            config.setDriverClassName(properties.getDriverClassName());
         }
-        config.setMaximumPoolSize(maximumPoolSize);
-        config.setMinimumIdle(minimumPoolSize);
-        config.setConnectionTimeout(connTimeout);
-        return new HikariDataSource(config);
+        config.setMaximumPoolSize(properties.getMaximumPoolSize());
+        config.setMinimumIdle(properties.getMinimumPoolSize());
+        config.setConnectionTimeout(properties.getConnectionTimeout());
+        // 重新加载配置后调整连接池大小和超时，关闭时移除回调:
+        return new ReloadableDataSource(config, propertyResolver, PROPERTIES_PREFIX);
     }
 
     @Bean
+    @ConditionalOnMissingBean
     JdbcTemplate jdbcTemplate(@Autowired DataSource dataSource) {
         return new JdbcTemplate(dataSource);
     }
@@ -0,0 +1,42 @@
+package org.demo.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.demo.io.PropertyBinder;
+import org.demo.io.PropertyChangeListener;
+import org.demo.io.PropertyResolver;
+
+import java.util.Set;
+
+/**
+ * 重新加载配置后调整连接池大小和超时的HikariDataSource，url等连接参数需要重启。
+ * <p>
+ * 关闭时移除注册在PropertyResolver上的回调，避免PropertyResolver在ApplicationContext关闭后仍持有已关闭的连接池。
+ */
+class ReloadableDataSource extends HikariDataSource implements PropertyChangeListener {
+
+    private final PropertyResolver propertyResolver;
+    private final String prefix;
+
+    ReloadableDataSource(HikariConfig config, PropertyResolver propertyResolver, String prefix) {
+        super(config);
+        this.propertyResolver = propertyResolver;
+        this.prefix = prefix;
+        propertyResolver.addChangeListener(prefix, this);
+    }
+
+    @Override
+    public void onChange(PropertyResolver propertyResolver, Set<String> changedKeys) {
+        var changed = new PropertyBinder(propertyResolver).bind(this.prefix, DataSourceProperties.class);
+        var pool = getHikariConfigMXBean();
+        pool.setMaximumPoolSize(changed.getMaximumPoolSize());
+        pool.setMinimumIdle(changed.getMinimumPoolSize());
+        pool.setConnectionTimeout(changed.getConnectionTimeout());
+    }
+
+    @Override
+    public void close() {
+        this.propertyResolver.removeChangeListener(this);
+        super.close();
+    }
+}
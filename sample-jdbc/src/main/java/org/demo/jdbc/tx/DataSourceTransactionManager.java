@@ -1,5 +1,7 @@
 package org.demo.jdbc.tx;
 
+import org.demo.aop.MethodInterceptor;
+import org.demo.aop.MethodInvocation;
 import org.demo.exception.TransactionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +14,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 
 
-public class DataSourceTransactionManager implements PlatformTransactionManager, InvocationHandler {
+public class DataSourceTransactionManager implements PlatformTransactionManager, MethodInterceptor, InvocationHandler {
     // 用于存储当前线程的事务状态
     static final ThreadLocal<TransactionStatus> transactionStatus = new ThreadLocal<>();
     // 获取日志记录器
@@ -27,15 +29,13 @@ public class DataSourceTransactionManager implements PlatformTransactionManager,
         this.dataSource = dataSource;
     }
     /**
-     * 代理方法调用
-     * @param proxy 代理对象
-     * @param method 方法对象
-     * @param args 方法参数
+     * 代理方法调用，由生成的代理类直接调用业务方法
+     * @param invocation 被拦截的方法调用
      * @return 方法执行结果
      * @throws Throwable 抛出异常
      */
     @Override
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    public Object invoke(MethodInvocation invocation) throws Throwable {
         TransactionStatus ts = transactionStatus.get();
         if (ts == null) {
             // 当前无事务,开启新事务
@@ -47,22 +47,27 @@ public class DataSourceTransactionManager implements PlatformTransactionManager,
                 try {
                     // 设置ThreadLocal状态
                     transactionStatus.set(new TransactionStatus(connection));
-                    // 调用业务方法
-                    Object r = method.invoke(proxy, args);
-                    // 提交事务
-                    connection.commit();
-                    // 方法返回
-                    return r;
-                } catch (InvocationTargetException e) {
-                    // 回滚事务
-                    logger.warn("由于异常原因，将回滚事务：{}", e.getCause() == null ? "null" : e.getCause().getClass().getName());
-                    TransactionException te = new TransactionException(e.getCause());
+                    Object r;
                     try {
-                        connection.rollback();
-                    } catch (SQLException sqle) {
-                        te.addSuppressed(sqle);
+                        // 调用业务方法
+                        r = invocation.proceed();
+                    } catch (Throwable e) {
+                        // 回滚事务，业务方法的异常包装为TransactionException，Error直接抛出
+                        logger.warn("由于异常原因，将回滚事务：{}", e.getClass().getName());
+                        Throwable t = e instanceof Error ? e : new TransactionException(e);
+                        rollback(connection, t);
+                        throw t;
                     }
-                    throw te;
+                    try {
+                        // 提交事务
+                        connection.commit();
+                    } catch (SQLException e) {
+                        TransactionException te = new TransactionException("Commit transaction failed.", e);
+                        rollback(connection, te);
+                        throw te;
+                    }
+                    // 方法返回
+                    return r;
                 } finally {
                     // 删除 ThreadLocal 状态
                     transactionStatus.remove();
@@ -73,7 +78,56 @@ public class DataSourceTransactionManager implements PlatformTransactionManager,
             }
         } else {
             // 当前已有事务,加入当前事务执行:
-            return method.invoke(proxy, args);
+            return invocation.proceed();
+        }
+    }
+
+    // 回滚失败的异常附加到t上:
+    void rollback(Connection connection, Throwable t) {
+        try {
+            connection.rollback();
+        } catch (SQLException sqle) {
+            t.addSuppressed(sqle);
+        }
+    }
+
+    /**
+     * 兼容通过InvocationHandler创建的代理，业务方法通过反射调用
+     * @param proxy 原始Bean
+     * @param method 方法对象
+     * @param args 方法参数
+     * @return 方法执行结果
+     * @throws Throwable 抛出异常
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        return invoke(new ReflectiveMethodInvocation(proxy, method, args));
+    }
+
+    record ReflectiveMethodInvocation(Object bean, Method method, Object[] args) implements MethodInvocation {
+
+        @Override
+        public Object getThis() {
+            return this.bean;
+        }
+
+        @Override
+        public Method getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return this.args;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            try {
+                return this.method.invoke(this.bean, this.args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
         }
     }
 }
@@ -1,12 +1,18 @@
 package org.demo.jdbc.with.tx;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.demo.context.AnnotationConfigApplicationContext;
+import org.demo.exception.BeanCreationException;
 import org.demo.exception.TransactionException;
+import org.demo.io.PropertyResolver;
 import org.demo.jdbc.JdbcTemplate;
 import org.demo.jdbc.JdbcTestBase;
+import org.demo.jdbc.tx.DataSourceTransactionManager;
 import org.junit.jupiter.api.Test;
 
+import javax.sql.DataSource;
 import java.util.List;
+import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,4 +70,55 @@ public class JdbcWithTxTest extends JdbcTestBase {
             assertEquals(2, addressesOfBob.size());
         }
     }
+
+    @Test
+    public void testReloadDataSourceProperties() {
+        var propertyResolver = createPropertyResolver();
+        try (var ctx = new AnnotationConfigApplicationContext(JdbcWithTxApplication.class, propertyResolver)) {
+            HikariDataSource dataSource = (HikariDataSource) ctx.getBean(DataSource.class);
+            assertEquals(20, dataSource.getMaximumPoolSize());
+            var ps = new Properties();
+            ps.put("demo.datasource.url", "jdbc:sqlite:test.db");
+            ps.put("demo.datasource.username", "sa");
+            ps.put("demo.datasource.password", "");
+            ps.put("demo.datasource.driver-class-name", "org.sqlite.JDBC");
+            ps.put("demo.datasource.maximum-pool-size", "5");
+            ps.put("demo.datasource.connection-timeout", "5000");
+            propertyResolver.reload(ps);
+            // 连接池在原实例上调整:
+            assertSame(dataSource, ctx.getBean(DataSource.class));
+            assertEquals(5, dataSource.getMaximumPoolSize());
+            assertEquals(5000, dataSource.getConnectionTimeout());
+            ctx.close();
+            // 关闭后不再响应配置变化:
+            ps.put("demo.datasource.maximum-pool-size", "8");
+            propertyResolver.reload(ps);
+            assertTrue(dataSource.isClosed());
+            assertEquals(5, dataSource.getMaximumPoolSize());
+        }
+    }
+
+    @Test
+    public void testRollbackOnError() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(JdbcWithTxApplication.class, createPropertyResolver())) {
+            var transactionManager = new DataSourceTransactionManager(ctx.getBean(DataSource.class));
+            Runnable overflow = () -> {
+                throw new StackOverflowError();
+            };
+            Runnable failure = () -> {
+                throw new IllegalStateException();
+            };
+            // Error回滚后直接抛出，业务异常包装为TransactionException:
+            assertThrows(StackOverflowError.class, () -> transactionManager.invoke(overflow, Runnable.class.getMethod("run"), null));
+            var e = assertThrows(TransactionException.class, () -> transactionManager.invoke(failure, Runnable.class.getMethod("run"), null));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    @Test
+    public void testMissingDataSourceUrl() {
+        // 没有DataSource时启动失败，@Transactional的Bean不会在没有事务的情况下运行:
+        var e = assertThrows(BeanCreationException.class, () -> new AnnotationConfigApplicationContext(JdbcWithTxApplication.class, new PropertyResolver(new Properties())));
+        assertTrue(e.getMessage().contains(DataSource.class.getName()));
+    }
 }
@@ -5,6 +5,7 @@ import jakarta.servlet.ServletContextListener;
 import org.demo.context.AnnotationConfigApplicationContext;
 import org.demo.context.ApplicationContext;
 import org.demo.exception.NestedRuntimeException;
+import org.demo.io.PropertyFileWatcher;
 import org.demo.io.PropertyResolver;
 import org.demo.web.utils.WebUtils;
 import org.slf4j.Logger;
@@ -35,6 +36,11 @@ public class ContextLoaderListener implements ServletContextListener {
         WebUtils.registerDispatcherServlet(servletContext, propertyResolver);
         // 设置 applicationContext 属性，便于停止时获取并关闭
         servletContext.setAttribute("applicationContext", applicationContext);
+        // 配置文件修改后重新加载:
+        PropertyFileWatcher watcher = WebUtils.createPropertyFileWatcher(propertyResolver);
+        if (watcher != null) {
+            servletContext.setAttribute("propertyFileWatcher", watcher);
+        }
     }
 
     /**
@@ -44,6 +50,9 @@ public class ContextLoaderListener implements ServletContextListener {
      */
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
+        if (sce.getServletContext().getAttribute("propertyFileWatcher") instanceof PropertyFileWatcher watcher) {
+            watcher.close();
+        }
         if (sce.getServletContext().getAttribute("applicationContext") instanceof ApplicationContext applicationContext) {
             applicationContext.close();
         }
@@ -74,7 +74,6 @@ public class DispatcherServlet extends HttpServlet {
         // 扫描 @Controller 和 @RestController 注解:
         for (var def : ((ConfigurableApplicationContext) this.applicationContext).findBeanDefinitions(Object.class)) {
             Class<?> beanClass = def.getBeanClass();
-            Object bean = def.getRequiredInstance();
             Controller controller = beanClass.getAnnotation(Controller.class);
             RestController restController = beanClass.getAnnotation(RestController.class);
 
@@ -85,12 +84,12 @@ public class DispatcherServlet extends HttpServlet {
 
             // 如果是 @Controller 注解，则将其添加到控制器列表
             if (controller != null) {
-                addController(false, def.getName(), bean);
+                addController(false, def.getName(), this.applicationContext.getBean(def.getName()));
             }
 
             // 如果是 @RestController 注解，则将其添加到控制器列表
             if (restController != null) {
-                addController(true, def.getName(), bean);
+                addController(true, def.getName(), this.applicationContext.getBean(def.getName()));
             }
         }
     }
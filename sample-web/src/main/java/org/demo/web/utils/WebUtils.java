@@ -1,8 +1,10 @@
 package org.demo.web.utils;
 
+import jakarta.annotation.Nullable;
 import jakarta.servlet.DispatcherType;
 import jakarta.servlet.ServletContext;
 import org.demo.context.ApplicationContextUtils;
+import org.demo.io.PropertyFileWatcher;
 import org.demo.io.PropertyResolver;
 import org.demo.utils.ClassPathUtils;
 import org.demo.utils.YamlUtils;
@@ -12,7 +14,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
 import java.util.*;
 
 public class WebUtils {
@@ -24,6 +31,11 @@ public class WebUtils {
     static final String CONFIG_APP_YAML = "/application.yml";
     static final String CONFIG_APP_PROP = "/application.properties";
 
+    /**
+     * 是否在配置文件修改后重新加载
+     */
+    static final String CONFIG_WATCH_PROPERTY = "${demo.config.watch:false}";
+
     public static void registerDispatcherServlet(ServletContext servletContext, PropertyResolver properyResolver) {
         var dispatcherServlet = new DispatcherServlet(ApplicationContextUtils.getRequiredApplicationContext(), properyResolver);
         logger.info("register servlet {} for URL '/'", dispatcherServlet.getClass().getName());
@@ -63,27 +75,62 @@ public class WebUtils {
      * Try load property resolver from /application.yml or /application.properties.
      */
     public static PropertyResolver createPropertyResolver() {
-        final Properties props = new Properties();
+        Map<String, String> properties = new HashMap<>();
         // try load application.yml:
         try {
-            Map<String, Object> ymlMap = YamlUtils.loadYamlAsPlainMap(CONFIG_APP_YAML);
+            // 直接拍平到PropertyResolver使用的Map中:
+            properties = YamlUtils.loadYamlInto(CONFIG_APP_YAML, properties);
             logger.info("load config: {}", CONFIG_APP_YAML);
-            for (String key : ymlMap.keySet()) {
-                Object value = ymlMap.get(key);
-                if (value instanceof String strValue) {
-                    props.put(key, strValue);
-                }
-            }
         } catch (UncheckedIOException e) {
             if (e.getCause() instanceof FileNotFoundException) {
                 // try load application.properties:
-                ClassPathUtils.readInputStream(CONFIG_APP_PROP, (input) -> {
+                properties = ClassPathUtils.readInputStream(CONFIG_APP_PROP, (input) -> {
                     logger.info("load config: {}", CONFIG_APP_PROP);
-                    props.load(input);
-                    return true;
+                    return loadProperties(input);
                 });
             }
         }
-        return new PropertyResolver(props);
+        return new PropertyResolver(properties);
+    }
+
+    /**
+     * 设置demo.config.watch=true时监视文件系统中的/application.yml或/application.properties，修改后重新加载，否则返回null。
+     */
+    @Nullable
+    public static PropertyFileWatcher createPropertyFileWatcher(PropertyResolver propertyResolver) {
+        if (!propertyResolver.getProperty(CONFIG_WATCH_PROPERTY, boolean.class)) {
+            return null;
+        }
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = WebUtils.class.getClassLoader();
+        }
+        for (String config : List.of(CONFIG_APP_YAML, CONFIG_APP_PROP)) {
+            URL url = cl.getResource(config.substring(1));
+            if (url == null) {
+                continue;
+            }
+            if (!"file".equals(url.getProtocol())) {
+                logger.warn("Cannot watch config {} which is not in file system: {}", config, url);
+                return null;
+            }
+            try {
+                return new PropertyFileWatcher(propertyResolver, Path.of(url.toURI()),
+                        CONFIG_APP_YAML.equals(config) ? input -> YamlUtils.loadYamlInto(input, new HashMap<>(), YamlUtils.getActiveProfiles()) : WebUtils::loadProperties);
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("Invalid config url: " + url, e);
+            }
+        }
+        return null;
+    }
+
+    static Map<String, String> loadProperties(InputStream input) throws IOException {
+        Properties props = new Properties();
+        props.load(input);
+        Map<String, String> properties = new HashMap<>();
+        for (String name : props.stringPropertyNames()) {
+            properties.put(name, props.getProperty(name));
+        }
+        return properties;
     }
 }